@@ -0,0 +1,334 @@
+package com.example.backend.dataset;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.User;
+import com.example.backend.util.LocationUtil;
+import com.example.backend.util.WeeklyAvailability;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Times every read {@code @Query} method in the repository package against a generated dataset
+ * and writes a latency report.
+ * <p>
+ * Options are ordinary Spring arguments:
+ * <ul>
+ *   <li>{@code --spring.profiles.active=benchmark-h2} for in-memory H2 instead of the local
+ *   PostgreSQL from {@code application.properties}</li>
+ *   <li>{@code --dataset.generate=false} to measure rows left by an earlier run</li>
+ *   <li>{@code --dataset.scale=1} for production size, default 0.01; {@code --dataset.seed},
+ *   {@code --dataset.batch-size}</li>
+ *   <li>{@code --benchmark.warmup}, {@code --benchmark.iterations} and {@code --benchmark.report},
+ *   the CSV file written at the end</li>
+ * </ul>
+ * Parameters are bound by {@code @Param} name to values sampled from the data: the largest inbox,
+ * the busiest volunteer, a 5 km radius around central Dhaka, and so on. A query whose parameters
+ * cannot be bound is reported as skipped, so a new query shows up in the report either way.
+ * Each call runs in its own rolled-back transaction, so locking reads are measured as well.
+ */
+@Slf4j
+public class RepositoryQueryBenchmark {
+    
+    private static final String REPOSITORY_PACKAGE = "com.example.backend.repository";
+    private static final int PAGE_SIZE = 20;
+    private static final double RADIUS_KM = 5.0;
+    private static final BigDecimal CENTER_LAT = new BigDecimal("23.8103");
+    private static final BigDecimal CENTER_LNG = new BigDecimal("90.4125");
+    
+    private record Result(String query, int rows, double[] millis, String failure) {
+        
+        double percentile(double p) {
+            return millis[Math.max(0, (int) Math.ceil(p * millis.length) - 1)];
+        }
+    }
+    
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    private final Map<String, Object> samples;
+    
+    RepositoryQueryBenchmark(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.environment = context.getEnvironment();
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        if (environment.getProperty("dataset.generate", Boolean.class, true)) {
+            generate();
+        }
+        this.samples = sample();
+    }
+    
+    public static void main(String[] args) throws IOException {
+        // A devtools restart would run the benchmark in a second class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("benchmark")
+                .run(args);
+        try {
+            new RepositoryQueryBenchmark(context).run();
+        } finally {
+            SpringApplication.exit(context);
+        }
+    }
+    
+    private void generate() {
+        SyntheticDataset.Scale scale = SyntheticDataset.Scale.PRODUCTION
+                .scaled(environment.getProperty("dataset.scale", Double.class, 0.01));
+        new SyntheticDataset(jdbcTemplate, scale,
+                environment.getProperty("dataset.seed", Long.class, 42L),
+                environment.getProperty("dataset.batch-size", Integer.class, 5000),
+                now).generate();
+        // Fresh tables have no planner statistics until the next autovacuum
+        jdbcTemplate.execute("ANALYZE");
+    }
+    
+    /**
+     * Values for every {@code @Param} name used by the read queries, taken from the data where the
+     * choice matters for the plan
+     */
+    private Map<String, Object> sample() {
+        Long userId = first("SELECT recipient_id FROM notifications GROUP BY recipient_id " +
+                "ORDER BY COUNT(*) DESC LIMIT 1", "SELECT MIN(id) FROM users");
+        Long volunteerId = first("SELECT assigned_volunteer_id FROM help_requests WHERE assigned_volunteer_id IS NOT NULL " +
+                "GROUP BY assigned_volunteer_id ORDER BY COUNT(*) DESC LIMIT 1", "SELECT MIN(id) FROM volunteers");
+        // Cursor at the end of the first inbox page, and a read watermark a month back
+        List<Object[]> cursor = jdbcTemplate.query("SELECT created_at, id FROM notifications " +
+                "WHERE recipient_id = ? ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?",
+                (resultSet, row) -> new Object[] {resultSet.getTimestamp(1).toLocalDateTime(), resultSet.getLong(2)},
+                userId, PAGE_SIZE - 1);
+        Object cursorCreatedAt = cursor.isEmpty() ? now : cursor.get(0)[0];
+        Object cursorId = cursor.isEmpty() ? Long.MAX_VALUE : cursor.get(0)[1];
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(CENTER_LAT, CENTER_LNG, RADIUS_KM);
+        
+        return Map.ofEntries(
+                Map.entry("userId", userId),
+                Map.entry("adminId", userId),
+                Map.entry("volunteerId", volunteerId),
+                Map.entry("requestId", first("SELECT MIN(id) FROM help_requests", "SELECT 0")),
+                Map.entry("personId", first("SELECT MIN(id) FROM missing_persons", "SELECT 0")),
+                Map.entry("skillIds", jdbcTemplate.queryForList("SELECT id FROM skills ORDER BY id LIMIT 2", Long.class)),
+                Map.entry("createdAt", cursorCreatedAt),
+                Map.entry("id", cursorId),
+                Map.entry("readAt", now.minusDays(30)),
+                Map.entry("readId", 0L),
+                Map.entry("lat", CENTER_LAT),
+                Map.entry("lng", CENTER_LNG),
+                Map.entry("radius", RADIUS_KM),
+                Map.entry("minLat", box.minLat),
+                Map.entry("maxLat", box.maxLat),
+                Map.entry("minLng", box.minLon),
+                Map.entry("maxLng", box.maxLon),
+                Map.entry("today", now.toLocalDate()),
+                Map.entry("date", now.toLocalDate()),
+                Map.entry("after", now.toLocalDate().minusDays(30)),
+                Map.entry("now", now),
+                Map.entry("cutoff", now.minusDays(30)),
+                Map.entry("startDate", now.minusDays(30)),
+                Map.entry("endDate", now),
+                Map.entry("slot", WeeklyAvailability.slot(now)),
+                Map.entry("limit", PAGE_SIZE),
+                Map.entry("bloodType", BloodDonor.BloodType.O_POSITIVE),
+                Map.entry("userType", User.UserType.VOLUNTEER));
+    }
+    
+    private Long first(String sql, String fallbackSql) {
+        List<Long> values = jdbcTemplate.queryForList(sql, Long.class);
+        return !values.isEmpty() && values.get(0) != null
+                ? values.get(0)
+                : jdbcTemplate.queryForObject(fallbackSql, Long.class);
+    }
+    
+    void run() throws IOException {
+        int warmup = environment.getProperty("benchmark.warmup", Integer.class, 5);
+        int iterations = environment.getProperty("benchmark.iterations", Integer.class, 20);
+        Repositories repositories = new Repositories(context);
+        
+        List<Result> results = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Class<?> repositoryInterface = information.getRepositoryInterface();
+            if (!repositoryInterface.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                continue;
+            }
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            information.getQueryMethods().stream()
+                    .filter(method -> method.isAnnotationPresent(Query.class) && !method.isAnnotationPresent(Modifying.class))
+                    .sorted(Comparator.comparing(Method::getName))
+                    .forEach(method -> results.add(measure(repository, repositoryInterface, domainType, method,
+                            warmup, iterations)));
+        }
+        results.sort(Comparator.comparing(Result::query));
+        report(results, Path.of(environment.getProperty("benchmark.report", "target/repository-query-latency.csv")));
+    }
+    
+    private Result measure(Object repository, Class<?> repositoryInterface, Class<?> domainType, Method method,
+                           int warmup, int iterations) {
+        String query = repositoryInterface.getSimpleName() + "." + method.getName();
+        Object[] arguments;
+        try {
+            arguments = bind(method, domainType);
+        } catch (IllegalArgumentException e) {
+            return new Result(query, 0, new double[0], "skipped: " + e.getMessage());
+        }
+        
+        double[] millis = new double[iterations];
+        int rows = 0;
+        try {
+            for (int i = 0; i < warmup + iterations; i++) {
+                long[] elapsed = new long[1];
+                Object result = transactionTemplate.execute(status -> {
+                    status.setRollbackOnly();
+                    long start = System.nanoTime();
+                    Object value = invoke(repository, method, arguments);
+                    elapsed[0] = System.nanoTime() - start;
+                    return value;
+                });
+                if (i >= warmup) {
+                    millis[i - warmup] = elapsed[0] / 1_000_000.0;
+                }
+                rows = rows(result);
+            }
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            String message = String.valueOf(cause.getMessage()).lines().findFirst().orElse("");
+            return new Result(query, 0, new double[0], "failed: " + message);
+        }
+        Arrays.sort(millis);
+        log.info("{}: {} rows, p50 {} ms", query, rows, String.format("%.3f", millis[iterations / 2]));
+        return new Result(query, rows, millis, null);
+    }
+    
+    private static Object invoke(Object repository, Method method, Object[] arguments) {
+        try {
+            return method.invoke(repository, arguments);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private Object[] bind(Method method, Class<?> domainType) {
+        Parameter[] parameters = method.getParameters();
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            arguments[i] = bind(parameters[i], domainType);
+        }
+        return arguments;
+    }
+    
+    private Object bind(Parameter parameter, Class<?> domainType) {
+        Class<?> type = parameter.getType();
+        if (type == Limit.class) {
+            return Limit.of(PAGE_SIZE);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, PAGE_SIZE);
+        }
+        Param param = parameter.getAnnotation(Param.class);
+        if (param == null) {
+            throw new IllegalArgumentException("no @Param on " + type.getSimpleName() + " parameter");
+        }
+        String name = param.value();
+        if (name.equals("ids")) {
+            // Ids of the repository's own table
+            String table = domainType.getAnnotation(Table.class).name();
+            return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id LIMIT 100", Long.class);
+        }
+        if (name.equals("bloodTypes")) {
+            Class<?> element = (Class<?>) ((ParameterizedType) parameter.getParameterizedType()).getActualTypeArguments()[0];
+            EnumSet<BloodDonor.BloodType> bloodTypes = EnumSet.of(BloodDonor.BloodType.O_POSITIVE, BloodDonor.BloodType.O_NEGATIVE);
+            return element == String.class ? bloodTypes.stream().map(Enum::name).toList() : bloodTypes;
+        }
+        Object value = samples.get(name);
+        if (value == null && type.isEnum()) {
+            value = type.getEnumConstants()[0];
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("no sample for :" + name);
+        }
+        return value;
+    }
+    
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result != null ? 1 : 0;
+    }
+    
+    private void report(List<Result> results, Path path) throws IOException {
+        StringBuilder table = new StringBuilder(String.format("%n%-72s %8s %10s %10s %10s %10s%n",
+                "query", "rows", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Result result : results) {
+            table.append(result.failure() != null
+                    ? String.format("%-72s %s%n", result.query(), result.failure())
+                    : String.format("%-72s %8d %10.3f %10.3f %10.3f %10.3f%n", result.query(), result.rows(),
+                            result.percentile(0.5), result.percentile(0.95), result.percentile(0.99),
+                            result.percentile(1.0)));
+        }
+        System.out.print(table);
+        
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println("query,rows,p50_ms,p95_ms,p99_ms,max_ms,note");
+            for (Result result : results) {
+                if (result.failure() != null) {
+                    writer.printf("%s,,,,,,\"%s\"%n", result.query(), result.failure().replace("\"", "'"));
+                } else {
+                    writer.printf("%s,%d,%.3f,%.3f,%.3f,%.3f,%n", result.query(), result.rows(),
+                            result.percentile(0.5), result.percentile(0.95), result.percentile(0.99),
+                            result.percentile(1.0));
+                }
+            }
+        }
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+}
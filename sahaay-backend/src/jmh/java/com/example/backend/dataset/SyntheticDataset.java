@@ -0,0 +1,519 @@
+package com.example.backend.dataset;
+
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.BloodRequest;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.entity.Notification;
+import com.example.backend.entity.SOSAlert;
+import com.example.backend.entity.User;
+import com.example.backend.entity.Volunteer;
+import com.example.backend.util.WeeklyAvailability;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Streams a synthetic dataset into the application schema with batched JDBC inserts, so
+ * production-sized tables can be reproduced on a laptop against H2 or a local PostgreSQL.
+ * <p>
+ * Rows are written straight from the generator, never held in memory, and the same seed and
+ * scale always produce the same rows. People and places cluster around the eight divisional
+ * cities weighted by population, with a rural tail; notification recipients are heavily skewed
+ * so a few inboxes hold tens of thousands of rows. Ids continue after the current maximum of
+ * each table, so a dataset can be added to a database that already has data.
+ */
+@Slf4j
+public class SyntheticDataset {
+    
+    /**
+     * Row counts per table
+     */
+    public record Scale(int users, int volunteers, int bloodDonors, int helpRequests,
+                        int sosAlerts, int bloodRequests, int notifications) {
+        
+        public static final Scale PRODUCTION =
+                new Scale(1_000_000, 100_000, 100_000, 50_000, 20_000, 20_000, 5_000_000);
+        
+        /**
+         * Every table multiplied by {@code factor}, with volunteers and donors capped at the user count
+         */
+        public Scale scaled(double factor) {
+            int scaledUsers = scale(users, factor);
+            return new Scale(scaledUsers,
+                    Math.min(scale(volunteers, factor), scaledUsers),
+                    Math.min(scale(bloodDonors, factor), scaledUsers),
+                    scale(helpRequests, factor),
+                    scale(sosAlerts, factor),
+                    scale(bloodRequests, factor),
+                    scale(notifications, factor));
+        }
+        
+        private static int scale(int rows, double factor) {
+            return (int) Math.max(1, Math.round(rows * factor));
+        }
+    }
+    
+    private record City(String name, double latitude, double longitude, double weight) {
+    }
+    
+    private static final List<City> CITIES = List.of(
+            new City("Dhaka", 23.8103, 90.4125, 0.45),
+            new City("Chattogram", 22.3569, 91.7832, 0.18),
+            new City("Khulna", 22.8456, 89.5403, 0.08),
+            new City("Rajshahi", 24.3745, 88.6042, 0.07),
+            new City("Sylhet", 24.8949, 91.8687, 0.06),
+            new City("Mymensingh", 24.7471, 90.4203, 0.06),
+            new City("Rangpur", 25.7439, 89.2752, 0.05),
+            new City("Barishal", 22.7010, 90.3535, 0.05));
+    
+    // Standard deviation in degrees around a city centre, and for the share of points outside towns
+    private static final double URBAN_SPREAD_DEGREES = 0.04;
+    private static final double RURAL_SPREAD_DEGREES = 0.5;
+    private static final double RURAL_SHARE = 0.1;
+    
+    private static final String[] FIRST_NAMES = {"Abdul", "Ayesha", "Farhan", "Fatema", "Habib", "Jannat",
+            "Karim", "Nusrat", "Rahim", "Sadia", "Tanvir", "Sumaiya", "Imran", "Tasnim", "Arif", "Mim"};
+    private static final String[] LAST_NAMES = {"Ahmed", "Akter", "Chowdhury", "Hossain", "Islam", "Khan",
+            "Miah", "Rahman", "Sarkar", "Uddin", "Das", "Begum"};
+    private static final String[] SKILLS = {"First Aid", "Driving", "Cooking", "Elder Care", "Child Care",
+            "Tutoring", "Counseling", "Plumbing", "Electrical", "Sign Language", "Translation", "Shopping"};
+    private static final String[] HELP_CATEGORIES = {"Errands", "Medical", "Transport", "Household",
+            "Education", "Companionship"};
+    private static final String[] HOSPITALS = {"Medical College Hospital", "General Hospital",
+            "Sadar Hospital", "Specialized Hospital"};
+    private static final Map<Notification.NotificationType, String> NOTIFICATION_TITLES = Map.of(
+            Notification.NotificationType.SOS_ALERT, "SOS Alert Nearby",
+            Notification.NotificationType.HELP_REQUEST, "New Help Request",
+            Notification.NotificationType.BLOOD_REQUEST, "Blood Donation Request",
+            Notification.NotificationType.MISSING_PERSON, "Missing Person Alert",
+            Notification.NotificationType.SYSTEM, "Account Update",
+            Notification.NotificationType.REMINDER, "Upcoming Task Reminder");
+    
+    private static final BloodDonor.BloodType[] BLOOD_TYPES = BloodDonor.BloodType.values();
+    private static final double[] BLOOD_TYPE_WEIGHTS = {0.25, 0.005, 0.30, 0.01, 0.07, 0.005, 0.35, 0.01};
+    private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3Z6o3o9e0F6Y7cB1J2K3L4m";
+    // Notification ids come from a pooled sequence, not an identity column; see Notification.id
+    private static final String NOTIFICATION_SEQUENCE = "notifications_id_seq";
+    private static final int NOTIFICATION_ALLOCATION_SIZE = 50;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Scale scale;
+    private final long seed;
+    private final int batchSize;
+    private final LocalDateTime now;
+    
+    public SyntheticDataset(JdbcTemplate jdbcTemplate, Scale scale, long seed, int batchSize, LocalDateTime now) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.scale = scale;
+        this.seed = seed;
+        this.batchSize = batchSize;
+        this.now = now.truncatedTo(ChronoUnit.MICROS);
+    }
+    
+    /**
+     * Insert every table in foreign key order and move the identity columns and id sequences past
+     * the new ids
+     */
+    public void generate() {
+        log.info("Generating {} with seed {}", scale, seed);
+        long[] skillIds = ensureSkills();
+        long userBase = maxId("users");
+        long volunteerBase = maxId("volunteers");
+        
+        insertUsers(userBase);
+        insertVolunteers(volunteerBase, userBase);
+        insertVolunteerSkills(volunteerBase, skillIds);
+        insertBloodDonors(maxId("blood_donors"), userBase);
+        insertHelpRequests(maxId("help_requests"), userBase, volunteerBase);
+        insertSosAlerts(maxId("sos_alerts"), userBase);
+        insertBloodRequests(maxId("blood_requests"), userBase);
+        insertNotifications(maxId("notifications"), userBase);
+        
+        for (String table : List.of("skills", "users", "volunteers", "blood_donors", "help_requests",
+                "sos_alerts", "blood_requests")) {
+            restartIdentity(table);
+        }
+        restartPooledSequence(NOTIFICATION_SEQUENCE, maxId("notifications"), NOTIFICATION_ALLOCATION_SIZE);
+    }
+    
+    private long[] ensureSkills() {
+        List<Long> existing = jdbcTemplate.queryForList("SELECT id FROM skills ORDER BY id", Long.class);
+        if (!existing.isEmpty()) {
+            return existing.stream().mapToLong(Long::longValue).toArray();
+        }
+        insert("skills", new String[] {"id", "skill_name", "category", "created_at"}, SKILLS.length, 0,
+                (statement, row, random) -> {
+                    statement.setLong(1, row + 1);
+                    statement.setString(2, SKILLS[row]);
+                    statement.setString(3, "General");
+                    statement.setTimestamp(4, Timestamp.valueOf(now));
+                });
+        return jdbcTemplate.queryForList("SELECT id FROM skills ORDER BY id", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+    }
+    
+    private void insertUsers(long base) {
+        insert("users", new String[] {"id", "username", "email", "password_hash", "full_name", "phone",
+                        "latitude", "longitude", "gender", "user_type", "is_verified", "is_active",
+                        "preferred_language", "created_at", "updated_at"}, scale.users(), 1,
+                (statement, row, random) -> {
+                    long id = base + row + 1;
+                    double[] point = point(random);
+                    Timestamp createdAt = pastTimestamp(random, 730);
+                    statement.setLong(1, id);
+                    statement.setString(2, "bench" + id);
+                    statement.setString(3, "bench" + id + "@example.com");
+                    statement.setString(4, PASSWORD_HASH);
+                    statement.setString(5, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                            + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                    statement.setString(6, String.format("+8801%09d", random.nextInt(1_000_000_000)));
+                    statement.setBigDecimal(7, coordinate(point[0]));
+                    statement.setBigDecimal(8, coordinate(point[1]));
+                    statement.setString(9, random.nextBoolean() ? "MALE" : "FEMALE");
+                    statement.setString(10, (row < scale.volunteers() ? User.UserType.VOLUNTEER : User.UserType.GENERAL).name());
+                    statement.setBoolean(11, random.nextDouble() < 0.6);
+                    statement.setBoolean(12, random.nextDouble() < 0.97);
+                    statement.setString(13, random.nextDouble() < 0.7 ? "bn" : "en");
+                    statement.setTimestamp(14, createdAt);
+                    statement.setTimestamp(15, createdAt);
+                });
+    }
+    
+    // The first scale.volunteers() generated users are the volunteers
+    private void insertVolunteers(long base, long userBase) {
+        List<byte[]> shifts = List.of(
+                WeeklyAvailability.compile(Map.of("MON", List.of("09:00-17:00"), "TUE", List.of("09:00-17:00"),
+                        "WED", List.of("09:00-17:00"), "THU", List.of("09:00-17:00"))),
+                WeeklyAvailability.compile(Map.of("FRI", List.of("08:00-20:00"), "SAT", List.of("08:00-20:00"))),
+                WeeklyAvailability.compile(Map.of("SUN", List.of("18:00-23:00"), "MON", List.of("18:00-23:00"),
+                        "TUE", List.of("18:00-23:00"), "WED", List.of("18:00-23:00"))),
+                WeeklyAvailability.compile(Map.of("SAT", List.of("22:00-06:00"), "SUN", List.of("22:00-06:00"))));
+        insert("volunteers", new String[] {"id", "user_id", "verification_status", "background_check_status",
+                        "availability_bitmap", "max_distance_km", "volunteer_since", "total_completed_tasks",
+                        "average_rating", "is_available", "created_at", "updated_at"}, scale.volunteers(), 2,
+                (statement, row, random) -> {
+                    double status = random.nextDouble();
+                    Timestamp createdAt = pastTimestamp(random, 730);
+                    statement.setLong(1, base + row + 1);
+                    statement.setLong(2, userBase + row + 1);
+                    statement.setString(3, (status < 0.85 ? Volunteer.VerificationStatus.VERIFIED
+                            : status < 0.95 ? Volunteer.VerificationStatus.PENDING
+                            : Volunteer.VerificationStatus.REJECTED).name());
+                    statement.setString(4, status < 0.85 ? "CLEARED" : "PENDING");
+                    if (random.nextDouble() < 0.2) {
+                        statement.setNull(5, Types.BINARY);
+                    } else {
+                        statement.setBytes(5, shifts.get(random.nextInt(shifts.size())));
+                    }
+                    statement.setInt(6, 5 + random.nextInt(21));
+                    statement.setDate(7, Date.valueOf(createdAt.toLocalDateTime().toLocalDate()));
+                    statement.setInt(8, (int) (200 * Math.pow(random.nextDouble(), 3)));
+                    statement.setBigDecimal(9, BigDecimal.valueOf(300 + random.nextInt(201), 2));
+                    statement.setBoolean(10, random.nextDouble() < 0.8);
+                    statement.setTimestamp(11, createdAt);
+                    statement.setTimestamp(12, createdAt);
+                });
+    }
+    
+    private void insertVolunteerSkills(long volunteerBase, long[] skillIds) {
+        // Skills per volunteer cycle through 1, 2 and 3, so the row count is known up front
+        int perCycle = Math.min(3, skillIds.length);
+        int rows = 0;
+        for (int volunteer = 0; volunteer < scale.volunteers(); volunteer++) {
+            rows += volunteer % perCycle + 1;
+        }
+        int[] cursor = {0, 0};
+        insert("volunteer_skills", new String[] {"volunteer_id", "skill_id"}, rows, 3,
+                (statement, row, random) -> {
+                    int volunteer = cursor[0];
+                    int first = (int) ((volunteer * 7L) % skillIds.length);
+                    statement.setLong(1, volunteerBase + volunteer + 1);
+                    statement.setLong(2, skillIds[(first + cursor[1]) % skillIds.length]);
+                    if (++cursor[1] > volunteer % perCycle) {
+                        cursor[0]++;
+                        cursor[1] = 0;
+                    }
+                });
+    }
+    
+    // Donors start half way through the volunteers, so some volunteers also donate
+    private void insertBloodDonors(long base, long userBase) {
+        LocalDate today = now.toLocalDate();
+        insert("blood_donors", new String[] {"id", "user_id", "blood_type", "is_available", "last_donation_date",
+                        "eligible_from", "medical_eligibility", "weight_kg", "emergency_donor",
+                        "contact_preference", "created_at", "updated_at"}, scale.bloodDonors(), 4,
+                (statement, row, random) -> {
+                    LocalDate lastDonation = random.nextDouble() < 0.3 ? null : today.minusDays(1 + random.nextInt(365));
+                    Timestamp createdAt = pastTimestamp(random, 730);
+                    statement.setLong(1, base + row + 1);
+                    statement.setLong(2, userBase + (scale.volunteers() / 2 + row) % scale.users() + 1);
+                    statement.setString(3, pick(random, BLOOD_TYPES, BLOOD_TYPE_WEIGHTS).name());
+                    statement.setBoolean(4, random.nextDouble() < 0.85);
+                    statement.setDate(5, lastDonation != null ? Date.valueOf(lastDonation) : null);
+                    statement.setDate(6, Date.valueOf(BloodDonor.eligibleFrom(lastDonation, today)));
+                    statement.setBoolean(7, random.nextDouble() < 0.95);
+                    statement.setInt(8, 50 + random.nextInt(41));
+                    statement.setBoolean(9, random.nextDouble() < 0.2);
+                    statement.setString(10, BloodDonor.ContactPreference.values()[random.nextInt(3)].name());
+                    statement.setTimestamp(11, createdAt);
+                    statement.setTimestamp(12, createdAt);
+                });
+    }
+    
+    private void insertHelpRequests(long base, long userBase, long volunteerBase) {
+        HelpRequest.Status[] statuses = HelpRequest.Status.values();
+        double[] statusWeights = {0.30, 0.15, 0.05, 0.45, 0.05};
+        HelpRequest.Urgency[] urgencies = HelpRequest.Urgency.values();
+        double[] urgencyWeights = {0.30, 0.40, 0.20, 0.10};
+        LocalDate today = now.toLocalDate();
+        insert("help_requests", new String[] {"id", "requester_id", "title", "description", "category",
+                        "urgency", "location_address", "latitude", "longitude", "max_distance_km", "scheduled_date",
+                        "is_recurring", "compensation_offered", "status", "assigned_volunteer_id", "assigned_at",
+                        "created_at", "updated_at"}, scale.helpRequests(), 5,
+                (statement, row, random) -> {
+                    HelpRequest.Status status = pick(random, statuses, statusWeights);
+                    String category = HELP_CATEGORIES[random.nextInt(HELP_CATEGORIES.length)];
+                    double[] point = point(random);
+                    Timestamp createdAt = pastTimestamp(random, status == HelpRequest.Status.OPEN ? 14 : 180);
+                    boolean assigned = status != HelpRequest.Status.OPEN && status != HelpRequest.Status.CANCELLED;
+                    statement.setLong(1, base + row + 1);
+                    statement.setLong(2, userBase + random.nextInt(scale.users()) + 1);
+                    statement.setString(3, category + " help needed");
+                    statement.setString(4, "Looking for a volunteer to help with " + category.toLowerCase());
+                    statement.setString(5, category);
+                    statement.setString(6, pick(random, urgencies, urgencyWeights).name());
+                    statement.setString(7, "House " + (1 + random.nextInt(200)) + ", Road " + (1 + random.nextInt(50)));
+                    statement.setBigDecimal(8, coordinate(point[0]));
+                    statement.setBigDecimal(9, coordinate(point[1]));
+                    statement.setInt(10, 3 + random.nextInt(13));
+                    statement.setDate(11, Date.valueOf(today.plusDays(random.nextInt(29) - 14)));
+                    statement.setBoolean(12, random.nextDouble() < 0.1);
+                    statement.setBigDecimal(13, BigDecimal.ZERO);
+                    statement.setString(14, status.name());
+                    if (assigned) {
+                        // Workload is skewed towards the most active volunteers
+                        statement.setLong(15, volunteerBase + (long) (scale.volunteers() * Math.pow(random.nextDouble(), 2)) + 1);
+                        statement.setTimestamp(16, createdAt);
+                    } else {
+                        statement.setNull(15, Types.BIGINT);
+                        statement.setNull(16, Types.TIMESTAMP);
+                    }
+                    statement.setTimestamp(17, createdAt);
+                    statement.setTimestamp(18, createdAt);
+                });
+    }
+    
+    private void insertSosAlerts(long base, long userBase) {
+        SOSAlert.Status[] statuses = SOSAlert.Status.values();
+        double[] statusWeights = {0.03, 0.07, 0.80, 0.10};
+        insert("sos_alerts", new String[] {"id", "user_id", "alert_type", "latitude", "longitude", "alert_message",
+                        "status", "priority_level", "is_voice_activated", "created_at"}, scale.sosAlerts(), 6,
+                (statement, row, random) -> {
+                    SOSAlert.Status status = pick(random, statuses, statusWeights);
+                    double[] point = point(random);
+                    statement.setLong(1, base + row + 1);
+                    statement.setLong(2, userBase + random.nextInt(scale.users()) + 1);
+                    statement.setString(3, SOSAlert.AlertType.values()[random.nextInt(SOSAlert.AlertType.values().length)].name());
+                    statement.setBigDecimal(4, coordinate(point[0]));
+                    statement.setBigDecimal(5, coordinate(point[1]));
+                    statement.setString(6, "Emergency! Please help.");
+                    statement.setString(7, status.name());
+                    statement.setString(8, SOSAlert.PriorityLevel.values()[1 + random.nextInt(3)].name());
+                    statement.setBoolean(9, random.nextDouble() < 0.1);
+                    statement.setTimestamp(10, pastTimestamp(random, status == SOSAlert.Status.ACTIVE ? 1 : 365));
+                });
+    }
+    
+    private void insertBloodRequests(long base, long userBase) {
+        BloodRequest.Status[] statuses = BloodRequest.Status.values();
+        double[] statusWeights = {0.20, 0.10, 0.55, 0.15};
+        BloodRequest.Urgency[] urgencies = BloodRequest.Urgency.values();
+        double[] urgencyWeights = {0.10, 0.35, 0.35, 0.20};
+        LocalDate today = now.toLocalDate();
+        insert("blood_requests", new String[] {"id", "requester_id", "patient_name", "blood_type", "units_needed",
+                        "urgency", "hospital_name", "hospital_latitude", "hospital_longitude", "contact_phone",
+                        "needed_by_date", "status", "fulfilled_units", "created_at", "updated_at"}, scale.bloodRequests(), 7,
+                (statement, row, random) -> {
+                    City city = city(random);
+                    BloodRequest.Status status = pick(random, statuses, statusWeights);
+                    int units = 1 + random.nextInt(4);
+                    Timestamp createdAt = pastTimestamp(random, status == BloodRequest.Status.ACTIVE ? 7 : 365);
+                    statement.setLong(1, base + row + 1);
+                    statement.setLong(2, userBase + random.nextInt(scale.users()) + 1);
+                    statement.setString(3, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                            + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                    statement.setString(4, pick(random, BLOOD_TYPES, BLOOD_TYPE_WEIGHTS).name());
+                    statement.setInt(5, units);
+                    statement.setString(6, pick(random, urgencies, urgencyWeights).name());
+                    statement.setString(7, city.name() + " " + HOSPITALS[random.nextInt(HOSPITALS.length)]);
+                    statement.setBigDecimal(8, coordinate(city.latitude() + random.nextGaussian() * 0.01));
+                    statement.setBigDecimal(9, coordinate(city.longitude() + random.nextGaussian() * 0.01));
+                    statement.setString(10, String.format("+8801%09d", random.nextInt(1_000_000_000)));
+                    LocalDate neededFrom = status == BloodRequest.Status.ACTIVE ? today : createdAt.toLocalDateTime().toLocalDate();
+                    statement.setDate(11, Date.valueOf(neededFrom.plusDays(random.nextInt(4))));
+                    statement.setString(12, status.name());
+                    statement.setInt(13, switch (status) {
+                        case FULFILLED -> units;
+                        case PARTIALLY_FULFILLED -> random.nextInt(units);
+                        default -> 0;
+                    });
+                    statement.setTimestamp(14, createdAt);
+                    statement.setTimestamp(15, createdAt);
+                });
+    }
+    
+    private void insertNotifications(long base, long userBase) {
+        Notification.NotificationType[] types = Notification.NotificationType.values();
+        double[] typeWeights = {0.10, 0.30, 0.25, 0.05, 0.10, 0.20};
+        LocalDateTime recent = now.minusDays(7);
+        insert("notifications", new String[] {"id", "recipient_id", "title", "message", "notification_type",
+                        "related_id", "is_read", "priority", "action_required", "sent_via", "expires_at",
+                        "created_at"}, scale.notifications(), 8,
+                (statement, row, random) -> {
+                    Notification.NotificationType type = pick(random, types, typeWeights);
+                    Timestamp createdAt = pastTimestamp(random, 180);
+                    boolean old = createdAt.toLocalDateTime().isBefore(recent);
+                    statement.setLong(1, base + row + 1);
+                    // Cubing a uniform draw puts about a fifth of all rows in the first 1% of inboxes
+                    statement.setLong(2, userBase + (long) (scale.users() * Math.pow(random.nextDouble(), 3)) + 1);
+                    statement.setString(3, NOTIFICATION_TITLES.get(type));
+                    statement.setString(4, NOTIFICATION_TITLES.get(type) + " near you");
+                    statement.setString(5, type.name());
+                    statement.setLong(6, 1 + random.nextInt(Math.max(1, scale.helpRequests())));
+                    statement.setBoolean(7, random.nextDouble() < (old ? 0.9 : 0.4));
+                    statement.setString(8, Notification.Priority.values()[random.nextInt(4)].name());
+                    statement.setBoolean(9, type == Notification.NotificationType.SOS_ALERT);
+                    statement.setString(10, Notification.SentVia.APP.name());
+                    if (random.nextDouble() < 0.3) {
+                        statement.setTimestamp(11, Timestamp.valueOf(createdAt.toLocalDateTime().plusDays(7)));
+                    } else {
+                        statement.setNull(11, Types.TIMESTAMP);
+                    }
+                    statement.setTimestamp(12, createdAt);
+                });
+    }
+    
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement statement, int row, Random random) throws SQLException;
+    }
+    
+    /**
+     * Insert {@code rows} rows on one connection, committing every {@code batchSize} rows. Each
+     * table gets its own random stream, so changing one table's size leaves the others identical
+     */
+    private void insert(String table, String[] columns, int rows, int stream, RowWriter writer) {
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + "?, ".repeat(columns.length - 1) + "?)";
+        Random random = new Random(seed * 31 + stream);
+        long start = System.nanoTime();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int row = 0; row < rows; row++) {
+                    writer.write(statement, row, random);
+                    statement.addBatch();
+                    if ((row + 1) % batchSize == 0 || row == rows - 1) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Inserted {} rows into {} in {} ms ({} rows/s)", rows, table, millis, rows * 1000L / millis);
+    }
+    
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+    
+    private boolean isPostgres() {
+        return "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName()));
+    }
+    
+    private void restartIdentity(String table) {
+        long next = maxId(table) + 1;
+        if (isPostgres()) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?, false)",
+                    Long.class, table, next);
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+    
+    /**
+     * The pooled optimizer treats each value it draws as the top of a block of
+     * {@code allocationSize} ids, so the next draw must be a whole block past {@code maxId}
+     */
+    private void restartPooledSequence(String sequence, long maxId, int allocationSize) {
+        long next = maxId + allocationSize;
+        if (isPostgres()) {
+            jdbcTemplate.queryForObject("SELECT setval(?, ?, false)", Long.class, sequence, next);
+        } else {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+        }
+    }
+    
+    private City city(Random random) {
+        double draw = random.nextDouble();
+        for (City city : CITIES) {
+            draw -= city.weight();
+            if (draw < 0) {
+                return city;
+            }
+        }
+        return CITIES.get(0);
+    }
+    
+    private double[] point(Random random) {
+        City city = city(random);
+        double spread = random.nextDouble() < RURAL_SHARE ? RURAL_SPREAD_DEGREES : URBAN_SPREAD_DEGREES;
+        return new double[] {
+                city.latitude() + random.nextGaussian() * spread,
+                city.longitude() + random.nextGaussian() * spread};
+    }
+    
+    private Timestamp pastTimestamp(Random random, int withinDays) {
+        long micros = (long) (random.nextDouble() * withinDays * 86_400_000_000L);
+        return Timestamp.valueOf(now.minus(micros, ChronoUnit.MICROS));
+    }
+    
+    private static BigDecimal coordinate(double degrees) {
+        return BigDecimal.valueOf(degrees).setScale(8, RoundingMode.HALF_UP);
+    }
+    
+    private static <T> T pick(Random random, T[] values, double[] weights) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < values.length; i++) {
+            draw -= weights[i];
+            if (draw < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+}
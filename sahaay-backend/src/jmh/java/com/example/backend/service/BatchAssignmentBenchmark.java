@@ -0,0 +1,91 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.service.VolunteerIndex.IndexedVolunteer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * {@link BatchAssignmentService#plan} at the configured batch cap, spread over about a degree, with
+ * the default partition size and with every competing request solved in one partition
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchAssignmentBenchmark {
+    
+    @Param({"1000", "5000"})
+    private int size;
+    
+    private final VolunteerMatcher volunteerMatcher = new VolunteerMatcher(5, 0.5, 0.25, 0.15, 0.1);
+    private final BatchAssignmentService partitioned = service(300);
+    private final BatchAssignmentService dense = service(Integer.MAX_VALUE);
+    
+    private List<HelpRequest> requests;
+    private VolunteerIndex volunteers;
+    private List<HelpRequest> denseRequests;
+    private VolunteerIndex denseVolunteers;
+    
+    @Setup
+    public void buildBatch() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(13L);
+        requests = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> spread(fixtures, fixtures.helpRequest(id)))
+                .toList();
+        List<IndexedVolunteer> indexed = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> {
+                    var volunteer = fixtures.volunteer(id);
+                    volunteer.getUser().setLatitude(fixtures.near(BenchmarkFixtures.LATITUDE, 1.0));
+                    volunteer.getUser().setLongitude(fixtures.near(BenchmarkFixtures.LONGITUDE, 1.0));
+                    return IndexedVolunteer.of(volunteer, (int) (id % 3));
+                })
+                .toList();
+        volunteers = index(indexed);
+        // a single partition is cubic, so it stays at a size one group realistically reaches
+        denseRequests = requests.subList(0, Math.min(size, 1000));
+        denseVolunteers = index(indexed.subList(0, Math.min(size, 1000)));
+    }
+    
+    @Benchmark
+    public BatchAssignmentService.Plan partitioned() {
+        return partitioned.plan(requests, volunteers);
+    }
+    
+    @Benchmark
+    public BatchAssignmentService.Plan singlePartition() {
+        return dense.plan(denseRequests, denseVolunteers);
+    }
+    
+    private BatchAssignmentService service(int partitionSize) {
+        return new BatchAssignmentService(null, null, null, null, volunteerMatcher, null, null,
+                5000, partitionSize, 20, 0.1, 0.5);
+    }
+    
+    private static VolunteerIndex index(List<IndexedVolunteer> volunteers) {
+        VolunteerIndex index = new VolunteerIndex(0.1);
+        index.load(volunteers);
+        return index;
+    }
+    
+    private static HelpRequest spread(BenchmarkFixtures fixtures, HelpRequest request) {
+        request.setLatitude(fixtures.near(BenchmarkFixtures.LATITUDE, 1.0));
+        request.setLongitude(fixtures.near(BenchmarkFixtures.LONGITUDE, 1.0));
+        return request;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.BloodRequest;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.entity.Notification;
+import com.example.backend.entity.SOSAlert;
+import com.example.backend.entity.Skill;
+import com.example.backend.entity.User;
+import com.example.backend.entity.Volunteer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic, fully populated entities around one city, as the list endpoints return them
+ */
+final class BenchmarkFixtures {
+    
+    static final double LATITUDE = 23.8103;
+    static final double LONGITUDE = 90.4125;
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 10, 30);
+    private static final List<Skill> SKILLS = List.of(
+            Skill.builder().id(1L).skillName("First Aid").category("Medical").build(),
+            Skill.builder().id(2L).skillName("Driving").category("Transport").build(),
+            Skill.builder().id(3L).skillName("Cooking").category("Household").build(),
+            Skill.builder().id(4L).skillName("Elder Care").category("Care").build());
+    
+    private final Random random;
+    
+    BenchmarkFixtures(long seed) {
+        this.random = new Random(seed);
+    }
+    
+    /**
+     * A point within {@code spreadDegrees / 2} of {@code center}
+     */
+    BigDecimal near(double center, double spreadDegrees) {
+        return BigDecimal.valueOf(center + (random.nextDouble() - 0.5) * spreadDegrees);
+    }
+    
+    User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .email("user" + id + "@example.com")
+                .passwordHash("hash")
+                .fullName("User " + id)
+                .phone("+8801700000" + (id % 1000))
+                .gender(id % 2 == 0 ? "FEMALE" : "MALE")
+                .latitude(near(LATITUDE, 0.1))
+                .longitude(near(LONGITUDE, 0.1))
+                .build();
+    }
+    
+    SOSAlert alert(long id) {
+        return SOSAlert.builder()
+                .id(id)
+                .user(user(id))
+                .latitude(near(LATITUDE, 0.1))
+                .longitude(near(LONGITUDE, 0.1))
+                .locationAddress("Road " + id + ", Gulshan, Dhaka")
+                .alertMessage("Need help urgently")
+                .aiAnalysis(Map.of("sentiment", "distressed", "confidence", 0.92))
+                .createdAt(NOW)
+                .build();
+    }
+    
+    HelpRequest helpRequest(long id) {
+        return HelpRequest.builder()
+                .id(id)
+                .requester(user(id))
+                .title("Groceries for an elderly neighbour " + id)
+                .description("Weekly groceries and a ride to the clinic on Thursday")
+                .category("Errands")
+                .urgency(HelpRequest.Urgency.values()[(int) (id % HelpRequest.Urgency.values().length)])
+                .requiredSkills(new Integer[] {(int) (id % 4) + 1})
+                .locationAddress("House " + id + ", Banani, Dhaka")
+                .latitude(near(LATITUDE, 0.1))
+                .longitude(near(LONGITUDE, 0.1))
+                .scheduledDate(LocalDate.of(2025, 3, 6))
+                .createdAt(NOW)
+                .build();
+    }
+    
+    Volunteer volunteer(long id) {
+        return Volunteer.builder()
+                .id(id)
+                .user(user(id))
+                .verificationStatus(Volunteer.VerificationStatus.VERIFIED)
+                .availabilityHours(Map.of("MONDAY", List.of("09:00-17:00"), "SATURDAY", List.of("10:00-14:00")))
+                .specializations(new String[] {"Elderly support", "Logistics"})
+                .averageRating(BigDecimal.valueOf(4.5))
+                .skills(new ArrayList<>(List.of(SKILLS.get((int) (id % 4)), SKILLS.get((int) ((id + 1) % 4)))))
+                .createdAt(NOW)
+                .build();
+    }
+    
+    BloodDonor donor(long id) {
+        return BloodDonor.builder()
+                .id(id)
+                .user(user(id))
+                .bloodType(BloodDonor.BloodType.values()[(int) (id % BloodDonor.BloodType.values().length)])
+                .lastDonationDate(LocalDate.of(2024, 11, 1))
+                .weightKg(70)
+                .emergencyDonor(id % 3 == 0)
+                .createdAt(NOW)
+                .build();
+    }
+    
+    BloodRequest bloodRequest(long id) {
+        return BloodRequest.builder()
+                .id(id)
+                .requester(user(id))
+                .patientName("Patient " + id)
+                .bloodType(BloodDonor.BloodType.values()[(int) (id % BloodDonor.BloodType.values().length)])
+                .unitsNeeded(2)
+                .urgency(BloodRequest.Urgency.HIGH)
+                .hospitalName("Dhaka Medical College Hospital")
+                .hospitalLatitude(near(LATITUDE, 0.1))
+                .hospitalLongitude(near(LONGITUDE, 0.1))
+                .contactPhone("+8801711111111")
+                .neededByDate(LocalDate.of(2025, 3, 2))
+                .createdAt(NOW)
+                .build();
+    }
+    
+    Notification notification(long id) {
+        return Notification.builder()
+                .id(id)
+                .recipient(User.builder().id(id).build())
+                .title("Blood Donation Request")
+                .message("O+ blood needed at Dhaka Medical College Hospital")
+                .notificationType(Notification.NotificationType.BLOOD_REQUEST)
+                .relatedId(id)
+                .createdAt(NOW)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BloodDonorDTO;
+import com.example.backend.dto.BloodRequestDTO;
+import com.example.backend.dto.HelpRequestDTO;
+import com.example.backend.dto.NotificationDTO;
+import com.example.backend.dto.SOSAlertDTO;
+import com.example.backend.dto.VolunteerDTO;
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.BloodRequest;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.entity.Notification;
+import com.example.backend.entity.SOSAlert;
+import com.example.backend.entity.Volunteer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping for one row of each list endpoint; converters touch no collaborators,
+ * so the services are built without them
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DtoConversionBenchmark {
+    
+    private final SOSAlertService sosAlertService =
+            new SOSAlertService(null, null, null, null, null, null, null);
+    private final HelpRequestService helpRequestService =
+            new HelpRequestService(null, null, null, null, null, null, null);
+    private final BloodDonationService bloodDonationService =
+            new BloodDonationService(null, null, null, null, null, null, null);
+    private final VolunteerService volunteerService = new VolunteerService(null, null, null, null, null);
+    private final NotificationService notificationService = new NotificationService(null, null, null, null, null);
+    
+    private SOSAlert alert;
+    private HelpRequest helpRequest;
+    private BloodDonor donor;
+    private BloodRequest bloodRequest;
+    private Volunteer volunteer;
+    private Notification notification;
+    
+    @Setup
+    public void buildEntities() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(7L);
+        alert = fixtures.alert(1L);
+        helpRequest = fixtures.helpRequest(2L);
+        donor = fixtures.donor(3L);
+        bloodRequest = fixtures.bloodRequest(4L);
+        volunteer = fixtures.volunteer(5L);
+        notification = fixtures.notification(6L);
+    }
+    
+    @Benchmark
+    public SOSAlertDTO sosAlert() {
+        return sosAlertService.convertToDTO(alert);
+    }
+    
+    @Benchmark
+    public HelpRequestDTO helpRequest() {
+        return helpRequestService.convertToDTO(helpRequest);
+    }
+    
+    @Benchmark
+    public BloodDonorDTO bloodDonor() {
+        return bloodDonationService.convertDonorToDTO(donor);
+    }
+    
+    @Benchmark
+    public BloodRequestDTO bloodRequest() {
+        return bloodDonationService.convertRequestToDTO(bloodRequest);
+    }
+    
+    @Benchmark
+    public VolunteerDTO volunteer() {
+        return volunteerService.convertToDTO(volunteer);
+    }
+    
+    @Benchmark
+    public NotificationDTO notification() {
+        return notificationService.convertToDTO(notification);
+    }
+}
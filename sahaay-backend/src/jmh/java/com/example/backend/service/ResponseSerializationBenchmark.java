@@ -0,0 +1,65 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.HelpRequestDTO;
+import com.example.backend.dto.SOSAlertDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Writing list responses to JSON with the same mapper setup Spring MVC uses, at page-sized and
+ * nearby-search-sized list lengths
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseSerializationBenchmark {
+    
+    @Param({"20", "500"})
+    private int size;
+    
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<SOSAlertDTO> alerts;
+    private List<HelpRequestDTO> helpRequests;
+    
+    @Setup
+    public void buildResponses() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(11L);
+        SOSAlertService sosAlertService = new SOSAlertService(null, null, null, null, null, null, null);
+        HelpRequestService helpRequestService = new HelpRequestService(null, null, null, null, null, null, null);
+        alerts = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> sosAlertService.convertToDTO(fixtures.alert(id)))
+                .toList();
+        helpRequests = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> helpRequestService.convertToDTO(fixtures.helpRequest(id)))
+                .toList();
+    }
+    
+    @Benchmark
+    public byte[] sosAlerts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(alerts);
+    }
+    
+    @Benchmark
+    public byte[] helpRequests() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(helpRequests);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.backend.util;
+
+import com.example.backend.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token checks as {@code JwtAuthenticationFilter} runs them on every authenticated request
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtUtilBenchmark {
+    
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private String token;
+    
+    @Setup
+    public void issueToken() {
+        ReflectionTestUtils.setField(jwtUtil, "secret", "YourSuperSecretKeyForSahaayApplication2025!@#$%^&*()");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+        token = jwtUtil.generateToken(User.builder()
+                .id(42L)
+                .username("volunteer42")
+                .email("volunteer42@example.com")
+                .fullName("Volunteer 42")
+                .userType(User.UserType.VOLUNTEER)
+                .build());
+    }
+    
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+    
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+    
+    /**
+     * The filter's full sequence: validate, then read the subject
+     */
+    @Benchmark
+    public String authenticateRequest() {
+        return jwtUtil.validateToken(token) ? jwtUtil.extractUsername(token) : null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distance and bounding-box helpers as called per candidate by the nearby and matching paths,
+ * both the BigDecimal entry points used by repositories and the primitive ones used by indexes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LocationUtilBenchmark {
+    
+    private static final int POINTS = 1024;
+    private static final double LATITUDE = 23.8103;
+    private static final double LONGITUDE = 90.4125;
+    
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private final double[] cosLatitudes = new double[POINTS];
+    private final BigDecimal[] decimalLatitudes = new BigDecimal[POINTS];
+    private final BigDecimal[] decimalLongitudes = new BigDecimal[POINTS];
+    private final double[] box = new double[4];
+    private final BigDecimal centerLatitude = BigDecimal.valueOf(LATITUDE);
+    private final BigDecimal centerLongitude = BigDecimal.valueOf(LONGITUDE);
+    private final double cosCenter = Math.cos(Math.toRadians(LATITUDE));
+    private int next;
+    
+    @Setup
+    public void createPoints() {
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = LATITUDE + (random.nextDouble() - 0.5) * 0.5;
+            longitudes[i] = LONGITUDE + (random.nextDouble() - 0.5) * 0.5;
+            decimalLatitudes[i] = BigDecimal.valueOf(latitudes[i]);
+            decimalLongitudes[i] = BigDecimal.valueOf(longitudes[i]);
+        }
+        LocationUtil.precomputeCosines(latitudes, POINTS, cosLatitudes);
+    }
+    
+    private int nextPoint() {
+        next = (next + 1) & (POINTS - 1);
+        return next;
+    }
+    
+    @Benchmark
+    public double distanceBigDecimal() {
+        int i = nextPoint();
+        return LocationUtil.calculateDistance(centerLatitude, centerLongitude, decimalLatitudes[i], decimalLongitudes[i]);
+    }
+    
+    @Benchmark
+    public double distance() {
+        int i = nextPoint();
+        return LocationUtil.calculateDistance(LATITUDE, LONGITUDE, latitudes[i], longitudes[i]);
+    }
+    
+    @Benchmark
+    public double distancePrecomputedCosines() {
+        int i = nextPoint();
+        return LocationUtil.calculateDistance(LATITUDE, LONGITUDE, cosCenter, latitudes[i], longitudes[i], cosLatitudes[i]);
+    }
+    
+    @Benchmark
+    public LocationUtil.BoundingBox boundingBoxBigDecimal() {
+        int i = nextPoint();
+        return LocationUtil.getBoundingBox(decimalLatitudes[i], decimalLongitudes[i], 10);
+    }
+    
+    @Benchmark
+    public double[] boundingBox() {
+        int i = nextPoint();
+        LocationUtil.getBoundingBox(latitudes[i], longitudes[i], 10, box);
+        return box;
+    }
+}
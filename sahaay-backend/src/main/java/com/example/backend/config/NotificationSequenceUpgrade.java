@@ -0,0 +1,60 @@
+package com.example.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Brings {@code notifications_id_seq} on existing databases to the increment of the pooled id
+ * generator on {@code Notification}. schema.sql only sets it on fresh installs and
+ * {@code ddl-auto=update} never alters an existing sequence, so an upgraded database would still
+ * increment by 1: Hibernate refuses to start on the mismatch, and the pooled optimizer would hand
+ * out colliding ids if it did not.
+ * <p>
+ * Runs before the EntityManagerFactory is built and does nothing once the increment matches or
+ * when the sequence does not exist yet, in which case Hibernate creates it with the right one.
+ */
+@Component
+@Slf4j
+public class NotificationSequenceUpgrade implements InitializingBean {
+    
+    static final String SEQUENCE = "notifications_id_seq";
+    static final int INCREMENT = 50;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public NotificationSequenceUpgrade(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        List<Long> increments = jdbcTemplate.queryForList(
+                "SELECT CAST(increment AS BIGINT) FROM information_schema.sequences " +
+                "WHERE sequence_schema = current_schema() AND LOWER(sequence_name) = ?", Long.class, SEQUENCE);
+        if (increments.isEmpty() || increments.get(0) == INCREMENT) {
+            return;
+        }
+        
+        // The pooled optimizer reads each value as the top of a block, so the next one must be a
+        // whole block past every id the old increment handed out
+        Long last = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE + "')", Long.class);
+        jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " INCREMENT BY " + INCREMENT
+                + " RESTART WITH " + (last + INCREMENT));
+        log.info("Changed {} increment from {} to {}, continuing after id {}",
+                SEQUENCE, increments.get(0), INCREMENT, last);
+    }
+    
+    @Component
+    static class EntityManagerFactoryDependsOnUpgrade extends EntityManagerFactoryDependsOnPostProcessor {
+        
+        EntityManagerFactoryDependsOnUpgrade() {
+            super(NotificationSequenceUpgrade.class);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.backend.controller;
 
 import com.example.backend.dto.BloodDonorDTO;
 import com.example.backend.dto.BloodRequestDTO;
+import com.example.backend.dto.RankedDonorDTO;
 import com.example.backend.service.BloodDonationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -65,6 +66,16 @@ public class BloodDonationController {
         return ResponseEntity.ok(updatedRequest);
     }
     
+    @PostMapping("/requests/{requestId}/pledges")
+    @Operation(summary = "Pledge units", description = "Atomically add pledged or donated units to an open blood request")
+    public ResponseEntity<BloodRequestDTO> pledgeUnits(
+            @PathVariable Long requestId,
+            @RequestParam(defaultValue = "1") int units) {
+        log.info("Pledging {} units to blood request: {}", units, requestId);
+        BloodRequestDTO updatedRequest = bloodDonationService.pledgeUnits(requestId, units);
+        return ResponseEntity.ok(updatedRequest);
+    }
+    
     @GetMapping("/donors/available")
     @Operation(summary = "Find available donors", description = "Find available donors by blood type")
     public ResponseEntity<List<BloodDonorDTO>> findAvailableDonors(@RequestParam String bloodType) {
@@ -73,6 +84,18 @@ public class BloodDonationController {
         return ResponseEntity.ok(donors);
     }
     
+    @GetMapping("/requests/{requestId}/donors/ranked")
+    @Operation(summary = "Rank donors for a request",
+               description = "Get the best compatible donors for a blood request, scored by distance to the " +
+                             "hospital, time since last donation, emergency availability and urgency")
+    public ResponseEntity<List<RankedDonorDTO>> rankDonorsForRequest(
+            @PathVariable Long requestId,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Ranking donors for blood request: {}", requestId);
+        List<RankedDonorDTO> donors = bloodDonationService.rankDonorsForRequest(requestId, limit);
+        return ResponseEntity.ok(donors);
+    }
+    
     @GetMapping("/donors/emergency")
     @Operation(summary = "Find emergency donors", description = "Find emergency donors near a location")
     public ResponseEntity<List<BloodDonorDTO>> findEmergencyDonors(
@@ -1,6 +1,8 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.BatchAssignmentDTO;
 import com.example.backend.dto.HelpRequestDTO;
+import com.example.backend.service.BatchAssignmentService;
 import com.example.backend.service.HelpRequestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -27,6 +29,7 @@ import java.util.List;
 public class HelpRequestController {
     
     private final HelpRequestService helpRequestService;
+    private final BatchAssignmentService batchAssignmentService;
     
     @PostMapping
     @Operation(summary = "Create help request", description = "Create a new help request")
@@ -47,6 +50,15 @@ public class HelpRequestController {
         return ResponseEntity.ok(updatedRequest);
     }
     
+    @PostMapping("/assignments/batch")
+    @Operation(summary = "Batch assign volunteers", description = "Assign volunteers to all open help requests at once, maximising the total match score")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchAssignmentDTO> assignOpenRequests() {
+        log.info("Running batch assignment of open help requests");
+        BatchAssignmentDTO result = batchAssignmentService.assignOpenRequests();
+        return ResponseEntity.ok(result);
+    }
+    
     @PutMapping("/{requestId}/status")
     @Operation(summary = "Update request status", description = "Update the status of a help request")
     public ResponseEntity<HelpRequestDTO> updateStatus(
@@ -94,11 +106,14 @@ public class HelpRequestController {
     }
     
     @GetMapping("/scheduled")
-    @Operation(summary = "Get scheduled requests", description = "Get help requests scheduled for a specific date")
+    @Operation(summary = "Get scheduled requests",
+               description = "Get help requests scheduled for a specific date, optionally only those " +
+                             "falling in a volunteer's weekly availability")
     public ResponseEntity<List<HelpRequestDTO>> getScheduledRequests(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long volunteerId) {
         log.info("Fetching help requests scheduled for: {}", date);
-        List<HelpRequestDTO> requests = helpRequestService.getScheduledRequestsForDate(date);
+        List<HelpRequestDTO> requests = helpRequestService.getScheduledRequestsForDate(date, volunteerId);
         return ResponseEntity.ok(requests);
     }
 }
\ No newline at end of file
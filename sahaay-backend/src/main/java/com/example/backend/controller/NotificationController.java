@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.CursorPage;
 import com.example.backend.dto.NotificationDTO;
 import com.example.backend.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +13,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/notifications")
@@ -21,24 +23,43 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class NotificationController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     private final NotificationService notificationService;
     
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get user notifications", description = "Get all notifications for a user")
+    @Operation(summary = "Get user notifications",
+               description = "Get a page of notifications for a user, newest first. " +
+                             "Pass the X-Next-Cursor response header back as cursor for the next page")
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
-    public ResponseEntity<List<NotificationDTO>> getUserNotifications(@PathVariable Long userId) {
+    public ResponseEntity<List<NotificationDTO>> getUserNotifications(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         log.info("Fetching notifications for user: {}", userId);
-        List<NotificationDTO> notifications = notificationService.getUserNotifications(userId);
-        return ResponseEntity.ok(notifications);
+        CursorPage<NotificationDTO> page = notificationService.getUserNotifications(userId, cursor, size);
+        return pageResponse(page);
     }
     
     @GetMapping("/user/{userId}/unread")
-    @Operation(summary = "Get unread notifications", description = "Get unread notifications for a user")
+    @Operation(summary = "Get unread notifications",
+               description = "Get a page of unread notifications for a user, newest first. " +
+                             "Pass the X-Next-Cursor response header back as cursor for the next page")
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
-    public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(@PathVariable Long userId) {
+    public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         log.info("Fetching unread notifications for user: {}", userId);
-        List<NotificationDTO> notifications = notificationService.getUnreadNotifications(userId);
-        return ResponseEntity.ok(notifications);
+        CursorPage<NotificationDTO> page = notificationService.getUnreadNotifications(userId, cursor, size);
+        return pageResponse(page);
+    }
+    
+    @GetMapping("/user/{userId}/unread/count")
+    @Operation(summary = "Get unread count", description = "Get the number of unread notifications for a user")
+    @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@PathVariable Long userId) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.getUnreadCount(userId)));
     }
     
     @PutMapping("/{notificationId}/read")
@@ -50,11 +71,12 @@ public class NotificationController {
     }
     
     @PutMapping("/user/{userId}/read-all")
-    @Operation(summary = "Mark all as read", description = "Mark all notifications as read for a user")
+    @Operation(summary = "Mark all as read", description = "Mark all notifications as read for a user, up to the id upTo if given")
     @PreAuthorize("#userId == authentication.principal.id")
-    public ResponseEntity<Void> markAllAsRead(@PathVariable Long userId) {
+    public ResponseEntity<Void> markAllAsRead(@PathVariable Long userId,
+                                              @RequestParam(required = false) Long upTo) {
         log.info("Marking all notifications as read for user: {}", userId);
-        notificationService.markAllAsRead(userId);
+        notificationService.markAllAsRead(userId, upTo);
         return ResponseEntity.ok().build();
     }
     
@@ -65,4 +87,12 @@ public class NotificationController {
         notificationService.deleteNotification(notificationId);
         return ResponseEntity.noContent().build();
     }
+    
+    private ResponseEntity<List<NotificationDTO>> pageResponse(CursorPage<NotificationDTO> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
@@ -9,12 +9,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -74,10 +76,12 @@ public class VolunteerController {
     }
     
     @GetMapping("/available")
-    @Operation(summary = "Get available volunteers", description = "Get all available volunteers")
-    public ResponseEntity<List<VolunteerDTO>> getAvailableVolunteers() {
+    @Operation(summary = "Get available volunteers",
+               description = "Get all available volunteers, optionally only those on shift at a given time")
+    public ResponseEntity<List<VolunteerDTO>> getAvailableVolunteers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
         log.info("Fetching available volunteers");
-        List<VolunteerDTO> volunteers = volunteerService.getAvailableVolunteers();
+        List<VolunteerDTO> volunteers = volunteerService.getAvailableVolunteers(at);
         return ResponseEntity.ok(volunteers);
     }
     
@@ -0,0 +1,28 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAssignmentDTO {
+    private List<Assignment> assignments;
+    private List<Long> unassignedRequestIds;
+    private Integer partitions;
+    private Long solveMillis;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Assignment {
+        private Long requestId;
+        private Long volunteerId;
+        private Double score;
+    }
+}
@@ -19,6 +19,7 @@ public class BloodDonorDTO {
     private String bloodType;
     private Boolean isAvailable;
     private LocalDate lastDonationDate;
+    private LocalDate eligibleFrom;
     private Boolean medicalEligibility;
     private Integer weightKg;
     private String healthConditions;
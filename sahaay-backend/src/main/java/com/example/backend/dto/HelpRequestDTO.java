@@ -10,6 +10,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Map;
 
 @Data
 @Builder
@@ -53,6 +54,7 @@ public class HelpRequestDTO {
     private Long assignedVolunteerId;
     private LocalDateTime assignedAt;
     private LocalDateTime completedAt;
+    private Map<String, Object> aiRecommendedVolunteers;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
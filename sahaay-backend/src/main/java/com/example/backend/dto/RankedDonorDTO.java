@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedDonorDTO {
+    private BloodDonorDTO donor;
+    private Double distanceKm;
+    private Integer daysSinceLastDonation;
+    private Double score;
+}
@@ -0,0 +1,21 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedVolunteerDTO {
+    private Long volunteerId;
+    private Long userId;
+    private String fullName;
+    private Double distanceKm;
+    private Double skillCoverage;
+    private Double averageRating;
+    private Integer activeTasks;
+    private Double score;
+}
@@ -59,7 +59,7 @@ public class AbuseReport {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String description;
     
-    @Column(name = "evidence_files", columnDefinition = "text[]")
+    @Column(name = "evidence_files")
     @JdbcTypeCode(SqlTypes.ARRAY)
     private String[] evidenceFiles;
     
@@ -86,7 +86,7 @@ public class AbuseReport {
     private Boolean followUpRequired = true;
     
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "ai_risk_assessment", columnDefinition = "jsonb")
+    @Column(name = "ai_risk_assessment")
     private Map<String, Object> aiRiskAssessment;
     
     @Column(name = "created_at")
@@ -19,6 +19,11 @@ import java.time.LocalDateTime;
 @ToString(exclude = {"user"})
 public class BloodDonor {
     
+    /**
+     * Minimum days between two whole-blood donations
+     */
+    public static final int DONATION_COOLDOWN_DAYS = 56;
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,6 +44,12 @@ public class BloodDonor {
     @Column(name = "last_donation_date")
     private LocalDate lastDonationDate;
     
+    // Kept in step with lastDonationDate so matching queries compare a date instead of computing one.
+    // Nullable so ddl-auto can add it to existing tables; BloodDonorEligibilityBackfill fills those rows
+    @Column(name = "eligible_from")
+    @Builder.Default
+    private LocalDate eligibleFrom = LocalDate.now();
+    
     @Column(name = "medical_eligibility")
     @Builder.Default
     private Boolean medicalEligibility = true;
@@ -49,7 +60,7 @@ public class BloodDonor {
     @Column(name = "health_conditions", columnDefinition = "TEXT")
     private String healthConditions;
     
-    @Column(name = "preferred_donation_centers", columnDefinition = "text[]")
+    @Column(name = "preferred_donation_centers")
     @JdbcTypeCode(SqlTypes.ARRAY)
     private String[] preferredDonationCenters;
     
@@ -75,6 +86,14 @@ public class BloodDonor {
         updatedAt = LocalDateTime.now();
     }
     
+    /**
+     * First day a donor who last gave blood on {@code lastDonationDate} may donate again;
+     * donors with no recorded donation are eligible from {@code today}
+     */
+    public static LocalDate eligibleFrom(LocalDate lastDonationDate, LocalDate today) {
+        return lastDonationDate != null ? lastDonationDate.plusDays(DONATION_COOLDOWN_DAYS) : today;
+    }
+    
     public enum BloodType {
         A_POSITIVE("A+"), A_NEGATIVE("A-"),
         B_POSITIVE("B+"), B_NEGATIVE("B-"),
@@ -90,6 +109,18 @@ public class BloodDonor {
         public String getValue() {
             return value;
         }
+        
+        /**
+         * Parse either the display value ("O-") or the constant name ("O_NEGATIVE")
+         */
+        public static BloodType fromValue(String value) {
+            for (BloodType type : values()) {
+                if (type.value.equalsIgnoreCase(value) || type.name().equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown blood type: " + value);
+        }
     }
     
     public enum ContactPreference {
@@ -46,7 +46,7 @@ public class HelpRequest {
     @Builder.Default
     private Urgency urgency = Urgency.MEDIUM;
     
-    @Column(name = "required_skills", columnDefinition = "integer[]")
+    @Column(name = "required_skills")
     @JdbcTypeCode(SqlTypes.ARRAY)
     private Integer[] requiredSkills;
     
@@ -103,7 +103,7 @@ public class HelpRequest {
     private LocalDateTime completedAt;
     
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "ai_recommended_volunteers", columnDefinition = "jsonb")
+    @Column(name = "ai_recommended_volunteers")
     private Map<String, Object> aiRecommendedVolunteers;
     
     @Column(name = "created_at")
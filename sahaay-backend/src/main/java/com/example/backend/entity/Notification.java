@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "notifications")
@@ -16,8 +17,14 @@ import java.time.LocalDateTime;
 @ToString(exclude = {"recipient"})
 public class Notification {
     
+    /**
+     * Sequence ids with a pooled optimizer, so bulk inserts are sent as JDBC batches
+     * (IDENTITY forces one round-trip per row). notifications_id_seq increments by 50 to match;
+     * NotificationSequenceUpgrade moves existing databases over.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_id_seq")
+    @SequenceGenerator(name = "notifications_id_seq", sequenceName = "notifications_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -62,9 +69,11 @@ public class Notification {
     @Builder.Default
     private SentVia sentVia = SentVia.APP;
     
+    // Truncated to the column's precision, so (createdAt, id) read positions compare the same
+    // in memory as in the database
     @Column(name = "created_at")
     @Builder.Default
-    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     
     public enum NotificationType {
         SOS_ALERT, HELP_REQUEST, BLOOD_REQUEST, MISSING_PERSON, SYSTEM, REMINDER
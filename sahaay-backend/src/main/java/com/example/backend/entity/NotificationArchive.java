@@ -0,0 +1,41 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact copy of a read notification removed from {@code notifications} by retention.
+ * The message body and delivery details are dropped; ids are kept from the original row.
+ */
+@Entity
+@Table(name = "notifications_archive")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationArchive {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+    
+    @Column(nullable = false, length = 200)
+    private String title;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", nullable = false, length = 30)
+    private Notification.NotificationType notificationType;
+    
+    @Column(name = "related_id")
+    private Long relatedId;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,42 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A user's read position in watermark inbox mode. Notifications at or before
+ * ({@code lastReadAt}, {@code lastReadId}) in inbox order are read, as are the ones listed
+ * in {@code readIds}, which only holds notifications read one at a time above the watermark.
+ */
+@Entity
+@Table(name = "notification_read_state")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationReadState {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "last_read_at", nullable = false)
+    private LocalDateTime lastReadAt;
+    
+    @Column(name = "last_read_id", nullable = false)
+    private Long lastReadId;
+    
+    @ElementCollection
+    @CollectionTable(name = "notification_read_ids", joinColumns = @JoinColumn(name = "user_id"))
+    @Column(name = "notification_id")
+    @Builder.Default
+    private Set<Long> readIds = new HashSet<>();
+    
+    @Column(name = "updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,70 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Side effect (WebSocket push, email, SMS) recorded in the same transaction as the change
+ * that caused it and delivered by {@link com.example.backend.service.OutboxRelay} after commit.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_id_seq")
+    @SequenceGenerator(name = "outbox_events_id_seq", sequenceName = "outbox_events_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private EventType eventType;
+    
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+    
+    // Mapped by type rather than columnDefinition so H2 gets json and PostgreSQL jsonb
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Map<String, Object> payload;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    @Column(name = "available_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime availableAt = LocalDateTime.now();
+    
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    
+    public enum EventType {
+        SOS_ALERT, NOTIFICATION, EMAIL, SMS
+    }
+    
+    public enum Status {
+        PENDING, DELIVERED, FAILED
+    }
+}
@@ -75,7 +75,7 @@ public class SOSAlert {
     private LocalDateTime resolvedAt;
     
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "ai_analysis", columnDefinition = "jsonb")
+    @Column(name = "ai_analysis")
     private Map<String, Object> aiAnalysis;
     
     @Column(name = "created_at")
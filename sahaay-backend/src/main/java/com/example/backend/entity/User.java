@@ -18,8 +18,8 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(exclude = {"volunteer", "emergencyContacts", "sosAlerts", "helpRequests", "notifications", "bloodDonor"})
-@ToString(exclude = {"volunteer", "emergencyContacts", "sosAlerts", "helpRequests", "notifications", "bloodDonor"})
+@EqualsAndHashCode(exclude = {"emergencyContacts", "sosAlerts", "helpRequests", "notifications"})
+@ToString(exclude = {"emergencyContacts", "sosAlerts", "helpRequests", "notifications"})
 public class User implements UserDetails {
     
     @Id
@@ -96,10 +96,9 @@ public class User implements UserDetails {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
     
-    // Relationships
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Volunteer volunteer;
-    
+    // Relationships. The volunteer and blood donor profiles are not mapped from this side: an
+    // inverse one-to-one cannot be lazy without bytecode enhancement, so every user load would
+    // query both tables. The database cascades their deletion instead.
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<EmergencyContact> emergencyContacts;
     
@@ -112,9 +111,6 @@ public class User implements UserDetails {
     @OneToMany(mappedBy = "recipient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Notification> notifications;
     
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private BloodDonor bloodDonor;
-    
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -41,9 +41,14 @@ public class Volunteer {
     private String backgroundCheckStatus = "PENDING";
     
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "availability_hours", columnDefinition = "jsonb")
+    @Column(name = "availability_hours")
     private Map<String, List<String>> availabilityHours;
     
+    // availabilityHours compiled by WeeklyAvailability; null means no schedule was given
+    @Column(name = "availability_bitmap")
+    @JsonIgnore
+    private byte[] availabilityBitmap;
+    
     @Column(name = "max_distance_km")
     @Builder.Default
     private Integer maxDistanceKm = 10;
@@ -60,7 +65,6 @@ public class Volunteer {
     @Builder.Default
     private BigDecimal averageRating = BigDecimal.ZERO;
     
-    @Column(columnDefinition = "text[]")
     @JdbcTypeCode(SqlTypes.ARRAY)
     private String[] specializations;
     
@@ -0,0 +1,24 @@
+package com.example.backend.exception;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thrown when someone else claimed a help request or SOS alert first; carries who won so the
+ * caller can be told directly
+ */
+@Getter
+public class ClaimConflictException extends RuntimeException {
+    
+    private final Long claimedById;
+    private final String claimedByName;
+    private final LocalDateTime claimedAt;
+    
+    public ClaimConflictException(String message, Long claimedById, String claimedByName, LocalDateTime claimedAt) {
+        super(message);
+        this.claimedById = claimedById;
+        this.claimedByName = claimedByName;
+        this.claimedAt = claimedAt;
+    }
+}
@@ -50,6 +50,27 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
     
+    @ExceptionHandler(ClaimConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ErrorResponse> handleClaimConflictException(
+            ClaimConflictException ex, WebRequest request) {
+        Map<String, Object> claimedBy = new HashMap<>();
+        claimedBy.put("id", ex.getClaimedById());
+        claimedBy.put("name", ex.getClaimedByName());
+        claimedBy.put("claimedAt", ex.getClaimedAt());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Already Claimed")
+                .message(ex.getMessage())
+                .claimedBy(claimedBy)
+                .path(request.getDescription(false))
+                .build();
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+    
     @ExceptionHandler(UnauthorizedException.class)
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     public ResponseEntity<ErrorResponse> handleUnauthorizedException(
@@ -159,5 +180,6 @@ public class GlobalExceptionHandler {
         private String message;
         private String path;
         private Map<String, String> validationErrors;
+        private Map<String, Object> claimedBy;
     }
 }
@@ -1,31 +1,69 @@
 package com.example.backend.repository;
 import com.example.backend.entity.BloodDonor;
+import com.example.backend.util.LocationUtil;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BloodDonorRepository extends JpaRepository<BloodDonor, Long> {
     Optional<BloodDonor> findByUserId(Long userId);
+    
+    @EntityGraph(attributePaths = "user")
     List<BloodDonor> findByBloodType(BloodDonor.BloodType bloodType);
     
-    @Query("SELECT d FROM BloodDonor d WHERE d.bloodType = :bloodType AND d.isAvailable = true AND d.medicalEligibility = true")
-    List<BloodDonor> findAvailableDonorsByBloodType(@Param("bloodType") BloodDonor.BloodType bloodType);
+    List<BloodDonor> findByEligibleFromIsNull();
+    
+    // Eligibility filters below match idx_blood_donors_eligible, so cooling-down donors are never read
+    
+    @Query("SELECT d FROM BloodDonor d JOIN FETCH d.user WHERE d.isAvailable = true AND d.medicalEligibility = true " +
+           "AND d.eligibleFrom <= :today")
+    List<BloodDonor> findAllAvailableDonors(@Param("today") LocalDate today);
+    
+    // One query for all compatible types; see BloodCompatibility
+    
+    @Query("SELECT d FROM BloodDonor d JOIN FETCH d.user WHERE d.bloodType IN :bloodTypes " +
+           "AND d.isAvailable = true AND d.medicalEligibility = true AND d.eligibleFrom <= :today")
+    List<BloodDonor> findAvailableDonorsByBloodTypeIn(@Param("bloodTypes") Collection<BloodDonor.BloodType> bloodTypes,
+                                                      @Param("today") LocalDate today);
+    
+    /**
+     * Available donors whose cooldown ended after {@code after}, up to and including {@code today}
+     */
+    @Query("SELECT d FROM BloodDonor d JOIN FETCH d.user WHERE d.isAvailable = true AND d.medicalEligibility = true " +
+           "AND d.eligibleFrom > :after AND d.eligibleFrom <= :today")
+    List<BloodDonor> findDonorsEligibleBetween(@Param("after") LocalDate after, @Param("today") LocalDate today);
     
     @Query(value = "SELECT d.* FROM blood_donors d " +
            "JOIN users u ON d.user_id = u.id " +
-           "WHERE d.blood_type = :bloodType AND d.is_available = true " +
-           "AND d.medical_eligibility = true AND d.emergency_donor = true " +
+           "WHERE d.blood_type IN (:bloodTypes) AND d.is_available = true " +
+           "AND d.medical_eligibility = true AND d.emergency_donor = true AND d.eligible_from <= :today " +
+           "AND u.latitude BETWEEN :minLat AND :maxLat AND u.longitude BETWEEN :minLng AND :maxLng " +
            "AND (6371 * acos(cos(radians(:lat)) * cos(radians(u.latitude)) * " +
            "cos(radians(u.longitude) - radians(:lng)) + sin(radians(:lat)) * " +
            "sin(radians(u.latitude)))) < :radius", nativeQuery = true)
-    List<BloodDonor> findEmergencyDonorsNearLocation(@Param("bloodType") String bloodType,
-                                                     @Param("lat") BigDecimal latitude, 
-                                                     @Param("lng") BigDecimal longitude, 
-                                                     @Param("radius") double radiusKm);
+    List<BloodDonor> findEmergencyDonorsWithinBox(@Param("bloodTypes") Collection<String> bloodTypes,
+                                                  @Param("lat") BigDecimal latitude, 
+                                                  @Param("lng") BigDecimal longitude, 
+                                                  @Param("radius") double radiusKm,
+                                                  @Param("minLat") BigDecimal minLat,
+                                                  @Param("maxLat") BigDecimal maxLat,
+                                                  @Param("minLng") BigDecimal minLng,
+                                                  @Param("maxLng") BigDecimal maxLng,
+                                                  @Param("today") LocalDate today);
+    
+    default List<BloodDonor> findEmergencyDonorsNearLocation(Collection<String> bloodTypes, BigDecimal latitude,
+                                                             BigDecimal longitude, double radiusKm, LocalDate today) {
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(latitude, longitude, radiusKm);
+        return findEmergencyDonorsWithinBox(bloodTypes, latitude, longitude, radiusKm,
+                box.minLat, box.maxLat, box.minLon, box.maxLon, today);
+    }
 }
@@ -2,26 +2,54 @@ package com.example.backend.repository;
 
 import com.example.backend.entity.BloodRequest;
 import com.example.backend.entity.BloodDonor;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long> {
+    // List reads fetch the requester in the same statement, since every DTO shows their name
+    
+    @EntityGraph(attributePaths = "requester")
     List<BloodRequest> findByRequesterId(Long requesterId);
+    
+    @EntityGraph(attributePaths = "requester")
     List<BloodRequest> findByStatus(BloodRequest.Status status);
+    
+    @EntityGraph(attributePaths = "requester")
     List<BloodRequest> findByBloodType(BloodDonor.BloodType bloodType);
     
+    @EntityGraph(attributePaths = "requester")
     @Query("SELECT r FROM BloodRequest r WHERE r.status = 'ACTIVE' AND r.bloodType = :bloodType")
     List<BloodRequest> findActiveRequestsByBloodType(@Param("bloodType") BloodDonor.BloodType bloodType);
     
+    @EntityGraph(attributePaths = "requester")
     @Query("SELECT r FROM BloodRequest r WHERE r.status = 'ACTIVE' AND r.neededByDate <= :date")
     List<BloodRequest> findUrgentRequests(@Param("date") LocalDate date);
     
+    @EntityGraph(attributePaths = "requester")
     @Query("SELECT r FROM BloodRequest r WHERE r.urgency = 'CRITICAL' AND r.status = 'ACTIVE'")
     List<BloodRequest> findCriticalRequests();
+    
+    /**
+     * Add pledged units to an open request and derive its status in the same statement, so
+     * concurrent pledges never overwrite each other
+     * @return 1 if the pledge was recorded, 0 if the request does not exist or is no longer open
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BloodRequest r SET r.fulfilledUnits = COALESCE(r.fulfilledUnits, 0) + :units, " +
+           "r.status = CASE WHEN COALESCE(r.fulfilledUnits, 0) + :units >= r.unitsNeeded " +
+           "THEN com.example.backend.entity.BloodRequest.Status.FULFILLED " +
+           "ELSE com.example.backend.entity.BloodRequest.Status.PARTIALLY_FULFILLED END, " +
+           "r.updatedAt = :now " +
+           "WHERE r.id = :id AND r.status IN ('ACTIVE', 'PARTIALLY_FULFILLED') " +
+           "AND COALESCE(r.fulfilledUnits, 0) < r.unitsNeeded")
+    int pledgeUnits(@Param("id") Long id, @Param("units") int units, @Param("now") LocalDateTime now);
 }
@@ -1,34 +1,90 @@
 package com.example.backend.repository; 
 
 import com.example.backend.entity.HelpRequest;
+import com.example.backend.entity.Volunteer;
+import com.example.backend.util.LocationUtil;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface HelpRequestRepository extends JpaRepository<HelpRequest, Long> {
+    // List reads fetch the requester in the same statement, since every DTO shows their name
+    
+    @EntityGraph(attributePaths = "requester")
     List<HelpRequest> findByRequesterId(Long requesterId);
+    
+    @EntityGraph(attributePaths = "requester")
     List<HelpRequest> findByStatus(HelpRequest.Status status);
+    
+    @EntityGraph(attributePaths = "requester")
     List<HelpRequest> findByCategory(String category);
     
+    @EntityGraph(attributePaths = "requester")
     @Query("SELECT h FROM HelpRequest h WHERE h.status = 'OPEN' ORDER BY h.urgency DESC, h.createdAt DESC")
     List<HelpRequest> findOpenRequests();
     
+    @EntityGraph(attributePaths = "requester")
     @Query("SELECT h FROM HelpRequest h WHERE h.assignedVolunteer.id = :volunteerId")
     List<HelpRequest> findByAssignedVolunteerId(@Param("volunteerId") Long volunteerId);
     
+    // Workload used by volunteer matching: assigned requests that are not finished yet
+    
+    @Query("SELECT h.assignedVolunteer.id, COUNT(h) FROM HelpRequest h " +
+           "WHERE h.status IN ('ASSIGNED', 'IN_PROGRESS') GROUP BY h.assignedVolunteer.id")
+    List<Object[]> countActiveAssignmentsByVolunteer();
+    
+    @Query("SELECT COUNT(h) FROM HelpRequest h WHERE h.assignedVolunteer.id = :volunteerId " +
+           "AND h.status IN ('ASSIGNED', 'IN_PROGRESS')")
+    long countActiveAssignments(@Param("volunteerId") Long volunteerId);
+    
+    @EntityGraph(attributePaths = "requester")
     @Query("SELECT h FROM HelpRequest h WHERE h.scheduledDate = :date AND h.status IN ('OPEN', 'ASSIGNED')")
     List<HelpRequest> findScheduledRequestsForDate(@Param("date") LocalDate date);
     
     @Query(value = "SELECT * FROM help_requests WHERE status = 'OPEN' " +
+           "AND latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLng AND :maxLng " +
            "AND (6371 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
            "cos(radians(longitude) - radians(:lng)) + sin(radians(:lat)) * " +
            "sin(radians(latitude)))) < max_distance_km", nativeQuery = true)
-    List<HelpRequest> findOpenRequestsNearLocation(@Param("lat") BigDecimal latitude, 
-                                                   @Param("lng") BigDecimal longitude);
+    List<HelpRequest> findOpenRequestsWithinBox(@Param("lat") BigDecimal latitude, 
+                                                @Param("lng") BigDecimal longitude,
+                                                @Param("minLat") BigDecimal minLat,
+                                                @Param("maxLat") BigDecimal maxLat,
+                                                @Param("minLng") BigDecimal minLng,
+                                                @Param("maxLng") BigDecimal maxLng);
+    
+    @Query("SELECT COALESCE(MAX(h.maxDistanceKm), 0) FROM HelpRequest h WHERE h.status = 'OPEN'")
+    int findMaxOpenRequestDistanceKm();
+    
+    /**
+     * Open requests whose own max_distance_km covers the point. The box is sized by the
+     * largest radius any open request uses, so it never excludes a match.
+     */
+    default List<HelpRequest> findOpenRequestsNearLocation(BigDecimal latitude, BigDecimal longitude) {
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(
+            latitude, longitude, findMaxOpenRequestDistanceKm());
+        return findOpenRequestsWithinBox(latitude, longitude,
+                box.minLat, box.maxLat, box.minLon, box.maxLon);
+    }
+    
+    /**
+     * Assign an open request to {@code volunteer} in one conditional update, so of several
+     * simultaneous claims exactly one wins
+     * @return 1 if the claim won, 0 if the request does not exist or is no longer open
+     */
+    @Modifying
+    @Query("UPDATE HelpRequest h SET h.assignedVolunteer = :volunteer, " +
+           "h.status = com.example.backend.entity.HelpRequest.Status.ASSIGNED, " +
+           "h.assignedAt = :now, h.updatedAt = :now " +
+           "WHERE h.id = :id AND h.status = com.example.backend.entity.HelpRequest.Status.OPEN")
+    int claim(@Param("id") Long id, @Param("volunteer") Volunteer volunteer, @Param("now") LocalDateTime now);
 }
@@ -1,6 +1,7 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.MissingPerson;
+import com.example.backend.util.LocationUtil;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,9 +19,29 @@ public interface MissingPersonRepository extends JpaRepository<MissingPerson, Lo
     List<MissingPerson> findActiveCases();
     
     @Query(value = "SELECT * FROM missing_persons WHERE status = 'ACTIVE' " +
+           "AND last_seen_latitude BETWEEN :minLat AND :maxLat " +
+           "AND last_seen_longitude BETWEEN :minLng AND :maxLng " +
            "AND (6371 * acos(cos(radians(:lat)) * cos(radians(last_seen_latitude)) * " +
            "cos(radians(last_seen_longitude) - radians(:lng)) + sin(radians(:lat)) * " +
            "sin(radians(last_seen_latitude)))) < search_radius_km", nativeQuery = true)
-    List<MissingPerson> findActiveCasesNearLocation(@Param("lat") BigDecimal latitude, 
-                                                    @Param("lng") BigDecimal longitude);
+    List<MissingPerson> findActiveCasesWithinBox(@Param("lat") BigDecimal latitude, 
+                                                 @Param("lng") BigDecimal longitude,
+                                                 @Param("minLat") BigDecimal minLat,
+                                                 @Param("maxLat") BigDecimal maxLat,
+                                                 @Param("minLng") BigDecimal minLng,
+                                                 @Param("maxLng") BigDecimal maxLng);
+    
+    @Query("SELECT COALESCE(MAX(m.searchRadiusKm), 0) FROM MissingPerson m WHERE m.status = 'ACTIVE'")
+    int findMaxActiveSearchRadiusKm();
+    
+    /**
+     * Active cases whose search_radius_km covers the point, prefiltered by a box sized
+     * to the largest active search radius
+     */
+    default List<MissingPerson> findActiveCasesNearLocation(BigDecimal latitude, BigDecimal longitude) {
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(
+            latitude, longitude, findMaxActiveSearchRadiusKm());
+        return findActiveCasesWithinBox(latitude, longitude,
+                box.minLat, box.maxLat, box.minLon, box.maxLon);
+    }
 }
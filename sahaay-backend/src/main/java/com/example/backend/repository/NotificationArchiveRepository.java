@@ -0,0 +1,25 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.NotificationArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+    
+    /**
+     * Copy notifications into the archive in one statement, without loading them
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notifications_archive " +
+           "(id, recipient_id, title, notification_type, related_id, created_at, archived_at) " +
+           "SELECT id, recipient_id, title, notification_type, related_id, created_at, :archivedAt " +
+           "FROM notifications WHERE id IN (:ids)", nativeQuery = true)
+    int archiveByIdIn(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
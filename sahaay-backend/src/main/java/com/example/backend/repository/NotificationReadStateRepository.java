@@ -0,0 +1,19 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.NotificationReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, Long> {
+    
+    // readIds is an element collection, which JPQL cannot delete from
+    @Modifying
+    @Query(value = "DELETE FROM notification_read_ids WHERE notification_id IN :ids", nativeQuery = true)
+    int deleteReadIdsByNotificationIdIn(@Param("ids") Collection<Long> ids);
+}
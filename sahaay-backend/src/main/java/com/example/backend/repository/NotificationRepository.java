@@ -1,6 +1,7 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,22 +9,114 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByRecipientId(Long recipientId);
     
-    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC")
-    List<Notification> findUnreadNotificationsByUserId(@Param("userId") Long userId);
+    // Keyset pages over idx_notifications_recipient_created; (createdAt, id) of the last row
+    // seen is the cursor, and pass the page size plus one to detect a further page
     
-    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId ORDER BY n.createdAt DESC")
-    List<Notification> findAllByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFirstPageByUserId(@Param("userId") Long userId, Limit limit);
+    
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageByUserIdBefore(@Param("userId") Long userId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+    
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId AND n.isRead = false " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFirstUnreadPageByUserId(@Param("userId") Long userId, Limit limit);
+    
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId AND n.isRead = false " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadPageByUserIdBefore(@Param("userId") Long userId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Limit limit);
+    
+    long countByRecipientIdAndIsReadFalse(Long recipientId);
+    
+    // Watermark inbox mode: unread means not flagged, after the user's (lastReadAt, lastReadId)
+    // in inbox order and not among the ids read individually since then
+    
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.recipient.id = :userId AND n.isRead = false " +
+           "AND (n.createdAt > :readAt OR (n.createdAt = :readAt AND n.id > :readId)) " +
+           "AND n.id NOT IN (SELECT r FROM NotificationReadState s JOIN s.readIds r WHERE s.userId = :userId)")
+    long countUnreadAfterWatermark(@Param("userId") Long userId,
+                                   @Param("readAt") LocalDateTime readAt,
+                                   @Param("readId") Long readId);
+    
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId AND n.isRead = false " +
+           "AND (n.createdAt > :readAt OR (n.createdAt = :readAt AND n.id > :readId)) " +
+           "AND n.id NOT IN (SELECT r FROM NotificationReadState s JOIN s.readIds r WHERE s.userId = :userId) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFirstUnreadPageAfterWatermark(@Param("userId") Long userId,
+                                                         @Param("readAt") LocalDateTime readAt,
+                                                         @Param("readId") Long readId,
+                                                         Limit limit);
+    
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId AND n.isRead = false " +
+           "AND (n.createdAt > :readAt OR (n.createdAt = :readAt AND n.id > :readId)) " +
+           "AND n.id NOT IN (SELECT r FROM NotificationReadState s JOIN s.readIds r WHERE s.userId = :userId) " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadPageAfterWatermarkBefore(@Param("userId") Long userId,
+                                                          @Param("readAt") LocalDateTime readAt,
+                                                          @Param("readId") Long readId,
+                                                          @Param("createdAt") LocalDateTime createdAt,
+                                                          @Param("id") Long id,
+                                                          Limit limit);
+    
+    // Oldest first, for walking the watermark forward over notifications already read
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId " +
+           "AND (n.createdAt > :readAt OR (n.createdAt = :readAt AND n.id > :readId)) " +
+           "ORDER BY n.createdAt ASC, n.id ASC")
+    List<Notification> findOldestAfterWatermark(@Param("userId") Long userId,
+                                                @Param("readAt") LocalDateTime readAt,
+                                                @Param("readId") Long readId,
+                                                Limit limit);
     
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :userId")
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :userId AND n.isRead = false")
     void markAllAsReadForUser(@Param("userId") Long userId);
     
-    @Query("SELECT n FROM Notification n WHERE n.expiresAt < :now AND n.isRead = false")
-    List<Notification> findExpiredUnreadNotifications(@Param("now") LocalDateTime now);
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :userId AND n.isRead = false " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id <= :id))")
+    void markAsReadForUserUpTo(@Param("userId") Long userId,
+                               @Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") Long id);
+    
+    // Chunked expiry and retention: select a bounded set of ids, then update or delete by id,
+    // so no statement holds locks on more than one chunk of rows
+    
+    @Query("SELECT n.id FROM Notification n WHERE n.isRead = false AND n.expiresAt < :now")
+    List<Long> findExpiredUnreadIds(@Param("now") LocalDateTime now, Limit limit);
+    
+    // Read by flag, or in watermark inbox mode below the recipient's watermark or read individually
+    @Query("SELECT n.id FROM Notification n WHERE n.createdAt < :cutoff AND (n.isRead = true OR EXISTS (" +
+           "SELECT s FROM NotificationReadState s WHERE s.userId = n.recipient.id " +
+           "AND (n.createdAt < s.lastReadAt OR (n.createdAt = s.lastReadAt AND n.id <= s.lastReadId))) " +
+           "OR n.id IN (SELECT r FROM NotificationReadState s JOIN s.readIds r WHERE s.userId = n.recipient.id))")
+    List<Long> findReadIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+    
+    @Query("SELECT DISTINCT n.recipient.id FROM Notification n WHERE n.id IN :ids")
+    List<Long> findRecipientIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id IN :ids")
+    int markAsReadByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
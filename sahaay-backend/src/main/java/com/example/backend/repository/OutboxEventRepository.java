@@ -0,0 +1,34 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Lock a batch of due events, skipping rows another relay instance already holds
+     */
+    @Query(value = "SELECT * FROM outbox_events " +
+           "WHERE status = 'PENDING' AND available_at <= :now " +
+           "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimPendingSkipLocked(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    /**
+     * Fallback for H2, which has no SKIP LOCKED; assumes a single relay instance
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.availableAt <= :now ORDER BY e.id")
+    List<OutboxEvent> claimPending(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DELIVERED' AND e.processedAt < :cutoff")
+    int deleteDeliveredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,7 +2,11 @@ package com.example.backend.repository;
 
 
 import com.example.backend.entity.SOSAlert;
+import com.example.backend.entity.User;
+import com.example.backend.util.LocationUtil;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,22 +17,49 @@ import java.util.List;
 
 @Repository
 public interface SOSAlertRepository extends JpaRepository<SOSAlert, Long> {
+    // List reads fetch the alert's owner in the same statement, since every DTO shows their name
+    
+    @EntityGraph(attributePaths = "user")
     List<SOSAlert> findByUserId(Long userId);
+    
+    @EntityGraph(attributePaths = "user")
     List<SOSAlert> findByStatus(SOSAlert.Status status);
     
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT s FROM SOSAlert s WHERE s.status = 'ACTIVE' ORDER BY s.createdAt DESC")
     List<SOSAlert> findActiveAlerts();
     
-    @Query(value = "SELECT * FROM sos_alerts WHERE status = 'ACTIVE' " +
-           "AND (6371 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
-           "cos(radians(longitude) - radians(:lng)) + sin(radians(:lat)) * " +
-           "sin(radians(latitude)))) < :radius " +
-           "ORDER BY created_at DESC", nativeQuery = true)
-    List<SOSAlert> findActiveAlertsWithinRadius(@Param("lat") BigDecimal latitude, 
-                                                @Param("lng") BigDecimal longitude, 
-                                                @Param("radius") double radiusKm);
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT s FROM SOSAlert s WHERE s.status = 'ACTIVE' " +
+           "AND s.latitude BETWEEN :minLat AND :maxLat AND s.longitude BETWEEN :minLng AND :maxLng " +
+           "ORDER BY s.createdAt DESC")
+    List<SOSAlert> findActiveAlertsWithinBox(@Param("minLat") BigDecimal minLat,
+                                             @Param("maxLat") BigDecimal maxLat,
+                                             @Param("minLng") BigDecimal minLng,
+                                             @Param("maxLng") BigDecimal maxLng);
     
+    /**
+     * Active alerts in the radius's bounding box, newest first. The exact distance check is left
+     * to the caller, which runs it over all candidates in one batch
+     */
+    default List<SOSAlert> findActiveAlertCandidates(BigDecimal latitude, BigDecimal longitude, double radiusKm) {
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(latitude, longitude, radiusKm);
+        return findActiveAlertsWithinBox(box.minLat, box.maxLat, box.minLon, box.maxLon);
+    }
+    
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT s FROM SOSAlert s WHERE s.createdAt BETWEEN :startDate AND :endDate")
     List<SOSAlert> findAlertsBetweenDates(@Param("startDate") LocalDateTime startDate, 
                                           @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+    
+    /**
+     * Mark an active alert as responded to by {@code responder} in one conditional update, so of
+     * several simultaneous responders exactly one wins
+     * @return 1 if the claim won, 0 if the alert does not exist or is no longer active
+     */
+    @Modifying
+    @Query("UPDATE SOSAlert s SET s.status = com.example.backend.entity.SOSAlert.Status.RESPONDED, " +
+           "s.respondedBy = :responder, s.responseTime = :now " +
+           "WHERE s.id = :id AND s.status = com.example.backend.entity.SOSAlert.Status.ACTIVE")
+    int claim(@Param("id") Long id, @Param("responder") User responder, @Param("now") LocalDateTime now);
+}
@@ -1,12 +1,14 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.User;
+import com.example.backend.util.LocationUtil;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,11 +22,44 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.userType = :userType AND u.isActive = true")
     List<User> findActiveUsersByType(@Param("userType") User.UserType userType);
     
-    @Query(value = "SELECT * FROM users WHERE " +
-           "(6371 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
+    @Query("SELECT u FROM User u WHERE " +
+           "u.latitude BETWEEN :minLat AND :maxLat AND u.longitude BETWEEN :minLng AND :maxLng")
+    List<User> findUsersWithinBox(@Param("minLat") BigDecimal minLat,
+                                  @Param("maxLat") BigDecimal maxLat,
+                                  @Param("minLng") BigDecimal minLng,
+                                  @Param("maxLng") BigDecimal maxLng);
+    
+    @Query(value = "SELECT CAST(id AS BIGINT) FROM users WHERE " +
+           "latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLng AND :maxLng " +
+           "AND (6371 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
            "cos(radians(longitude) - radians(:lng)) + sin(radians(:lat)) * " +
            "sin(radians(latitude)))) < :radius", nativeQuery = true)
-    List<User> findUsersWithinRadius(@Param("lat") BigDecimal latitude, 
-                                     @Param("lng") BigDecimal longitude, 
-                                     @Param("radius") double radiusKm);
+    List<Long> findUserIdsWithinBox(@Param("lat") BigDecimal latitude, 
+                                    @Param("lng") BigDecimal longitude, 
+                                    @Param("radius") double radiusKm,
+                                    @Param("minLat") BigDecimal minLat,
+                                    @Param("maxLat") BigDecimal maxLat,
+                                    @Param("minLng") BigDecimal minLng,
+                                    @Param("maxLng") BigDecimal maxLng);
+    
+    @Query("SELECT u.email FROM User u WHERE u.id IN :ids")
+    List<String> findEmailsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Users in the radius's bounding box, which idx_users_location can serve. The exact distance
+     * check is left to the caller, which runs it over all candidates in one batch
+     */
+    default List<User> findUserCandidates(BigDecimal latitude, BigDecimal longitude, double radiusKm) {
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(latitude, longitude, radiusKm);
+        return findUsersWithinBox(box.minLat, box.maxLat, box.minLon, box.maxLon);
+    }
+    
+    /**
+     * Ids of the users within the radius, for fan-outs that never need the full rows
+     */
+    default List<Long> findUserIdsWithinRadius(BigDecimal latitude, BigDecimal longitude, double radiusKm) {
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(latitude, longitude, radiusKm);
+        return findUserIdsWithinBox(latitude, longitude, radiusKm,
+                box.minLat, box.maxLat, box.minLon, box.maxLon);
+    }
 }
@@ -1,12 +1,15 @@
 package com.example.backend.repository;
 
 import com.example.backend.entity.Volunteer;
+import com.example.backend.util.LocationUtil;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,20 +17,85 @@ import java.util.Optional;
 public interface VolunteerRepository extends JpaRepository<Volunteer, Long> {
     Optional<Volunteer> findByUserId(Long userId);
     
+    // Rows registered before availability_bitmap existed, for the startup backfill
+    List<Volunteer> findByAvailabilityHoursIsNotNullAndAvailabilityBitmapIsNull();
+    
+    // List reads fetch the user and skills in the same statement, since every DTO shows both
+    
+    @EntityGraph(attributePaths = {"user", "skills"})
     @Query("SELECT v FROM Volunteer v WHERE v.isAvailable = true AND v.verificationStatus = 'VERIFIED'")
     List<Volunteer> findAvailableVolunteers();
     
-    @Query("SELECT v FROM Volunteer v JOIN v.skills s WHERE s.id IN :skillIds " +
+    @EntityGraph(attributePaths = {"user", "skills"})
+    List<Volunteer> findByIdIn(Collection<Long> ids);
+    
+    // Slot numbering follows WeeklyAvailability; volunteers without a schedule are always available
+    @Query(value = "SELECT v.* FROM volunteers v WHERE v.is_available = true AND v.verification_status = 'VERIFIED' " +
+           "AND (v.availability_bitmap IS NULL OR get_bit(v.availability_bitmap, :slot) = 1)", nativeQuery = true)
+    List<Volunteer> findAvailableVolunteersAtSlot(@Param("slot") int slot);
+    
+    // Snapshot for the volunteer index, with users and skills fetched in the same query
+    @Query("SELECT DISTINCT v FROM Volunteer v JOIN FETCH v.user LEFT JOIN FETCH v.skills " +
+           "WHERE v.isAvailable = true AND v.verificationStatus = 'VERIFIED'")
+    List<Volunteer> findAvailableVolunteersWithSkills();
+    
+    // Filtered in a subquery so the fetched skills are not narrowed to the ones that matched
+    @EntityGraph(attributePaths = {"user", "skills"})
+    @Query("SELECT v FROM Volunteer v WHERE EXISTS (SELECT 1 FROM v.skills s WHERE s.id IN :skillIds) " +
            "AND v.isAvailable = true AND v.verificationStatus = 'VERIFIED'")
     List<Volunteer> findVolunteersBySkills(@Param("skillIds") List<Long> skillIds);
     
     @Query(value = "SELECT v.* FROM volunteers v " +
            "JOIN users u ON v.user_id = u.id " +
            "WHERE v.is_available = true AND v.verification_status = 'VERIFIED' " +
+           "AND u.latitude BETWEEN :minLat AND :maxLat AND u.longitude BETWEEN :minLng AND :maxLng " +
+           "AND (6371 * acos(cos(radians(:lat)) * cos(radians(u.latitude)) * " +
+           "cos(radians(u.longitude) - radians(:lng)) + sin(radians(:lat)) * " +
+           "sin(radians(u.latitude)))) < v.max_distance_km", nativeQuery = true)
+    List<Volunteer> findVolunteersWithinBox(@Param("lat") BigDecimal latitude, 
+                                            @Param("lng") BigDecimal longitude,
+                                            @Param("minLat") BigDecimal minLat,
+                                            @Param("maxLat") BigDecimal maxLat,
+                                            @Param("minLng") BigDecimal minLng,
+                                            @Param("maxLng") BigDecimal maxLng);
+    
+    @Query(value = "SELECT CAST(v.user_id AS BIGINT) FROM volunteers v " +
+           "JOIN users u ON v.user_id = u.id " +
+           "WHERE v.is_available = true AND v.verification_status = 'VERIFIED' " +
+           "AND u.latitude BETWEEN :minLat AND :maxLat AND u.longitude BETWEEN :minLng AND :maxLng " +
            "AND (6371 * acos(cos(radians(:lat)) * cos(radians(u.latitude)) * " +
            "cos(radians(u.longitude) - radians(:lng)) + sin(radians(:lat)) * " +
            "sin(radians(u.latitude)))) < v.max_distance_km", nativeQuery = true)
-    List<Volunteer> findVolunteersNearLocation(@Param("lat") BigDecimal latitude, 
-                                               @Param("lng") BigDecimal longitude);
+    List<Long> findVolunteerUserIdsWithinBox(@Param("lat") BigDecimal latitude, 
+                                             @Param("lng") BigDecimal longitude,
+                                             @Param("minLat") BigDecimal minLat,
+                                             @Param("maxLat") BigDecimal maxLat,
+                                             @Param("minLng") BigDecimal minLng,
+                                             @Param("maxLng") BigDecimal maxLng);
+    
+    @Query("SELECT COALESCE(MAX(v.maxDistanceKm), 0) FROM Volunteer v " +
+           "WHERE v.isAvailable = true AND v.verificationStatus = 'VERIFIED'")
+    int findMaxAvailableVolunteerDistanceKm();
+    
+    /**
+     * Available volunteers whose max_distance_km covers the point, prefiltered by a box
+     * sized to the largest service radius among them
+     */
+    default List<Volunteer> findVolunteersNearLocation(BigDecimal latitude, BigDecimal longitude) {
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(
+            latitude, longitude, findMaxAvailableVolunteerDistanceKm());
+        return findVolunteersWithinBox(latitude, longitude,
+                box.minLat, box.maxLat, box.minLon, box.maxLon);
+    }
+    
+    /**
+     * User ids of the volunteers {@link #findVolunteersNearLocation} would return
+     */
+    default List<Long> findVolunteerUserIdsNearLocation(BigDecimal latitude, BigDecimal longitude) {
+        LocationUtil.BoundingBox box = LocationUtil.getBoundingBox(
+            latitude, longitude, findMaxAvailableVolunteerDistanceKm());
+        return findVolunteerUserIdsWithinBox(latitude, longitude,
+                box.minLat, box.maxLat, box.minLon, box.maxLon);
+    }
 }
 
@@ -0,0 +1,153 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SOSAlertDTO;
+import com.example.backend.util.GeoGrid;
+import com.example.backend.util.LocationUtil;
+import com.example.backend.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory grid of ACTIVE SOS alerts so nearby-alert polling never reaches the database.
+ * Mutations are applied only after the surrounding transaction commits.
+ */
+@Component
+@Slf4j
+public class ActiveSOSAlertIndex {
+
+    private static final Comparator<SOSAlertDTO> NEWEST_FIRST = Comparator.comparing(
+            SOSAlertDTO::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+
+    private final Map<Long, Entry> alerts = new ConcurrentHashMap<>();
+    private final GeoGrid grid;
+    private final List<Runnable> pending = new ArrayList<>();
+    private volatile boolean warm;
+    private boolean loading;
+
+    public ActiveSOSAlertIndex(@Value("${app.sos.index.cell-size-degrees:0.05}") double cellSizeDegrees) {
+        this.grid = new GeoGrid(cellSizeDegrees);
+    }
+
+    /**
+     * Replace the index contents with a full snapshot of active alerts. Mutations committed while
+     * the snapshot is read are held back and replayed on top of it, so an alert resolved during
+     * the load cannot come back and one created during it cannot go missing.
+     */
+    public void load(Supplier<List<SOSAlertDTO>> snapshot) {
+        synchronized (this) {
+            loading = true;
+        }
+        List<SOSAlertDTO> activeAlerts;
+        try {
+            activeAlerts = snapshot.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loading = false;
+                replayPending();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            alerts.clear();
+            grid.clear();
+            for (SOSAlertDTO alert : activeAlerts) {
+                insert(alert);
+            }
+            replayPending();
+            loading = false;
+            warm = true;
+        }
+        log.info("Loaded {} active SOS alerts into the location index", alerts.size());
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public void add(SOSAlertDTO alert) {
+        TransactionUtil.afterCommit(() -> apply(() -> insert(alert)));
+    }
+
+    public void remove(Long alertId) {
+        TransactionUtil.afterCommit(() -> apply(() -> {
+            Entry removed = alerts.remove(alertId);
+            if (removed != null) {
+                grid.remove(alertId, removed.latitude, removed.longitude);
+            }
+        }));
+    }
+
+    private synchronized void apply(Runnable mutation) {
+        if (loading) {
+            pending.add(mutation);
+        } else {
+            mutation.run();
+        }
+    }
+
+    // Replays in commit order, so the last mutation of each alert wins over the snapshot
+    private void replayPending() {
+        pending.forEach(Runnable::run);
+        pending.clear();
+    }
+
+    /**
+     * Active alerts within the radius, newest first
+     */
+    public List<SOSAlertDTO> findWithinRadius(BigDecimal latitude, BigDecimal longitude, double radiusKm) {
+        double centerLat = latitude.doubleValue();
+        double centerLon = longitude.doubleValue();
+        double cosCenter = Math.cos(Math.toRadians(centerLat));
+        double[] box = new double[4];
+        LocationUtil.getBoundingBox(centerLat, centerLon, radiusKm, box);
+        List<SOSAlertDTO> result = new ArrayList<>();
+
+        grid.forEachCandidate(box[LocationUtil.MIN_LAT], box[LocationUtil.MAX_LAT],
+                box[LocationUtil.MIN_LON], box[LocationUtil.MAX_LON], id -> {
+            Entry entry = alerts.get(id);
+            if (entry != null && LocationUtil.calculateDistance(centerLat, centerLon, cosCenter,
+                    entry.latitude, entry.longitude, entry.cosLatitude) <= radiusKm) {
+                result.add(entry.alert);
+            }
+        });
+
+        result.sort(NEWEST_FIRST);
+        return result;
+    }
+
+    private void insert(SOSAlertDTO alert) {
+        Entry entry = new Entry(alert);
+        Entry previous = alerts.put(alert.getId(), entry);
+        if (previous != null) {
+            grid.remove(alert.getId(), previous.latitude, previous.longitude);
+        }
+        grid.add(alert.getId(), entry.latitude, entry.longitude);
+    }
+
+    /**
+     * Alert snapshot with its coordinates unpacked once, so lookups do no BigDecimal math
+     */
+    private static final class Entry {
+        private final SOSAlertDTO alert;
+        private final double latitude;
+        private final double longitude;
+        private final double cosLatitude;
+
+        private Entry(SOSAlertDTO alert) {
+            this.alert = alert;
+            this.latitude = alert.getLatitude().doubleValue();
+            this.longitude = alert.getLongitude().doubleValue();
+            this.cosLatitude = Math.cos(Math.toRadians(latitude));
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BatchAssignmentDTO;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.entity.Volunteer;
+import com.example.backend.repository.HelpRequestRepository;
+import com.example.backend.repository.VolunteerRepository;
+import com.example.backend.service.VolunteerIndex.IndexedVolunteer;
+import com.example.backend.util.HungarianAssignment;
+import com.example.backend.util.TopK;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns open help requests to volunteers in one batch, maximising the total match score.
+ * <p>
+ * Costs come from {@link VolunteerMatcher} scores plus a bonus for urgent requests, so when
+ * volunteers are short the urgent requests are served first; pairs the matcher rejects are never
+ * assigned. Each volunteer takes at most one request per batch.
+ * <p>
+ * Each request only considers its best few candidates, found through the volunteer index, so the
+ * problem stays sparse. Requests that share no candidates are independent and are solved
+ * separately, in parallel on the common ForkJoin pool. A group larger than the partition size is
+ * solved in chunks, most urgent first, each chunk taking only the volunteers the earlier ones
+ * left; matches across chunks are given up for that bound. Solving runs before the write
+ * transaction is opened, which then only claims the chosen pairs.
+ */
+@Service
+@Slf4j
+public class BatchAssignmentService {
+    
+    private final HelpRequestRepository helpRequestRepository;
+    private final VolunteerRepository volunteerRepository;
+    private final VolunteerIndex volunteerIndex;
+    private final VolunteerService volunteerService;
+    private final VolunteerMatcher volunteerMatcher;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final int maxRequests;
+    private final int partitionSize;
+    private final int maxCandidates;
+    private final double cellSizeDegrees;
+    private final double urgencyWeight;
+    
+    public BatchAssignmentService(HelpRequestRepository helpRequestRepository,
+                                  VolunteerRepository volunteerRepository,
+                                  VolunteerIndex volunteerIndex,
+                                  VolunteerService volunteerService,
+                                  VolunteerMatcher volunteerMatcher,
+                                  NotificationService notificationService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.help-requests.batch-assignment.max-requests:5000}") int maxRequests,
+                                  @Value("${app.help-requests.batch-assignment.partition-size:300}") int partitionSize,
+                                  @Value("${app.help-requests.batch-assignment.max-candidates:20}") int maxCandidates,
+                                  @Value("${app.volunteers.index.cell-size-degrees:0.1}") double cellSizeDegrees,
+                                  @Value("${app.help-requests.batch-assignment.urgency-weight:0.5}") double urgencyWeight) {
+        this.helpRequestRepository = helpRequestRepository;
+        this.volunteerRepository = volunteerRepository;
+        this.volunteerIndex = volunteerIndex;
+        this.volunteerService = volunteerService;
+        this.volunteerMatcher = volunteerMatcher;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxRequests = maxRequests;
+        this.partitionSize = partitionSize;
+        this.maxCandidates = maxCandidates;
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.urgencyWeight = urgencyWeight;
+    }
+    
+    /**
+     * Solve the assignment for open requests, most urgent first, then apply it in one transaction.
+     * Requests assigned by someone else while the batch was solving are left alone.
+     */
+    public BatchAssignmentDTO assignOpenRequests() {
+        List<HelpRequest> requests = helpRequestRepository.findOpenRequests();
+        if (requests.size() > maxRequests) {
+            requests = requests.subList(0, maxRequests);
+        }
+        VolunteerIndex volunteers = volunteerIndex;
+        if (!volunteerIndex.isWarm()) {
+            volunteers = new VolunteerIndex(cellSizeDegrees);
+            volunteers.load(volunteerService.findIndexedVolunteers());
+        }
+        
+        long started = System.nanoTime();
+        Plan plan = plan(requests, volunteers);
+        long solveMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Batch assignment matched {} of {} open requests with {} volunteers in {} partitions, {} ms",
+                plan.assignments().size(), requests.size(), volunteers.size(), plan.partitions(), solveMillis);
+        
+        List<HelpRequest> batch = requests;
+        List<BatchAssignmentDTO.Assignment> applied = transactionTemplate.execute(status -> apply(batch, plan.assignments()));
+        Set<Long> assignedIds = applied.stream()
+                .map(BatchAssignmentDTO.Assignment::getRequestId)
+                .collect(Collectors.toSet());
+        
+        return BatchAssignmentDTO.builder()
+                .assignments(applied)
+                .unassignedRequestIds(requests.stream()
+                        .map(HelpRequest::getId)
+                        .filter(id -> !assignedIds.contains(id))
+                        .collect(Collectors.toList()))
+                .partitions(plan.partitions())
+                .solveMillis(solveMillis)
+                .build();
+    }
+    
+    /**
+     * Best assignment of the indexed volunteers to {@code requests}, given most urgent first,
+     * without touching the database
+     */
+    Plan plan(List<HelpRequest> requests, VolunteerIndex volunteers) {
+        List<Row> rows = new ArrayList<>(requests.size());
+        for (HelpRequest request : requests) {
+            Row row = candidates(request, volunteers);
+            if (!row.candidates().isEmpty()) {
+                rows.add(row);
+            }
+        }
+        
+        List<List<Row>> groups = group(rows);
+        AtomicInteger partitions = new AtomicInteger();
+        List<BatchAssignmentDTO.Assignment> assignments = groups.parallelStream()
+                .flatMap(group -> solveGroup(group, partitions).stream())
+                .collect(Collectors.toList());
+        return new Plan(assignments, partitions.get());
+    }
+    
+    private Row candidates(HelpRequest request, VolunteerIndex volunteers) {
+        VolunteerMatcher.Matching matching = volunteerMatcher.start(request, 1);
+        TopK<Long> best = new TopK<>(maxCandidates);
+        Consumer<IndexedVolunteer> offer = volunteer -> {
+            double score = matching.score(volunteer);
+            if (!Double.isNaN(score) && best.accepts(score)) {
+                best.offer(volunteer.volunteerId(), score);
+            }
+        };
+        
+        // A located request can only be served by volunteers whose radius covers it
+        if (request.getLatitude() != null && request.getLongitude() != null) {
+            volunteers.forEachCovering(request.getLatitude().doubleValue(), request.getLongitude().doubleValue(), offer);
+        } else {
+            volunteers.forEach(offer);
+        }
+        return new Row(request, urgencyWeight * urgencyFactor(request.getUrgency()), best.toSortedList());
+    }
+    
+    /**
+     * Split rows into groups that share no candidate volunteer, keeping the urgency order
+     */
+    private static List<List<Row>> group(List<Row> rows) {
+        int[] parent = new int[rows.size()];
+        Map<Long, Integer> firstRowOfVolunteer = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            parent[i] = i;
+            for (TopK.Scored<Long> candidate : rows.get(i).candidates()) {
+                Integer other = firstRowOfVolunteer.putIfAbsent(candidate.item(), i);
+                if (other != null) {
+                    parent[root(parent, i)] = root(parent, other);
+                }
+            }
+        }
+        
+        Map<Integer, List<Row>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            groups.computeIfAbsent(root(parent, i), key -> new ArrayList<>()).add(rows.get(i));
+        }
+        return new ArrayList<>(groups.values());
+    }
+    
+    private static int root(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+    
+    private List<BatchAssignmentDTO.Assignment> solveGroup(List<Row> group, AtomicInteger partitions) {
+        List<BatchAssignmentDTO.Assignment> result = new ArrayList<>();
+        Set<Long> taken = new HashSet<>();
+        for (int from = 0; from < group.size(); from += partitionSize) {
+            List<BatchAssignmentDTO.Assignment> chunk = solve(group.subList(from, Math.min(group.size(), from + partitionSize)), taken);
+            chunk.forEach(assignment -> taken.add(assignment.getVolunteerId()));
+            result.addAll(chunk);
+            partitions.incrementAndGet();
+        }
+        return result;
+    }
+    
+    private List<BatchAssignmentDTO.Assignment> solve(List<Row> rows, Set<Long> taken) {
+        // Columns are only the volunteers some row in this chunk can take
+        Map<Long, Integer> columns = new LinkedHashMap<>();
+        for (Row row : rows) {
+            for (TopK.Scored<Long> candidate : row.candidates()) {
+                if (!taken.contains(candidate.item())) {
+                    columns.putIfAbsent(candidate.item(), columns.size());
+                }
+            }
+        }
+        if (columns.isEmpty()) {
+            return List.of();
+        }
+        
+        double[][] cost = new double[rows.size()][columns.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Arrays.fill(cost[i], HungarianAssignment.FORBIDDEN);
+            for (TopK.Scored<Long> candidate : rows.get(i).candidates()) {
+                Integer j = columns.get(candidate.item());
+                if (j != null) {
+                    cost[i][j] = -(candidate.score() + rows.get(i).bonus());
+                }
+            }
+        }
+        
+        int[] assignment = HungarianAssignment.solve(cost);
+        Long[] volunteerIds = columns.keySet().toArray(new Long[0]);
+        List<BatchAssignmentDTO.Assignment> result = new ArrayList<>();
+        for (int i = 0; i < assignment.length; i++) {
+            int j = assignment[i];
+            if (j >= 0 && cost[i][j] < HungarianAssignment.FORBIDDEN) {
+                Row row = rows.get(i);
+                result.add(new BatchAssignmentDTO.Assignment(
+                        row.request().getId(), volunteerIds[j], row.scoreOf(volunteerIds[j])));
+            }
+        }
+        return result;
+    }
+    
+    private List<BatchAssignmentDTO.Assignment> apply(List<HelpRequest> requests,
+                                                      List<BatchAssignmentDTO.Assignment> assignments) {
+        if (assignments.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, HelpRequest> requestsById = requests.stream()
+                .collect(Collectors.toMap(HelpRequest::getId, Function.identity()));
+        Map<Long, Volunteer> volunteersById = volunteerRepository.findByIdIn(assignments.stream()
+                        .map(BatchAssignmentDTO.Assignment::getVolunteerId)
+                        .collect(Collectors.toCollection(HashSet::new))).stream()
+                .collect(Collectors.toMap(Volunteer::getId, Function.identity()));
+        
+        // Claimed one by one like manual assignments, so a volunteer who claimed a request while
+        // the batch was solving keeps it
+        LocalDateTime now = LocalDateTime.now();
+        List<BatchAssignmentDTO.Assignment> applied = new ArrayList<>();
+        for (BatchAssignmentDTO.Assignment assignment : assignments) {
+            HelpRequest request = requestsById.get(assignment.getRequestId());
+            Volunteer volunteer = volunteersById.get(assignment.getVolunteerId());
+            if (volunteer == null || helpRequestRepository.claim(request.getId(), volunteer, now) == 0) {
+                continue;
+            }
+            volunteerIndex.adjustWorkload(volunteer.getId(), 1);
+            applied.add(assignment);
+            
+            notificationService.sendNotification(
+                request.getRequester().getId(),
+                "Volunteer Assigned",
+                volunteer.getUser().getFullName() + " has been assigned to your help request",
+                "HELP_REQUEST",
+                request.getId()
+            );
+        }
+        return applied;
+    }
+    
+    private static double urgencyFactor(HelpRequest.Urgency urgency) {
+        if (urgency == null) {
+            return 0.3;
+        }
+        return switch (urgency) {
+            case URGENT -> 1.0;
+            case HIGH -> 0.6;
+            case MEDIUM -> 0.3;
+            case LOW -> 0.1;
+        };
+    }
+    
+    record Plan(List<BatchAssignmentDTO.Assignment> assignments, int partitions) {
+    }
+    
+    /**
+     * One request with its best candidates; {@code bonus} is its urgency bonus
+     */
+    private record Row(HelpRequest request, double bonus, List<TopK.Scored<Long>> candidates) {
+        
+        double scoreOf(Long volunteerId) {
+            for (TopK.Scored<Long> candidate : candidates) {
+                if (candidate.item().equals(volunteerId)) {
+                    return candidate.score();
+                }
+            }
+            return Double.NaN;
+        }
+    }
+}
@@ -2,21 +2,32 @@ package com.example.backend.service;
 
 import com.example.backend.dto.BloodRequestDTO;
 import com.example.backend.dto.BloodDonorDTO;
+import com.example.backend.dto.RankedDonorDTO;
 import com.example.backend.entity.BloodDonor;
 import com.example.backend.entity.BloodRequest;
 import com.example.backend.entity.User;
+import com.example.backend.exception.BadRequestException;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.repository.BloodDonorRepository;
 import com.example.backend.repository.BloodRequestRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.util.BloodCompatibility;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +40,29 @@ public class BloodDonationService {
     private final BloodRequestRepository bloodRequestRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final BloodDonorPool donorPool;
+    private final DonorRanker donorRanker;
+    private final BloodRequestWaveScheduler waveScheduler;
+    
+    @Value("${app.blood.matching.default-ranked-donors:50}")
+    private int defaultRankedDonors;
+    
+    @Value("${app.blood.matching.max-ranked-donors:200}")
+    private int maxRankedDonors;
+    
+    // Outside a transaction, so a failed load cannot mark a surrounding one rollback-only
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void loadDonorPool() {
+        try {
+            donorPool.load(bloodDonorRepository.findAllAvailableDonors(LocalDate.now()).stream()
+                    .map(this::toPooledDonor)
+                    .collect(Collectors.toList()));
+        } catch (Exception e) {
+            // Matching falls back to the database until the pools are loaded
+            log.error("Failed to load blood donor pools: {}", e.getMessage());
+        }
+    }
     
     public BloodDonorDTO registerDonor(Long userId, BloodDonorDTO donorDTO) {
         log.info("Registering blood donor for user: {}", userId);
@@ -46,6 +80,7 @@ public class BloodDonationService {
                 .bloodType(BloodDonor.BloodType.valueOf(donorDTO.getBloodType()))
                 .isAvailable(true)
                 .lastDonationDate(donorDTO.getLastDonationDate())
+                .eligibleFrom(BloodDonor.eligibleFrom(donorDTO.getLastDonationDate(), LocalDate.now()))
                 .medicalEligibility(donorDTO.getMedicalEligibility())
                 .weightKg(donorDTO.getWeightKg())
                 .healthConditions(donorDTO.getHealthConditions())
@@ -57,7 +92,9 @@ public class BloodDonationService {
         BloodDonor savedDonor = bloodDonorRepository.save(donor);
         log.info("Blood donor registered successfully with ID: {}", savedDonor.getId());
         
-        return convertDonorToDTO(savedDonor);
+        BloodDonorPool.PooledDonor pooled = toPooledDonor(savedDonor);
+        donorPool.update(pooled);
+        return pooled.donor();
     }
     
     public BloodRequestDTO createBloodRequest(BloodRequestDTO requestDTO) {
@@ -86,8 +123,8 @@ public class BloodDonationService {
         
         BloodRequest savedRequest = bloodRequestRepository.save(request);
         
-        // Notify matching donors
-        notifyMatchingDonors(savedRequest);
+        // Notify matching donors in widening waves until the request is fulfilled
+        waveScheduler.start(savedRequest);
         
         log.info("Blood request created successfully with ID: {}", savedRequest.getId());
         
@@ -105,12 +142,27 @@ public class BloodDonationService {
         if (!isAvailable && donor.getLastDonationDate() == null) {
             donor.setLastDonationDate(LocalDate.now());
         }
+        donor.setEligibleFrom(BloodDonor.eligibleFrom(donor.getLastDonationDate(), LocalDate.now()));
         
         BloodDonor updatedDonor = bloodDonorRepository.save(donor);
         
-        return convertDonorToDTO(updatedDonor);
+        BloodDonorPool.PooledDonor pooled = toPooledDonor(updatedDonor);
+        donorPool.update(pooled);
+        return pooled.donor();
+    }
+    
+    /**
+     * Refresh the pooled copy of a user's donor record, which carries their name and home location
+     */
+    public void refreshDonor(Long userId) {
+        bloodDonorRepository.findByUserId(userId)
+                .ifPresent(donor -> donorPool.update(toPooledDonor(donor)));
     }
     
+    /**
+     * Set a request's status and absolute fulfilled count; concurrent callers adding units should
+     * use {@link #pledgeUnits} instead
+     */
     public BloodRequestDTO updateRequestStatus(Long requestId, String status, Integer fulfilledUnits) {
         log.info("Updating blood request {} status to: {}", requestId, status);
         
@@ -130,31 +182,103 @@ public class BloodDonationService {
         
         BloodRequest updatedRequest = bloodRequestRepository.save(request);
         
+        if (!needsDonors(updatedRequest)) {
+            waveScheduler.stop(requestId);
+        }
+        
         return convertRequestToDTO(updatedRequest);
     }
     
+    /**
+     * Record {@code units} pledged or donated against an open request. The count and status are
+     * changed by one conditional update, so concurrent pledges are never lost.
+     */
+    public BloodRequestDTO pledgeUnits(Long requestId, int units) {
+        if (units < 1) {
+            throw new BadRequestException("Pledged units must be at least 1");
+        }
+        
+        if (bloodRequestRepository.pledgeUnits(requestId, units, LocalDateTime.now()) == 0) {
+            bloodRequestRepository.findById(requestId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Blood request not found"));
+            throw new BadRequestException("Blood request is no longer accepting pledges");
+        }
+        
+        BloodRequest request = bloodRequestRepository.findById(requestId)
+                .orElseThrow(() -> new ResourceNotFoundException("Blood request not found"));
+        log.info("Blood request {} pledged {} units, {}/{} fulfilled",
+                requestId, units, request.getFulfilledUnits(), request.getUnitsNeeded());
+        
+        if (!needsDonors(request)) {
+            waveScheduler.stop(requestId);
+        }
+        
+        return convertRequestToDTO(request);
+    }
+    
+    /**
+     * Available donors who can give to a patient of {@code bloodType}, exact matches first
+     */
     @Transactional(readOnly = true)
     public List<BloodDonorDTO> findAvailableDonors(String bloodType) {
-        BloodDonor.BloodType type = BloodDonor.BloodType.valueOf(bloodType);
-        List<BloodDonor> donors = bloodDonorRepository.findAvailableDonorsByBloodType(type);
+        BloodDonor.BloodType type = BloodDonor.BloodType.fromValue(bloodType);
+        if (donorPool.isWarm()) {
+            return donorPool.findCompatible(type);
+        }
+        
+        List<BloodDonor> donors = bloodDonorRepository.findAvailableDonorsByBloodTypeIn(
+            BloodCompatibility.compatibleDonorTypes(type), LocalDate.now());
         
         return donors.stream()
+                .sorted(Comparator.comparing(donor -> donor.getBloodType() != type))
                 .map(this::convertDonorToDTO)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * The best compatible donors for a request, ranked by {@link DonorRanker}
+     */
+    @Transactional(readOnly = true)
+    public List<RankedDonorDTO> rankDonorsForRequest(Long requestId, Integer limit) {
+        int k = limit != null ? limit : defaultRankedDonors;
+        if (k < 1 || k > maxRankedDonors) {
+            throw new BadRequestException("Limit must be between 1 and " + maxRankedDonors);
+        }
+        
+        BloodRequest request = bloodRequestRepository.findById(requestId)
+                .orElseThrow(() -> new ResourceNotFoundException("Blood request not found"));
+        
+        return rankDonors(request, donorRanker.start(request, k, LocalDate.now()));
+    }
+    
     @Transactional(readOnly = true)
     public List<BloodDonorDTO> findEmergencyDonorsNearLocation(
             String bloodType, BigDecimal latitude, BigDecimal longitude, double radiusKm) {
         
+        List<String> compatibleTypes = BloodCompatibility
+            .compatibleDonorTypes(BloodDonor.BloodType.fromValue(bloodType)).stream()
+            .map(Enum::name)
+            .toList();
         List<BloodDonor> donors = bloodDonorRepository.findEmergencyDonorsNearLocation(
-            bloodType, latitude, longitude, radiusKm);
+            compatibleTypes, latitude, longitude, radiusKm, LocalDate.now());
         
         return donors.stream()
                 .map(this::convertDonorToDTO)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Put donors whose cooldown ended after {@code after}, up to and including {@code today}, back
+     * into the donor pools
+     * @return number of donors returned to the pools
+     */
+    @Transactional(readOnly = true)
+    public int returnEligibleDonorsToPool(LocalDate after, LocalDate today) {
+        List<BloodDonor> donors = bloodDonorRepository.findDonorsEligibleBetween(after, today);
+        donors.forEach(donor -> donorPool.update(toPooledDonor(donor)));
+        return donors.size();
+    }
+    
     @Transactional(readOnly = true)
     public List<BloodRequestDTO> getActiveRequests() {
         List<BloodRequest> requests = bloodRequestRepository.findByStatus(BloodRequest.Status.ACTIVE);
@@ -173,26 +297,67 @@ public class BloodDonationService {
                 .collect(Collectors.toList());
     }
     
-    private void notifyMatchingDonors(BloodRequest request) {
-        List<BloodDonor> matchingDonors = bloodDonorRepository
-            .findAvailableDonorsByBloodType(request.getBloodType());
-        
-        for (BloodDonor donor : matchingDonors) {
-            String urgencyText = request.getUrgency() == BloodRequest.Urgency.CRITICAL ? 
-                "URGENT: " : "";
-            
-            notificationService.sendNotification(
-                donor.getUser().getId(),
-                urgencyText + "Blood Donation Request",
-                "Your blood type " + request.getBloodType().getValue() + 
-                " is urgently needed at " + request.getHospitalName(),
-                "BLOOD_REQUEST",
-                request.getId()
-            );
+    /**
+     * Notify the best {@code k} compatible donors within {@code radiusKm} of the hospital, skipping
+     * those notified by earlier waves
+     * @return user ids notified by this wave, or empty if the request no longer needs donors
+     */
+    public Optional<List<Long>> notifyDonorWave(Long requestId, int k, double radiusKm, Set<Long> alreadyNotified) {
+        BloodRequest request = bloodRequestRepository.findById(requestId).orElse(null);
+        if (request == null || !needsDonors(request)) {
+            return Optional.empty();
+        }
+        
+        List<Long> donorUserIds = rankDonors(request, donorRanker.start(request, k, LocalDate.now(), radiusKm)).stream()
+            .map(ranked -> ranked.getDonor().getUserId())
+            .filter(userId -> !alreadyNotified.contains(userId))
+            .collect(Collectors.toList());
+        
+        if (!donorUserIds.isEmpty()) {
+            notifyDonors(request, donorUserIds);
         }
+        return Optional.of(donorUserIds);
+    }
+    
+    private static boolean needsDonors(BloodRequest request) {
+        boolean open = request.getStatus() == BloodRequest.Status.ACTIVE
+                || request.getStatus() == BloodRequest.Status.PARTIALLY_FULFILLED;
+        int fulfilled = request.getFulfilledUnits() != null ? request.getFulfilledUnits() : 0;
+        return open && fulfilled < request.getUnitsNeeded();
+    }
+    
+    private void notifyDonors(BloodRequest request, List<Long> donorUserIds) {
+        String urgencyText = request.getUrgency() == BloodRequest.Urgency.CRITICAL ? 
+            "URGENT: " : "";
+        
+        notificationService.sendBulkNotification(
+            donorUserIds,
+            urgencyText + "Blood Donation Request",
+            "A patient with blood type " + request.getBloodType().getValue() +
+            ", which you can donate to, needs blood at " + request.getHospitalName(),
+            "BLOOD_REQUEST",
+            request.getId()
+        );
+    }
+    
+    private List<RankedDonorDTO> rankDonors(BloodRequest request, DonorRanker.Ranking ranking) {
+        if (donorPool.isWarm()) {
+            donorPool.forEachCompatible(request.getBloodType(), ranking::offer);
+        } else {
+            bloodDonorRepository.findAvailableDonorsByBloodTypeIn(
+                    BloodCompatibility.compatibleDonorTypes(request.getBloodType()), LocalDate.now())
+                .forEach(donor -> ranking.offer(toPooledDonor(donor)));
+        }
+        
+        return ranking.result();
+    }
+    
+    private BloodDonorPool.PooledDonor toPooledDonor(BloodDonor donor) {
+        return BloodDonorPool.PooledDonor.of(convertDonorToDTO(donor),
+            donor.getUser().getLatitude(), donor.getUser().getLongitude());
     }
     
-    private BloodDonorDTO convertDonorToDTO(BloodDonor donor) {
+    BloodDonorDTO convertDonorToDTO(BloodDonor donor) {
         return BloodDonorDTO.builder()
                 .id(donor.getId())
                 .userId(donor.getUser().getId())
@@ -200,6 +365,7 @@ public class BloodDonationService {
                 .bloodType(donor.getBloodType().getValue())
                 .isAvailable(donor.getIsAvailable())
                 .lastDonationDate(donor.getLastDonationDate())
+                .eligibleFrom(donor.getEligibleFrom())
                 .medicalEligibility(donor.getMedicalEligibility())
                 .weightKg(donor.getWeightKg())
                 .healthConditions(donor.getHealthConditions())
@@ -210,7 +376,7 @@ public class BloodDonationService {
                 .build();
     }
     
-    private BloodRequestDTO convertRequestToDTO(BloodRequest request) {
+    BloodRequestDTO convertRequestToDTO(BloodRequest request) {
         return BloodRequestDTO.builder()
                 .id(request.getId())
                 .requesterId(request.getRequester().getId())
@@ -0,0 +1,58 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.repository.BloodDonorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Computes {@code eligible_from} from {@code last_donation_date} for donors registered before the
+ * column existed, who would otherwise match no eligibility query at all.
+ * <p>
+ * Runs once at startup, ahead of the donor pool load so the pools see every eligible donor, and
+ * finds nothing to do once every row has been filled in.
+ */
+@Component
+@Slf4j
+public class BloodDonorEligibilityBackfill {
+    
+    private final BloodDonorRepository bloodDonorRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    public BloodDonorEligibilityBackfill(BloodDonorRepository bloodDonorRepository,
+                                         PlatformTransactionManager transactionManager) {
+        this.bloodDonorRepository = bloodDonorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void run() {
+        try {
+            Integer filled = transactionTemplate.execute(status -> backfill(LocalDate.now()));
+            if (filled != null && filled > 0) {
+                log.info("Computed donation eligibility for {} blood donors", filled);
+            }
+        } catch (Exception e) {
+            // These donors stay out of matching until the next start
+            log.error("Blood donor eligibility backfill failed: {}", e.getMessage());
+        }
+    }
+    
+    private int backfill(LocalDate today) {
+        int filled = 0;
+        for (BloodDonor donor : bloodDonorRepository.findByEligibleFromIsNull()) {
+            donor.setEligibleFrom(BloodDonor.eligibleFrom(donor.getLastDonationDate(), today));
+            filled++;
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Returns donors to the donor pools once their donation cooldown has ended.
+ * <p>
+ * Each run only reads donors whose {@code eligible_from} falls after the last day already
+ * covered, starting from the day the pools were loaded, so a run touches one day's worth of
+ * donors rather than the whole table. A missed run is caught up by the next one.
+ */
+@Component
+@Slf4j
+public class BloodDonorEligibilityJob {
+    
+    private final BloodDonationService bloodDonationService;
+    private final BloodDonorPool donorPool;
+    private final Counter restored;
+    
+    @Value("${app.blood.eligibility.enabled:true}")
+    private boolean enabled;
+    
+    private LocalDate coveredThrough = LocalDate.now();
+    
+    public BloodDonorEligibilityJob(BloodDonationService bloodDonationService,
+                                    BloodDonorPool donorPool,
+                                    MeterRegistry meterRegistry) {
+        this.bloodDonationService = bloodDonationService;
+        this.donorPool = donorPool;
+        this.restored = meterRegistry.counter("blood.donors.eligibility.restored");
+    }
+    
+    @Scheduled(cron = "${app.blood.eligibility.cron:0 5 0 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        run(LocalDate.now());
+    }
+    
+    /**
+     * Return donors who became eligible after the last covered day, up to and including {@code today}
+     * @return number of donors returned to the pools
+     */
+    synchronized int run(LocalDate today) {
+        if (!today.isAfter(coveredThrough)) {
+            return 0;
+        }
+        if (!donorPool.isWarm()) {
+            // Nothing to flip back; loading the pools reads every eligible donor anyway
+            coveredThrough = today;
+            return 0;
+        }
+        
+        try {
+            int count = bloodDonationService.returnEligibleDonorsToPool(coveredThrough, today);
+            coveredThrough = today;
+            restored.increment(count);
+            log.info("Returned {} blood donors to the donor pools after their cooldown", count);
+            return count;
+        } catch (Exception e) {
+            log.error("Blood donor eligibility refresh failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
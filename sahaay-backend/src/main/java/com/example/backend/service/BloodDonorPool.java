@@ -0,0 +1,133 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BloodDonorDTO;
+import com.example.backend.entity.BloodDonor.BloodType;
+import com.example.backend.util.BloodCompatibility;
+import com.example.backend.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory pools of donors who are available, medically eligible and past their donation
+ * cooldown, one per blood type, so matching a request never queries the donor table. A request is served from the union of
+ * the pools whose type can donate to the patient's type.
+ * Mutations are applied only after the surrounding transaction commits; donors whose cooldown
+ * ends are put back by {@link BloodDonorEligibilityJob}.
+ */
+@Component
+@Slf4j
+public class BloodDonorPool {
+    
+    private static final BloodType[] TYPES = BloodType.values();
+    
+    @SuppressWarnings("unchecked")
+    private final Map<Long, PooledDonor>[] pools = new Map[TYPES.length];
+    private volatile boolean warm;
+    
+    public BloodDonorPool() {
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = new ConcurrentHashMap<>();
+        }
+    }
+    
+    /**
+     * Replace the pools with a full snapshot of available, eligible donors
+     */
+    public synchronized void load(List<PooledDonor> donors) {
+        for (Map<Long, PooledDonor> pool : pools) {
+            pool.clear();
+        }
+        for (PooledDonor donor : donors) {
+            apply(donor);
+        }
+        warm = true;
+        log.info("Loaded {} available blood donors into the donor pools", size());
+    }
+    
+    public boolean isWarm() {
+        return warm;
+    }
+    
+    /**
+     * Add, move or drop a donor after its registration, availability or cooldown changed
+     */
+    public void update(PooledDonor donor) {
+        TransactionUtil.afterCommit(() -> apply(donor));
+    }
+    
+    /**
+     * Donors who can give to {@code recipient}, exact type matches first
+     */
+    public List<BloodDonorDTO> findCompatible(BloodType recipient) {
+        List<BloodDonorDTO> result = new ArrayList<>();
+        forEachCompatible(recipient, donor -> result.add(donor.donor()));
+        return result;
+    }
+    
+    public List<Long> findCompatibleUserIds(BloodType recipient) {
+        List<Long> userIds = new ArrayList<>();
+        forEachCompatible(recipient, donor -> userIds.add(donor.donor().getUserId()));
+        return userIds;
+    }
+    
+    /**
+     * Visit every pooled donor who can give to {@code recipient}, exact type matches first
+     */
+    public void forEachCompatible(BloodType recipient, Consumer<PooledDonor> action) {
+        pools[recipient.ordinal()].values().forEach(action);
+        int mask = BloodCompatibility.donorMask(recipient) & ~(1 << recipient.ordinal());
+        while (mask != 0) {
+            pools[Integer.numberOfTrailingZeros(mask)].values().forEach(action);
+            mask &= mask - 1;
+        }
+    }
+    
+    public int size() {
+        int size = 0;
+        for (Map<Long, PooledDonor> pool : pools) {
+            size += pool.size();
+        }
+        return size;
+    }
+    
+    private void apply(PooledDonor pooled) {
+        BloodDonorDTO donor = pooled.donor();
+        BloodType type = BloodType.fromValue(donor.getBloodType());
+        for (int i = 0; i < pools.length; i++) {
+            if (i != type.ordinal()) {
+                pools[i].remove(donor.getId());
+            }
+        }
+        
+        if (Boolean.TRUE.equals(donor.getIsAvailable()) && Boolean.TRUE.equals(donor.getMedicalEligibility())
+                && (donor.getEligibleFrom() == null || !donor.getEligibleFrom().isAfter(LocalDate.now()))) {
+            pools[type.ordinal()].put(donor.getId(), pooled);
+        } else {
+            pools[type.ordinal()].remove(donor.getId());
+        }
+    }
+    
+    /**
+     * Donor snapshot with the home coordinates unpacked once, so ranking does no BigDecimal math.
+     * {@code located} is false when the donor's user has no coordinates.
+     */
+    public record PooledDonor(BloodDonorDTO donor, boolean located,
+                              double latitude, double longitude, double cosLatitude) {
+        
+        public static PooledDonor of(BloodDonorDTO donor, BigDecimal latitude, BigDecimal longitude) {
+            if (latitude == null || longitude == null) {
+                return new PooledDonor(donor, false, 0, 0, 1);
+            }
+            double lat = latitude.doubleValue();
+            return new PooledDonor(donor, true, lat, longitude.doubleValue(), Math.cos(Math.toRadians(lat)));
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BloodRequest;
+import com.example.backend.util.TimingWheel;
+import com.example.backend.util.TransactionUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Notifies donors for a blood request in waves instead of all at once. The first wave reaches the
+ * nearest donors; each later wave widens the search radius and takes the next best donors, until
+ * the request is fulfilled or closed, the waves run out, or no new donors are found at the
+ * largest radius.
+ * <p>
+ * Waits between waves run on one shared {@link TimingWheel}; the waves themselves run on a small
+ * worker pool. Wave progress is kept in memory, so requests open at shutdown get no further waves.
+ */
+@Component
+@Slf4j
+public class BloodRequestWaveScheduler {
+    
+    static final String STOP_CLOSED = "closed";
+    static final String STOP_EXHAUSTED = "exhausted";
+    static final String STOP_MAX_WAVES = "max_waves";
+    
+    private final ObjectProvider<BloodDonationService> bloodDonationService;
+    private final MeterRegistry meterRegistry;
+    
+    private final int donorsPerWave;
+    private final int maxWaves;
+    private final Duration interval;
+    private final double initialRadiusKm;
+    private final double radiusGrowth;
+    private final double maxRadiusKm;
+    private final int workerCount;
+    private final Duration tick;
+    private final int wheelSize;
+    
+    private final Map<Long, WaveState> active = new ConcurrentHashMap<>();
+    
+    private ExecutorService workers;
+    private TimingWheel timer;
+    
+    public BloodRequestWaveScheduler(ObjectProvider<BloodDonationService> bloodDonationService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.blood.waves.donors-per-wave:20}") int donorsPerWave,
+                                     @Value("${app.blood.waves.max-waves:6}") int maxWaves,
+                                     @Value("${app.blood.waves.interval:10m}") Duration interval,
+                                     @Value("${app.blood.waves.initial-radius-km:5}") double initialRadiusKm,
+                                     @Value("${app.blood.waves.radius-growth:2.0}") double radiusGrowth,
+                                     @Value("${app.blood.waves.max-radius-km:50}") double maxRadiusKm,
+                                     @Value("${app.blood.waves.workers:2}") int workerCount,
+                                     @Value("${app.blood.waves.timer.tick:1s}") Duration tick,
+                                     @Value("${app.blood.waves.timer.wheel-size:512}") int wheelSize) {
+        // Resolved lazily: BloodDonationService starts waves through this scheduler
+        this.bloodDonationService = bloodDonationService;
+        this.meterRegistry = meterRegistry;
+        this.donorsPerWave = donorsPerWave;
+        this.maxWaves = maxWaves;
+        this.interval = interval;
+        this.initialRadiusKm = initialRadiusKm;
+        this.radiusGrowth = radiusGrowth;
+        this.maxRadiusKm = maxRadiusKm;
+        this.workerCount = workerCount;
+        this.tick = tick;
+        this.wheelSize = wheelSize;
+        
+        meterRegistry.gaugeMapSize("blood.request.waves.active", Tags.empty(), active);
+    }
+    
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "blood-wave-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer = new TimingWheel("blood-wave-timer", tick, wheelSize, workers);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        timer.close();
+        workers.shutdownNow();
+        if (!active.isEmpty()) {
+            log.warn("Blood request waves stopped with {} requests still open", active.size());
+        }
+    }
+    
+    /**
+     * Run the first wave for a new request once the surrounding transaction commits
+     */
+    public void start(BloodRequest request) {
+        Long requestId = request.getId();
+        BloodRequest.Urgency urgency = request.getUrgency();
+        TransactionUtil.afterCommit(() -> {
+            WaveState state = new WaveState(requestId, urgency);
+            active.put(requestId, state);
+            workers.execute(() -> runWave(state));
+        });
+    }
+    
+    /**
+     * Cancel outstanding waves for a request once the surrounding transaction commits
+     */
+    public void stop(Long requestId) {
+        TransactionUtil.afterCommit(() -> {
+            WaveState state = active.remove(requestId);
+            if (state != null) {
+                state.cancelPendingWave();
+                stopped(state, STOP_CLOSED);
+            }
+        });
+    }
+    
+    boolean isActive(Long requestId) {
+        return active.containsKey(requestId);
+    }
+    
+    private void runWave(WaveState state) {
+        if (active.get(state.requestId) != state) {
+            return;
+        }
+        
+        int wave = ++state.wave;
+        double radiusKm = Math.min(maxRadiusKm, initialRadiusKm * Math.pow(radiusGrowth, wave - 1));
+        List<Long> notified;
+        try {
+            Optional<List<Long>> result = bloodDonationService.getObject()
+                    .notifyDonorWave(state.requestId, donorsPerWave * wave, radiusKm, state.notifiedUserIds);
+            if (result.isEmpty()) {
+                finish(state, STOP_CLOSED);
+                return;
+            }
+            notified = result.get();
+        } catch (Exception e) {
+            // Try again on the next wave rather than giving up on the request
+            log.error("Blood request {} wave {} failed: {}", state.requestId, wave, e.getMessage());
+            notified = List.of();
+        }
+        
+        state.notifiedUserIds.addAll(notified);
+        meterRegistry.summary("blood.request.wave.donors", "wave", String.valueOf(wave)).record(notified.size());
+        log.info("Blood request {} wave {} notified {} donors within {} km",
+                state.requestId, wave, notified.size(), radiusKm);
+        
+        if (wave >= maxWaves) {
+            finish(state, STOP_MAX_WAVES);
+        } else if (notified.isEmpty() && radiusKm >= maxRadiusKm) {
+            finish(state, STOP_EXHAUSTED);
+        } else {
+            Duration wait = state.urgency == BloodRequest.Urgency.CRITICAL ? interval.dividedBy(2) : interval;
+            state.pendingWave = timer.schedule(() -> runWave(state), wait);
+        }
+    }
+    
+    private void finish(WaveState state, String reason) {
+        if (active.remove(state.requestId, state)) {
+            stopped(state, reason);
+        }
+    }
+    
+    private void stopped(WaveState state, String reason) {
+        meterRegistry.counter("blood.request.waves.stopped", "reason", reason).increment();
+        log.info("Blood request {} waves stopped after {} waves ({}), {} donors notified",
+                state.requestId, state.wave, reason, state.notifiedUserIds.size());
+    }
+    
+    /**
+     * Progress of one request; waves for a request never overlap, so only the cancel handle is shared
+     */
+    private static final class WaveState {
+        private final Long requestId;
+        private final BloodRequest.Urgency urgency;
+        private final Set<Long> notifiedUserIds = new HashSet<>();
+        private int wave;
+        private volatile TimingWheel.Timeout pendingWave;
+        
+        private WaveState(Long requestId, BloodRequest.Urgency urgency) {
+            this.requestId = requestId;
+            this.urgency = urgency;
+        }
+        
+        private void cancelPendingWave() {
+            TimingWheel.Timeout timeout = pendingWave;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+}
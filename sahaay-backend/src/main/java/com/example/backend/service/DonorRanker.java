@@ -0,0 +1,167 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.RankedDonorDTO;
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.BloodRequest;
+import com.example.backend.service.BloodDonorPool.PooledDonor;
+import com.example.backend.util.LocationUtil;
+import com.example.backend.util.TopK;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Scores compatible donors for a blood request and keeps the best k.
+ * <p>
+ * The score adds up closeness to the hospital, time since the donor last gave blood and, scaled
+ * by the request's urgency, the donor's emergency flag, plus a small bonus for an exact type
+ * match so universal donors are saved for patients who need them. Donors who donated within
+ * the last {@value #MIN_DAYS_BETWEEN_DONATIONS} days, or who live outside the search radius of
+ * a request with hospital coordinates, are skipped.
+ */
+@Component
+public class DonorRanker {
+    
+    static final int MIN_DAYS_BETWEEN_DONATIONS = BloodDonor.DONATION_COOLDOWN_DAYS;
+    
+    private static final double RESTED_AFTER_DAYS = 180.0;
+    private static final double EXACT_MATCH_BONUS = 0.05;
+    
+    private final double maxRadiusKm;
+    private final double distanceScaleKm;
+    private final double distanceWeight;
+    private final double recencyWeight;
+    private final double emergencyWeight;
+    
+    public DonorRanker(@Value("${app.blood.matching.max-radius-km:50}") double maxRadiusKm,
+                       @Value("${app.blood.matching.distance-scale-km:10}") double distanceScaleKm,
+                       @Value("${app.blood.matching.weight.distance:0.5}") double distanceWeight,
+                       @Value("${app.blood.matching.weight.recency:0.2}") double recencyWeight,
+                       @Value("${app.blood.matching.weight.emergency:0.3}") double emergencyWeight) {
+        this.maxRadiusKm = maxRadiusKm;
+        this.distanceScaleKm = distanceScaleKm;
+        this.distanceWeight = distanceWeight;
+        this.recencyWeight = recencyWeight;
+        this.emergencyWeight = emergencyWeight;
+    }
+    
+    public Ranking start(BloodRequest request, int k, LocalDate today) {
+        BloodRequest.Urgency urgency = request.getUrgency() != null ? request.getUrgency() : BloodRequest.Urgency.MEDIUM;
+        return new Ranking(request, k, today, radiusKm(urgency));
+    }
+    
+    /**
+     * Rank within an explicit search radius instead of the urgency's default
+     */
+    public Ranking start(BloodRequest request, int k, LocalDate today, double radiusKm) {
+        return new Ranking(request, k, today, radiusKm);
+    }
+    
+    /**
+     * Search radius for a request; routine requests only reach donors half as far out
+     */
+    double radiusKm(BloodRequest.Urgency urgency) {
+        return switch (urgency) {
+            case CRITICAL, HIGH -> maxRadiusKm;
+            case MEDIUM, LOW -> maxRadiusKm / 2;
+        };
+    }
+    
+    private static double urgencyFactor(BloodRequest.Urgency urgency) {
+        return switch (urgency) {
+            case CRITICAL -> 1.0;
+            case HIGH -> 0.7;
+            case MEDIUM -> 0.4;
+            case LOW -> 0.2;
+        };
+    }
+    
+    /**
+     * One request's ranking in progress; offer each candidate once, then read the result
+     */
+    public final class Ranking {
+        
+        private final BloodDonor.BloodType patientType;
+        private final boolean hospitalLocated;
+        private final double hospitalLatitude;
+        private final double hospitalLongitude;
+        private final double cosHospitalLatitude;
+        private final double radiusKm;
+        private final double emergencyBonus;
+        private final LocalDate today;
+        private final TopK<RankedDonorDTO> best;
+        
+        private Ranking(BloodRequest request, int k, LocalDate today, double radiusKm) {
+            BloodRequest.Urgency urgency = request.getUrgency() != null
+                    ? request.getUrgency() : BloodRequest.Urgency.MEDIUM;
+            this.patientType = request.getBloodType();
+            this.hospitalLocated = request.getHospitalLatitude() != null && request.getHospitalLongitude() != null;
+            this.hospitalLatitude = hospitalLocated ? request.getHospitalLatitude().doubleValue() : 0;
+            this.hospitalLongitude = hospitalLocated ? request.getHospitalLongitude().doubleValue() : 0;
+            this.cosHospitalLatitude = Math.cos(Math.toRadians(hospitalLatitude));
+            this.radiusKm = radiusKm;
+            this.emergencyBonus = emergencyWeight * urgencyFactor(urgency);
+            this.today = today;
+            this.best = new TopK<>(k);
+        }
+        
+        public void offer(PooledDonor candidate) {
+            Integer daysSinceDonation = null;
+            double recency = 1.0;
+            if (candidate.donor().getLastDonationDate() != null) {
+                daysSinceDonation = (int) ChronoUnit.DAYS.between(candidate.donor().getLastDonationDate(), today);
+                if (daysSinceDonation < MIN_DAYS_BETWEEN_DONATIONS) {
+                    return;
+                }
+                recency = Math.min(1.0, daysSinceDonation / RESTED_AFTER_DAYS);
+            }
+            
+            Double distanceKm = null;
+            double closeness = 0;
+            if (hospitalLocated) {
+                if (!candidate.located()) {
+                    return;
+                }
+                distanceKm = LocationUtil.calculateDistance(hospitalLatitude, hospitalLongitude, cosHospitalLatitude,
+                        candidate.latitude(), candidate.longitude(), candidate.cosLatitude());
+                if (distanceKm > radiusKm) {
+                    return;
+                }
+                closeness = 1.0 / (1.0 + distanceKm / distanceScaleKm);
+            }
+            
+            double score = distanceWeight * closeness + recencyWeight * recency;
+            if (Boolean.TRUE.equals(candidate.donor().getEmergencyDonor())) {
+                score += emergencyBonus;
+            }
+            if (patientType.getValue().equals(candidate.donor().getBloodType())) {
+                score += EXACT_MATCH_BONUS;
+            }
+            
+            if (!best.accepts(score)) {
+                return;
+            }
+            best.offer(RankedDonorDTO.builder()
+                    .donor(candidate.donor())
+                    .distanceKm(distanceKm)
+                    .daysSinceLastDonation(daysSinceDonation)
+                    .build(), score);
+        }
+        
+        /**
+         * The best donors offered so far, highest score first
+         */
+        public List<RankedDonorDTO> result() {
+            return best.toSortedList().stream()
+                    .map(scored -> {
+                        scored.item().setScore(scored.score());
+                        return scored.item();
+                    })
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -1,22 +1,30 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.HelpRequestDTO;
+import com.example.backend.dto.RankedVolunteerDTO;
 import com.example.backend.entity.HelpRequest;
 import com.example.backend.entity.User;
 import com.example.backend.entity.Volunteer;
+import com.example.backend.exception.BadRequestException;
+import com.example.backend.exception.ClaimConflictException;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.repository.HelpRequestRepository;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.repository.VolunteerRepository;
+import com.example.backend.util.WeeklyAvailability;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,7 +37,12 @@ public class HelpRequestService {
     private final UserRepository userRepository;
     private final VolunteerRepository volunteerRepository;
     private final NotificationService notificationService;
-
+    private final VolunteerService volunteerService;
+    private final VolunteerIndex volunteerIndex;
+    private final VolunteerMatcher volunteerMatcher;
+    
+    @Value("${app.volunteers.matching.top-k:10}")
+    private int matchedVolunteers;
     
     public HelpRequestDTO createHelpRequest(HelpRequestDTO requestDTO) {
         log.info("Creating help request for user: {}", requestDTO.getRequesterId());
@@ -68,20 +81,34 @@ public class HelpRequestService {
         return convertToDTO(savedRequest);
     }
     
+    /**
+     * Claim an open request for a volunteer. The claim is one conditional update, so when several
+     * volunteers claim at once exactly one wins and the others get a {@link ClaimConflictException}
+     * naming the winner; a repeated claim by the winner just returns the request.
+     */
     public HelpRequestDTO assignVolunteer(Long requestId, Long volunteerId) {
         log.info("Assigning volunteer {} to help request {}", volunteerId, requestId);
         
-        HelpRequest request = helpRequestRepository.findById(requestId)
-                .orElseThrow(() -> new ResourceNotFoundException("Help request not found"));
-        
         Volunteer volunteer = volunteerRepository.findById(volunteerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Volunteer not found"));
         
-        request.setAssignedVolunteer(volunteer);
-        request.setStatus(HelpRequest.Status.ASSIGNED);
-        request.setAssignedAt(LocalDateTime.now());
+        boolean claimed = helpRequestRepository.claim(requestId, volunteer, LocalDateTime.now()) == 1;
+        HelpRequest request = helpRequestRepository.findById(requestId)
+                .orElseThrow(() -> new ResourceNotFoundException("Help request not found"));
         
-        HelpRequest updatedRequest = helpRequestRepository.save(request);
+        if (!claimed) {
+            Volunteer winner = request.getAssignedVolunteer();
+            if (winner == null) {
+                throw new BadRequestException("Help request is no longer open");
+            }
+            if (!winner.getId().equals(volunteerId)) {
+                throw new ClaimConflictException("Help request has already been claimed",
+                        winner.getId(), winner.getUser().getFullName(), request.getAssignedAt());
+            }
+            return convertToDTO(request);
+        }
+        
+        trackWorkload(null, HelpRequest.Status.OPEN, request);
         
         // Notify the requester
         notificationService.sendNotification(
@@ -92,7 +119,7 @@ public class HelpRequestService {
             requestId
         );
         
-        return convertToDTO(updatedRequest);
+        return convertToDTO(request);
     }
     
     public HelpRequestDTO updateRequestStatus(Long requestId, String status) {
@@ -101,6 +128,7 @@ public class HelpRequestService {
         HelpRequest request = helpRequestRepository.findById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Help request not found"));
         
+        HelpRequest.Status previousStatus = request.getStatus();
         request.setStatus(HelpRequest.Status.valueOf(status));
         
         if (status.equals("COMPLETED")) {
@@ -116,6 +144,7 @@ public class HelpRequestService {
         }
         
         HelpRequest updatedRequest = helpRequestRepository.save(request);
+        trackWorkload(updatedRequest.getAssignedVolunteer(), previousStatus, updatedRequest);
         
         return convertToDTO(updatedRequest);
     }
@@ -152,31 +181,90 @@ public class HelpRequestService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Requests scheduled on {@code date}; with a volunteer, only those due while the volunteer is
+     * on shift, or with no set time
+     */
     @Transactional(readOnly = true)
-    public List<HelpRequestDTO> getScheduledRequestsForDate(LocalDate date) {
+    public List<HelpRequestDTO> getScheduledRequestsForDate(LocalDate date, Long volunteerId) {
         List<HelpRequest> requests = helpRequestRepository.findScheduledRequestsForDate(date);
+        if (volunteerId != null) {
+            byte[] availability = volunteerRepository.findById(volunteerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Volunteer not found"))
+                    .getAvailabilityBitmap();
+            requests = requests.stream()
+                    .filter(request -> request.getScheduledTime() == null || WeeklyAvailability.isAvailable(
+                            availability, WeeklyAvailability.slot(date.getDayOfWeek(), request.getScheduledTime())))
+                    .collect(Collectors.toList());
+        }
         return requests.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Notify the best matching volunteers and store them on the request, so reading the
+     * recommendations later costs no matching work
+     */
     private void notifySuitableVolunteers(HelpRequest request) {
-        // Find volunteers near the location with required skills
-        List<Volunteer> volunteers = volunteerRepository.findVolunteersNearLocation(
-            request.getLatitude(), request.getLongitude());
-        
-        for (Volunteer volunteer : volunteers) {
-            notificationService.sendNotification(
-                volunteer.getUser().getId(),
-                "New Help Request",
-                "A new help request matching your skills is available",
-                "HELP_REQUEST",
-                request.getId()
-            );
+        List<RankedVolunteerDTO> matches = rankVolunteers(request, matchedVolunteers);
+        
+        Map<String, Object> recommendations = new LinkedHashMap<>();
+        recommendations.put("generatedAt", LocalDateTime.now().toString());
+        recommendations.put("volunteers", matches);
+        request.setAiRecommendedVolunteers(recommendations);
+        
+        if (matches.isEmpty()) {
+            log.info("No matching volunteers found for help request {}", request.getId());
+            return;
+        }
+        
+        notificationService.sendBulkNotification(
+            matches.stream().map(RankedVolunteerDTO::getUserId).collect(Collectors.toList()),
+            "New Help Request",
+            "A new help request matching your skills is available",
+            "HELP_REQUEST",
+            request.getId()
+        );
+    }
+    
+    private List<RankedVolunteerDTO> rankVolunteers(HelpRequest request, int k) {
+        VolunteerMatcher.Matching matching = volunteerMatcher.start(request, k);
+        if (volunteerIndex.isWarm() && request.getLatitude() != null && request.getLongitude() != null) {
+            // Only volunteers whose service radius covers the request can match it
+            volunteerIndex.forEachCovering(request.getLatitude().doubleValue(), request.getLongitude().doubleValue(),
+                    matching::offer);
+        } else if (volunteerIndex.isWarm()) {
+            volunteerIndex.forEach(matching::offer);
+        } else {
+            volunteerService.findIndexedVolunteers().forEach(matching::offer);
         }
+        return matching.result();
+    }
+    
+    /**
+     * Keep the volunteer index's workload counts in step with assignment and status changes
+     */
+    private void trackWorkload(Volunteer previousVolunteer, HelpRequest.Status previousStatus, HelpRequest request) {
+        Long before = previousVolunteer != null && isActive(previousStatus) ? previousVolunteer.getId() : null;
+        Long after = request.getAssignedVolunteer() != null && isActive(request.getStatus())
+                ? request.getAssignedVolunteer().getId() : null;
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            volunteerIndex.adjustWorkload(before, -1);
+        }
+        if (after != null) {
+            volunteerIndex.adjustWorkload(after, 1);
+        }
+    }
+    
+    private static boolean isActive(HelpRequest.Status status) {
+        return status == HelpRequest.Status.ASSIGNED || status == HelpRequest.Status.IN_PROGRESS;
     }
     
-    private HelpRequestDTO convertToDTO(HelpRequest request) {
+    HelpRequestDTO convertToDTO(HelpRequest request) {
         return HelpRequestDTO.builder()
                 .id(request.getId())
                 .requesterId(request.getRequester().getId())
@@ -202,6 +290,7 @@ public class HelpRequestService {
                     request.getAssignedVolunteer().getId() : null)
                 .assignedAt(request.getAssignedAt())
                 .completedAt(request.getCompletedAt())
+                .aiRecommendedVolunteers(request.getAiRecommendedVolunteers())
                 .createdAt(request.getCreatedAt())
                 .updatedAt(request.getUpdatedAt())
                 .build();
@@ -1,25 +1,42 @@
 package com.example.backend.service;
 
 import com.example.backend.util.LocationUtil;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class LocationService {
     
     @Value("${app.location.geocoding.api-key:}")
     private String googleMapsApiKey;
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${app.location.geocoding.base-url:https://maps.googleapis.com/maps/api}")
+    private String mapsBaseUrl;
+    
+    private final RestTemplate restTemplate;
+    private final ReverseGeocodeCache geocodeCache;
+    
+    public LocationService(ReverseGeocodeCache geocodeCache,
+                           @Value("${app.location.geocoding.connect-timeout:2s}") Duration connectTimeout,
+                           @Value("${app.location.geocoding.read-timeout:3s}") Duration readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.geocodeCache = geocodeCache;
+    }
     
     public String getAddressFromCoordinates(BigDecimal latitude, BigDecimal longitude) {
         if (googleMapsApiKey == null || googleMapsApiKey.isEmpty()) {
@@ -27,10 +44,21 @@ public class LocationService {
             return String.format("%.6f, %.6f", latitude, longitude);
         }
         
+        // Nearby requests (e.g. several SOS alerts from one building) share one lookup
+        String address = geocodeCache.getOrLoad(latitude.doubleValue(), longitude.doubleValue(),
+                () -> reverseGeocode(latitude, longitude));
+        
+        return address != null ? address : String.format("%.6f, %.6f", latitude, longitude);
+    }
+    
+    /**
+     * Formatted address from the geocoding API, or null if the lookup failed
+     */
+    private String reverseGeocode(BigDecimal latitude, BigDecimal longitude) {
         try {
             String url = String.format(
-                "https://maps.googleapis.com/maps/api/geocode/json?latlng=%s,%s&key=%s",
-                latitude, longitude, googleMapsApiKey
+                "%s/geocode/json?latlng=%s,%s&key=%s",
+                mapsBaseUrl, latitude, longitude, googleMapsApiKey
             );
             
             @SuppressWarnings("unchecked")
@@ -51,7 +79,7 @@ public class LocationService {
             log.error("Failed to get address from coordinates: {}", e.getMessage());
         }
         
-        return String.format("%.6f, %.6f", latitude, longitude);
+        return null;
     }
     
     public Map<String, BigDecimal> getCoordinatesFromAddress(String address) {
@@ -64,13 +92,13 @@ public class LocationService {
         
         try {
             String url = String.format(
-                "https://maps.googleapis.com/maps/api/geocode/json?address=%s&key=%s",
-                address.replace(" ", "+"), googleMapsApiKey
+                "%s/geocode/json?address=%s&key=%s",
+                mapsBaseUrl, address.replace(" ", "+"), googleMapsApiKey
             );
             
             @SuppressWarnings("unchecked")
             Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
+            
             if (response != null && "OK".equals(response.get("status"))) {
                 Object resultsObj = response.get("results");
                 if (resultsObj instanceof java.util.List<?>) {
@@ -86,7 +114,7 @@ public class LocationService {
                             if (locationObj instanceof Map) {
                                 @SuppressWarnings("unchecked")
                                 Map<String, Object> location = (Map<String, Object>) locationObj;
-
+                                
                                 coordinates.put("latitude", new BigDecimal(location.get("lat").toString()));
                                 coordinates.put("longitude", new BigDecimal(location.get("lng").toString()));
                             }
@@ -106,11 +134,59 @@ public class LocationService {
         return LocationUtil.calculateDistance(lat1, lon1, lat2, lon2);
     }
     
+    public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        return LocationUtil.calculateDistance(lat1, lon1, lat2, lon2);
+    }
+    
     public boolean isWithinRadius(BigDecimal centerLat, BigDecimal centerLon,
                                   BigDecimal pointLat, BigDecimal pointLon,
                                   double radiusKm) {
-        double distance = calculateDistance(centerLat, centerLon, pointLat, pointLon);
-        return distance <= radiusKm;
+        return LocationUtil.isWithinRadius(centerLat, centerLon, pointLat, pointLon, radiusKm);
+    }
+    
+    public boolean isWithinRadius(double centerLat, double centerLon,
+                                  double pointLat, double pointLon,
+                                  double radiusKm) {
+        return LocationUtil.isWithinRadius(centerLat, centerLon, pointLat, pointLon, radiusKm);
+    }
+    
+    /**
+     * Indexes of the candidate points within the radius, computed without per-point allocation
+     * @return number of indexes written to {@code outIndexes}
+     */
+    public int filterWithinRadius(double centerLat, double centerLon, double radiusKm,
+                                  double[] lats, double[] lons, double[] cosLats,
+                                  int count, int[] outIndexes) {
+        return LocationUtil.filterWithinRadius(centerLat, centerLon, radiusKm,
+                lats, lons, cosLats, count, outIndexes);
+    }
+    
+    /**
+     * The candidates within the radius, in their original order. Coordinates are unpacked once
+     * so the distance checks run as a single batch over primitive arrays
+     */
+    public <T> List<T> filterWithinRadius(BigDecimal centerLat, BigDecimal centerLon, double radiusKm,
+                                          List<T> candidates, Function<T, BigDecimal> latitude,
+                                          Function<T, BigDecimal> longitude) {
+        int count = candidates.size();
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        double[] cosLats = new double[count];
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            T candidate = candidates.get(i);
+            lats[i] = latitude.apply(candidate).doubleValue();
+            lons[i] = longitude.apply(candidate).doubleValue();
+        }
+        LocationUtil.precomputeCosines(lats, count, cosLats);
+        
+        int found = filterWithinRadius(centerLat.doubleValue(), centerLon.doubleValue(), radiusKm,
+                lats, lons, cosLats, count, indexes);
+        List<T> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            result.add(candidates.get(indexes[i]));
+        }
+        return result;
     }
     
     public Map<String, Object> getNearbyPlaces(BigDecimal latitude, BigDecimal longitude, 
@@ -124,9 +200,9 @@ public class LocationService {
         
         try {
             String url = String.format(
-                "https://maps.googleapis.com/maps/api/place/nearbysearch/json?" +
+                "%s/place/nearbysearch/json?" +
                 "location=%s,%s&radius=%d&type=%s&key=%s",
-                latitude, longitude, radius, placeType, googleMapsApiKey
+                mapsBaseUrl, latitude, longitude, radius, placeType, googleMapsApiKey
             );
             
             @SuppressWarnings("unchecked")
@@ -0,0 +1,260 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Notification;
+import com.example.backend.entity.NotificationReadState;
+import com.example.backend.repository.NotificationReadStateRepository;
+import com.example.backend.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which notifications a user has read, according to {@code app.notifications.inbox-mode}.
+ * <ul>
+ *   <li>{@code flag}: the {@code is_read} column of each notification. Mark-all-as-read
+ *   rewrites every unread row of the user.</li>
+ *   <li>{@code watermark}: a per-user {@link NotificationReadState}. Mark-all-as-read moves the
+ *   watermark to the newest notification, a single-row write, and marking one notification read
+ *   inserts one small row instead of updating the notification. Reads directly after the
+ *   watermark move it forward, so the individually read ids are only those above the oldest
+ *   unread notification, and past {@code app.notifications.watermark.max-read-ids} they are
+ *   written to {@code is_read} instead.</li>
+ * </ul>
+ * Mark-all-as-read should be given the newest notification the client has actually shown.
+ * Inbox order comes from the application-side {@code createdAt} and a pooled sequence id, not
+ * from commit order, so a notification committed a moment later can still sort below "the newest
+ * one now"; stopping at what the client saw keeps such a row from being marked read unseen.
+ * In both modes a notification with {@code is_read} set counts as read, so switching to watermark
+ * mode keeps existing read state and the retention job's expiry still applies.
+ */
+@Component
+public class NotificationReadTracker {
+    
+    static final String FLAG_MODE = "flag";
+    static final String WATERMARK_MODE = "watermark";
+    
+    // Before every notification, for users who have never marked all as read
+    private static final LocalDateTime NO_WATERMARK_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final ReadView FLAGS_ONLY = new ReadView(NO_WATERMARK_AT, 0L, Set.of());
+    // A row committed a moment late can sort just below newer ones, so the watermark only moves
+    // over reads of notifications at least this old
+    private static final Duration SETTLE_TIME = Duration.ofMinutes(1);
+    
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadStateRepository readStateRepository;
+    private final boolean watermarkMode;
+    private final int maxReadIds;
+    
+    public NotificationReadTracker(NotificationRepository notificationRepository,
+                                   NotificationReadStateRepository readStateRepository,
+                                   @Value("${app.notifications.inbox-mode:flag}") String inboxMode,
+                                   @Value("${app.notifications.watermark.max-read-ids:200}") int maxReadIds) {
+        this.notificationRepository = notificationRepository;
+        this.readStateRepository = readStateRepository;
+        this.maxReadIds = maxReadIds;
+        
+        if (!FLAG_MODE.equalsIgnoreCase(inboxMode) && !WATERMARK_MODE.equalsIgnoreCase(inboxMode)) {
+            throw new IllegalArgumentException("Unknown app.notifications.inbox-mode: " + inboxMode);
+        }
+        this.watermarkMode = WATERMARK_MODE.equalsIgnoreCase(inboxMode);
+    }
+    
+    public long countUnread(Long userId) {
+        if (!watermarkMode) {
+            return notificationRepository.countByRecipientIdAndIsReadFalse(userId);
+        }
+        
+        NotificationReadState state = stateOf(userId);
+        return notificationRepository.countUnreadAfterWatermark(userId, state.getLastReadAt(), state.getLastReadId());
+    }
+    
+    /**
+     * Newest-first unread notifications, strictly after ({@code createdAt}, {@code id}) in inbox
+     * order, or from the top when {@code createdAt} is null
+     */
+    public List<Notification> findUnreadPage(Long userId, LocalDateTime createdAt, Long id, Limit limit) {
+        if (!watermarkMode) {
+            return createdAt == null
+                    ? notificationRepository.findFirstUnreadPageByUserId(userId, limit)
+                    : notificationRepository.findUnreadPageByUserIdBefore(userId, createdAt, id, limit);
+        }
+        
+        NotificationReadState state = stateOf(userId);
+        return createdAt == null
+                ? notificationRepository.findFirstUnreadPageAfterWatermark(
+                    userId, state.getLastReadAt(), state.getLastReadId(), limit)
+                : notificationRepository.findUnreadPageAfterWatermarkBefore(
+                    userId, state.getLastReadAt(), state.getLastReadId(), createdAt, id, limit);
+    }
+    
+    public ReadView readView(Long userId) {
+        if (!watermarkMode) {
+            return FLAGS_ONLY;
+        }
+        
+        NotificationReadState state = stateOf(userId);
+        return new ReadView(state.getLastReadAt(), state.getLastReadId(), Set.copyOf(state.getReadIds()));
+    }
+    
+    /**
+     * @return false if the notification was already read
+     */
+    public boolean markRead(Notification notification) {
+        if (!watermarkMode) {
+            if (FLAGS_ONLY.isRead(notification)) {
+                return false;
+            }
+            notification.setIsRead(true);
+            notificationRepository.save(notification);
+            return true;
+        }
+        
+        NotificationReadState state = stateOf(notification.getRecipient().getId());
+        if (viewOf(state).isRead(notification)) {
+            return false;
+        }
+        
+        state.getReadIds().add(notification.getId());
+        advanceOverReads(state);
+        if (state.getReadIds().size() > maxReadIds) {
+            // Keeps the NOT IN of every unread query small, at the cost of one batched row update
+            notificationRepository.markAsReadByIdIn(state.getReadIds());
+            state.getReadIds().clear();
+        }
+        state.setUpdatedAt(LocalDateTime.now());
+        readStateRepository.save(state);
+        return true;
+    }
+    
+    /**
+     * Drop a deleted notification from its recipient's individually read ids
+     */
+    public void forget(Notification notification) {
+        if (!watermarkMode) {
+            return;
+        }
+        
+        readStateRepository.findById(notification.getRecipient().getId())
+                .filter(state -> state.getReadIds().remove(notification.getId()))
+                .ifPresent(readStateRepository::save);
+    }
+    
+    /**
+     * Mark the user's notifications read up to and including {@code upTo} in inbox order, or all
+     * of them when {@code upTo} is null
+     */
+    public void markAllRead(Long userId, Notification upTo) {
+        if (!watermarkMode) {
+            if (upTo == null) {
+                notificationRepository.markAllAsReadForUser(userId);
+            } else {
+                notificationRepository.markAsReadForUserUpTo(userId, upTo.getCreatedAt(), upTo.getId());
+            }
+            return;
+        }
+        
+        Notification top = upTo;
+        if (top == null) {
+            List<Notification> newest = notificationRepository.findFirstPageByUserId(userId, Limit.of(1));
+            if (newest.isEmpty()) {
+                return;
+            }
+            top = newest.get(0);
+        }
+        
+        NotificationReadState state = stateOf(userId);
+        // Never move the watermark backwards
+        if (!new ReadView(state.getLastReadAt(), state.getLastReadId(), Set.of())
+                .isBeforeWatermark(top.getCreatedAt(), top.getId())) {
+            state.setLastReadAt(top.getCreatedAt());
+            state.setLastReadId(top.getId());
+        }
+        
+        if (upTo == null) {
+            // Everything read individually is at or below the new watermark
+            state.getReadIds().clear();
+        } else {
+            pruneReadIds(state);
+            advanceOverReads(state);
+        }
+        state.setUpdatedAt(LocalDateTime.now());
+        readStateRepository.save(state);
+    }
+    
+    /**
+     * Keep only the individual reads above the watermark of notifications that still exist
+     */
+    private void pruneReadIds(NotificationReadState state) {
+        if (state.getReadIds().isEmpty()) {
+            return;
+        }
+        
+        ReadView watermark = new ReadView(state.getLastReadAt(), state.getLastReadId(), Set.of());
+        Set<Long> stillAbove = notificationRepository.findAllById(state.getReadIds()).stream()
+                .filter(notification -> !watermark.isBeforeWatermark(notification.getCreatedAt(), notification.getId()))
+                .map(Notification::getId)
+                .collect(Collectors.toSet());
+        state.getReadIds().retainAll(stillAbove);
+    }
+    
+    /**
+     * Move the watermark over the settled notifications directly after it that are already read,
+     * dropping them from the individually read ids
+     */
+    private void advanceOverReads(NotificationReadState state) {
+        if (state.getReadIds().isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime settled = LocalDateTime.now().minus(SETTLE_TIME);
+        // Enough rows to pass every individual read; flagged reads beyond them wait for the next call
+        List<Notification> next = notificationRepository.findOldestAfterWatermark(state.getUserId(),
+                state.getLastReadAt(), state.getLastReadId(), Limit.of(state.getReadIds().size() + 1));
+        ReadView view = viewOf(state);
+        for (Notification notification : next) {
+            if (!notification.getCreatedAt().isBefore(settled) || !view.isRead(notification)) {
+                break;
+            }
+            state.setLastReadAt(notification.getCreatedAt());
+            state.setLastReadId(notification.getId());
+            state.getReadIds().remove(notification.getId());
+        }
+    }
+    
+    // Reads the live set; only for use while the state is being updated
+    private static ReadView viewOf(NotificationReadState state) {
+        return new ReadView(state.getLastReadAt(), state.getLastReadId(), state.getReadIds());
+    }
+    
+    private NotificationReadState stateOf(Long userId) {
+        return readStateRepository.findById(userId)
+                .orElseGet(() -> NotificationReadState.builder()
+                        .userId(userId)
+                        .lastReadAt(NO_WATERMARK_AT)
+                        .lastReadId(0L)
+                        .build());
+    }
+    
+    /**
+     * A snapshot of one user's read position
+     */
+    public record ReadView(LocalDateTime lastReadAt, Long lastReadId, Set<Long> readIds) {
+        
+        public boolean isRead(Notification notification) {
+            return Boolean.TRUE.equals(notification.getIsRead())
+                    || isBeforeWatermark(notification.getCreatedAt(), notification.getId())
+                    || readIds.contains(notification.getId());
+        }
+        
+        boolean isBeforeWatermark(LocalDateTime createdAt, Long id) {
+            int byTime = createdAt.compareTo(lastReadAt);
+            return byTime < 0 || (byTime == 0 && id <= lastReadId);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.NotificationArchiveRepository;
+import com.example.backend.repository.NotificationReadStateRepository;
+import com.example.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the notifications table small: marks expired unread notifications as read, then deletes
+ * read notifications past their retention period, optionally copying them to
+ * {@code notifications_archive} first.
+ * <p>
+ * Work is done in chunks of ids, each in its own short transaction, with a pause between chunks
+ * so a large backlog never holds locks or saturates the database for long.
+ */
+@Component
+@Slf4j
+public class NotificationRetentionJob {
+    
+    private final NotificationRepository notificationRepository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final NotificationReadStateRepository readStateRepository;
+    private final UnreadCountCache unreadCountCache;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Timer runTimer;
+    private final Counter expired;
+    private final Counter archived;
+    private final Counter deleted;
+    
+    @Value("${app.notifications.retention.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.notifications.retention.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.notifications.retention.chunk-pause:200ms}")
+    private Duration chunkPause;
+    
+    @Value("${app.notifications.retention.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+    
+    @Value("${app.notifications.retention.read-ttl:90d}")
+    private Duration readTtl;
+    
+    @Value("${app.notifications.retention.archive:false}")
+    private boolean archive;
+    
+    public NotificationRetentionJob(NotificationRepository notificationRepository,
+                                    NotificationArchiveRepository archiveRepository,
+                                    NotificationReadStateRepository readStateRepository,
+                                    UnreadCountCache unreadCountCache,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.archiveRepository = archiveRepository;
+        this.readStateRepository = readStateRepository;
+        this.unreadCountCache = unreadCountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        this.runTimer = meterRegistry.timer("notifications.retention.run");
+        this.expired = meterRegistry.counter("notifications.retention.rows", "action", "expired");
+        this.archived = meterRegistry.counter("notifications.retention.rows", "action", "archived");
+        this.deleted = meterRegistry.counter("notifications.retention.rows", "action", "deleted");
+    }
+    
+    @Scheduled(fixedDelayString = "${app.notifications.retention.interval:3600000}",
+               initialDelayString = "${app.notifications.retention.initial-delay:60000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            runTimer.record(() -> {
+                int expiredRows = expireNotifications(LocalDateTime.now());
+                int deletedRows = purgeReadNotifications(LocalDateTime.now().minus(readTtl));
+                log.info("Notification retention expired {} and removed {} notifications", expiredRows, deletedRows);
+            });
+        } catch (Exception e) {
+            log.error("Notification retention failed: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Mark unread notifications whose expiry has passed as read
+     * @return number of notifications updated
+     */
+    public int expireNotifications(LocalDateTime now) {
+        return inChunks(() -> notificationRepository.findExpiredUnreadIds(now, Limit.of(chunkSize)), ids -> {
+            // Their recipients' cached counts are now too high; reload them on next read
+            unreadCountCache.invalidate(notificationRepository.findRecipientIdsByIdIn(ids));
+            int updated = notificationRepository.markAsReadByIdIn(ids);
+            expired.increment(updated);
+            return updated;
+        });
+    }
+    
+    /**
+     * Delete read notifications created before {@code cutoff}, archiving them first if enabled
+     * @return number of notifications deleted
+     */
+    public int purgeReadNotifications(LocalDateTime cutoff) {
+        return inChunks(() -> notificationRepository.findReadIdsCreatedBefore(cutoff, Limit.of(chunkSize)), ids -> {
+            if (archive) {
+                archived.increment(archiveRepository.archiveByIdIn(ids, LocalDateTime.now()));
+            }
+            readStateRepository.deleteReadIdsByNotificationIdIn(ids);
+            int removed = notificationRepository.deleteByIdIn(ids);
+            deleted.increment(removed);
+            return removed;
+        });
+    }
+    
+    private int inChunks(Supplier<List<Long>> nextChunk, Function<List<Long>, Integer> process) {
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer processed = transactionTemplate.execute(status -> {
+                List<Long> ids = nextChunk.get();
+                return ids.isEmpty() ? 0 : process.apply(ids);
+            });
+            total += processed;
+            
+            if (processed < chunkSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,22 +1,28 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.CursorPage;
 import com.example.backend.dto.NotificationDTO;
 import com.example.backend.entity.Notification;
+import com.example.backend.entity.OutboxEvent;
 import com.example.backend.entity.User;
+import com.example.backend.exception.BadRequestException;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.repository.NotificationRepository;
 import com.example.backend.repository.UserRepository;
-import com.example.backend.websocket.NotificationWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,8 +33,18 @@ public class NotificationService {
     
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
-    private JavaMailSender mailSender;
-    private NotificationWebSocketHandler webSocketHandler;
+    private final OutboxService outboxService;
+    private final UnreadCountCache unreadCountCache;
+    private final NotificationReadTracker readTracker;
+    
+    @Value("${app.notification.email.enabled:false}")
+    private boolean emailEnabled;
+    
+    @Value("${app.notifications.page-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.notifications.max-page-size:200}")
+    private int maxPageSize;
     
     public NotificationDTO sendNotification(Long userId, String title, String message, 
                                            String type, Long relatedId) {
@@ -50,13 +66,13 @@ public class NotificationService {
         
         Notification savedNotification = notificationRepository.save(notification);
         
-        // Send real-time notification via WebSocket
-        if (webSocketHandler != null) {
-            webSocketHandler.sendNotificationToUser(userId, convertToDTO(savedNotification));
-        }
+        // Real-time push via WebSocket, delivered by the outbox relay once this commits
+        outboxService.enqueue(OutboxEvent.EventType.NOTIFICATION, savedNotification.getId(),
+                convertToDTO(savedNotification));
+        unreadCountCache.adjust(userId, 1);
         
         // Send email notification if enabled
-        if (shouldSendEmail(type)) {
+        if (emailEnabled && shouldSendEmail(type)) {
             sendEmailNotification(recipient.getEmail(), title, message);
         }
         
@@ -65,82 +81,160 @@ public class NotificationService {
         return convertToDTO(savedNotification);
     }
     
-    @Async
-    public void sendEmailNotification(String email, String subject, String body) {
-        try {
-            if (mailSender != null) {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setTo(email);
-                message.setSubject(subject);
-                message.setText(body);
-                message.setFrom("noreply@sahaay.com");
-                
-                mailSender.send(message);
-                log.info("Email sent successfully to: {}", email);
+    /**
+     * Send the same notification to many users. Recipients are referenced by id only, and the
+     * notification rows and their outbox events are written as JDBC batches.
+     * @return number of notifications created
+     */
+    public int sendBulkNotification(Collection<Long> userIds, String title, String message,
+                                    String type, Long relatedId) {
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+        
+        Notification.NotificationType notificationType = Notification.NotificationType.valueOf(type);
+        Notification.Priority priority = determinePriority(type);
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            notifications.add(Notification.builder()
+                    .recipient(userRepository.getReferenceById(userId))
+                    .title(title)
+                    .message(message)
+                    .notificationType(notificationType)
+                    .relatedId(relatedId)
+                    .isRead(false)
+                    .priority(priority)
+                    .sentVia(Notification.SentVia.APP)
+                    .build());
+        }
+        
+        List<Notification> savedNotifications = notificationRepository.saveAll(notifications);
+        
+        List<NotificationDTO> pushes = savedNotifications.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        outboxService.enqueueAll(OutboxEvent.EventType.NOTIFICATION, pushes, NotificationDTO::getId);
+        unreadCountCache.increment(pushes.stream().map(NotificationDTO::getRecipientId).toList());
+        
+        if (emailEnabled && shouldSendEmail(type)) {
+            for (String email : userRepository.findEmailsByIdIn(userIds)) {
+                sendEmailNotification(email, title, message);
             }
-        } catch (Exception e) {
-            log.error("Failed to send email to {}: {}", email, e.getMessage());
         }
+        
+        log.info("Sent {} {} notifications for related ID: {}", savedNotifications.size(), type, relatedId);
+        
+        return savedNotifications.size();
+    }
+    
+    /**
+     * Queue an email; it is sent by the outbox relay after the current transaction commits
+     */
+    public void sendEmailNotification(String email, String subject, String body) {
+        outboxService.enqueue(OutboxEvent.EventType.EMAIL, null,
+                Map.of("to", email, "subject", subject, "body", body));
     }
     
-    @Async
+    /**
+     * Queue an SMS; it is sent by the outbox relay after the current transaction commits
+     */
     public void sendSMSNotification(String phone, String message) {
-        // Implement Twilio SMS integration here
-        log.info("SMS notification would be sent to: {}", phone);
+        outboxService.enqueue(OutboxEvent.EventType.SMS, null, Map.of("phone", phone, "message", message));
     }
     
+    /**
+     * Newest-first page of a user's notifications, starting after {@code cursor} (null for the first page)
+     */
     @Transactional(readOnly = true)
-    public List<NotificationDTO> getUserNotifications(Long userId) {
-        List<Notification> notifications = notificationRepository
-                .findAllByUserIdOrderByCreatedAtDesc(userId);
+    public CursorPage<NotificationDTO> getUserNotifications(Long userId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
         
-        return notifications.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<Notification> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = notificationRepository.findFirstPageByUserId(userId, limit);
+        } else {
+            KeysetPosition position = decodeCursor(cursor);
+            notifications = notificationRepository.findPageByUserIdBefore(
+                userId, position.createdAt(), position.id(), limit);
+        }
+        
+        return toPage(notifications, pageSize, readTracker.readView(userId));
     }
     
+    /**
+     * Newest-first page of a user's unread notifications, starting after {@code cursor} (null for the first page)
+     */
     @Transactional(readOnly = true)
-    public List<NotificationDTO> getUnreadNotifications(Long userId) {
-        List<Notification> notifications = notificationRepository
-                .findUnreadNotificationsByUserId(userId);
+    public CursorPage<NotificationDTO> getUnreadNotifications(Long userId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
         
-        return notifications.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<Notification> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = readTracker.findUnreadPage(userId, null, null, limit);
+        } else {
+            KeysetPosition position = decodeCursor(cursor);
+            notifications = readTracker.findUnreadPage(userId, position.createdAt(), position.id(), limit);
+        }
+        
+        return toPage(notifications, pageSize, readTracker.readView(userId));
+    }
+    
+    /**
+     * Served from {@link UnreadCountCache}; only the first call for a user runs a COUNT query
+     */
+    @Transactional(readOnly = true)
+    public long getUnreadCount(Long userId) {
+        return unreadCountCache.get(userId);
     }
     
     public void markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
         
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+        if (!readTracker.markRead(notification)) {
+            return;
+        }
+        unreadCountCache.adjust(notification.getRecipient().getId(), -1);
         
         log.info("Notification {} marked as read", notificationId);
     }
     
-    public void markAllAsRead(Long userId) {
-        notificationRepository.markAllAsReadForUser(userId);
-        log.info("All notifications marked as read for user: {}", userId);
+    /**
+     * @param upToId the newest notification the client has shown, or null for everything
+     */
+    public void markAllAsRead(Long userId, Long upToId) {
+        if (upToId == null) {
+            readTracker.markAllRead(userId, null);
+            unreadCountCache.reset(userId);
+            log.info("All notifications marked as read for user: {}", userId);
+            return;
+        }
+        
+        Notification upTo = notificationRepository.findById(upToId)
+                .filter(notification -> notification.getRecipient().getId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+        readTracker.markAllRead(userId, upTo);
+        // Anything that arrived after the client's view is still unread
+        unreadCountCache.invalidate(List.of(userId));
+        log.info("Notifications up to {} marked as read for user: {}", upToId, userId);
     }
     
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            Long recipientId = notification.getRecipient().getId();
+            boolean wasUnread = !readTracker.readView(recipientId).isRead(notification);
+            readTracker.forget(notification);
+            notificationRepository.delete(notification);
+            if (wasUnread) {
+                unreadCountCache.adjust(recipientId, -1);
+            }
+        });
         log.info("Notification {} deleted", notificationId);
     }
     
-    public void cleanupExpiredNotifications() {
-        List<Notification> expiredNotifications = notificationRepository
-                .findExpiredUnreadNotifications(LocalDateTime.now());
-        
-        for (Notification notification : expiredNotifications) {
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
-        }
-        
-        log.info("Cleaned up {} expired notifications", expiredNotifications.size());
-    }
-    
     private Notification.Priority determinePriority(String type) {
         return switch (type) {
             case "SOS_ALERT" -> Notification.Priority.CRITICAL;
@@ -150,11 +244,58 @@ public class NotificationService {
         };
     }
     
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+        return size;
+    }
+    
+    private CursorPage<NotificationDTO> toPage(List<Notification> notifications, int pageSize,
+                                               NotificationReadTracker.ReadView readView) {
+        boolean hasMore = notifications.size() > pageSize;
+        List<Notification> page = hasMore ? notifications.subList(0, pageSize) : notifications;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        
+        List<NotificationDTO> items = page.stream()
+                .map(notification -> {
+                    NotificationDTO dto = convertToDTO(notification);
+                    dto.setIsRead(readView.isRead(notification));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
+    }
+    
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        // Columns hold microseconds, so a nanosecond cursor could sort after its own row
+        return createdAt.truncatedTo(ChronoUnit.MICROS) + "_" + id;
+    }
+    
+    private KeysetPosition decodeCursor(String cursor) {
+        int separator = cursor.lastIndexOf('_');
+        try {
+            return new KeysetPosition(
+                LocalDateTime.parse(cursor.substring(0, separator)),
+                Long.parseLong(cursor.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+    
     private boolean shouldSendEmail(String type) {
         return type.equals("SOS_ALERT") || type.equals("BLOOD_REQUEST");
     }
     
-    private NotificationDTO convertToDTO(Notification notification) {
+    NotificationDTO convertToDTO(Notification notification) {
         return NotificationDTO.builder()
                 .id(notification.getId())
                 .recipientId(notification.getRecipient().getId())
@@ -171,4 +312,7 @@ public class NotificationService {
                 .createdAt(notification.getCreatedAt())
                 .build();
     }
-}
\ No newline at end of file
+    
+    private record KeysetPosition(LocalDateTime createdAt, Long id) {
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.NotificationDTO;
+import com.example.backend.dto.SOSAlertDTO;
+import com.example.backend.entity.OutboxEvent;
+import com.example.backend.repository.OutboxEventRepository;
+import com.example.backend.util.DatabasePlatform;
+import com.example.backend.websocket.NotificationWebSocketHandler;
+import com.example.backend.websocket.SOSWebSocketHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers outbox events in batches. On PostgreSQL rows are claimed with FOR UPDATE SKIP LOCKED,
+ * so several instances can relay side by side; delivery is at-least-once.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final DatabasePlatform databasePlatform;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SOSWebSocketHandler sosWebSocketHandler;
+    private final NotificationWebSocketHandler notificationWebSocketHandler;
+    private final ObjectProvider<JavaMailSender> mailSender;
+    
+    private final Timer lag;
+    private final DistributionSummary batchSizes;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+    
+    @Value("${app.outbox.relay.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.outbox.relay.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.relay.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${app.outbox.relay.retry-backoff:10s}")
+    private Duration retryBackoff;
+    
+    @Value("${app.outbox.retention:1d}")
+    private Duration retention;
+    
+    @Value("${app.notification.email.enabled:false}")
+    private boolean emailEnabled;
+    
+    @Value("${app.notification.sms.enabled:false}")
+    private boolean smsEnabled;
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       DatabasePlatform databasePlatform,
+                       PlatformTransactionManager transactionManager,
+                       ObjectMapper objectMapper,
+                       SOSWebSocketHandler sosWebSocketHandler,
+                       NotificationWebSocketHandler notificationWebSocketHandler,
+                       ObjectProvider<JavaMailSender> mailSender,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.databasePlatform = databasePlatform;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.sosWebSocketHandler = sosWebSocketHandler;
+        this.notificationWebSocketHandler = notificationWebSocketHandler;
+        this.mailSender = mailSender;
+        
+        this.lag = meterRegistry.timer("outbox.relay.lag");
+        this.batchSizes = meterRegistry.summary("outbox.relay.batch.size");
+        this.delivered = meterRegistry.counter("outbox.events", "outcome", "delivered");
+        this.retried = meterRegistry.counter("outbox.events", "outcome", "retried");
+        this.failed = meterRegistry.counter("outbox.events", "outcome", "failed");
+    }
+    
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval:3600000}")
+    public void deleteDeliveredEvents() {
+        if (!enabled) {
+            return;
+        }
+        
+        Integer deleted = transactionTemplate.execute(status ->
+            outboxEventRepository.deleteDeliveredBefore(LocalDateTime.now().minus(retention)));
+        log.info("Deleted {} delivered outbox events", deleted);
+    }
+    
+    /**
+     * Claim and deliver one batch of due events
+     * @return number of events claimed
+     */
+    public int relayBatch() {
+        Integer claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = databasePlatform.isPostgreSQL()
+                    ? outboxEventRepository.claimPendingSkipLocked(now, batchSize)
+                    : outboxEventRepository.claimPending(now, PageRequest.of(0, batchSize));
+            
+            for (OutboxEvent event : events) {
+                deliver(event, now);
+            }
+            
+            batchSizes.record(events.size());
+            return events.size();
+        });
+        return claimed != null ? claimed : 0;
+    }
+    
+    private void deliver(OutboxEvent event, LocalDateTime now) {
+        try {
+            dispatch(event);
+            event.setStatus(OutboxEvent.Status.DELIVERED);
+            event.setProcessedAt(now);
+            lag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            delivered.increment();
+        } catch (Exception e) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(e.getMessage());
+            
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OutboxEvent.Status.FAILED);
+                event.setProcessedAt(now);
+                failed.increment();
+                log.error("Giving up on outbox event {} ({}) after {} attempts: {}",
+                        event.getId(), event.getEventType(), event.getAttempts(), e.getMessage());
+            } else {
+                event.setAvailableAt(now.plus(retryBackoff.multipliedBy(event.getAttempts())));
+                retried.increment();
+                log.warn("Outbox event {} ({}) failed, will retry: {}",
+                        event.getId(), event.getEventType(), e.getMessage());
+            }
+        }
+    }
+    
+    private void dispatch(OutboxEvent event) {
+        Map<String, Object> payload = event.getPayload();
+        switch (event.getEventType()) {
+            case SOS_ALERT -> sosWebSocketHandler.broadcastSOSAlert(
+                objectMapper.convertValue(payload, SOSAlertDTO.class));
+            case NOTIFICATION -> {
+                NotificationDTO notification = objectMapper.convertValue(payload, NotificationDTO.class);
+                notificationWebSocketHandler.sendNotificationToUser(notification.getRecipientId(), notification);
+            }
+            case EMAIL -> sendEmail(payload);
+            case SMS -> sendSms(payload);
+        }
+    }
+    
+    private void sendEmail(Map<String, Object> payload) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (!emailEnabled || sender == null) {
+            log.debug("Email disabled, dropping email to {}", payload.get("to"));
+            return;
+        }
+        
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo((String) payload.get("to"));
+        message.setSubject((String) payload.get("subject"));
+        message.setText((String) payload.get("body"));
+        message.setFrom("noreply@sahaay.com");
+        
+        sender.send(message);
+        log.info("Email sent successfully to: {}", payload.get("to"));
+    }
+    
+    private void sendSms(Map<String, Object> payload) {
+        if (!smsEnabled) {
+            log.debug("SMS disabled, dropping SMS to {}", payload.get("phone"));
+            return;
+        }
+        
+        // Implement Twilio SMS integration here
+        log.info("SMS notification would be sent to: {}", payload.get("phone"));
+    }
+}
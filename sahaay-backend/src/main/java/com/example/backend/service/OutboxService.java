@@ -0,0 +1,48 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.OutboxEvent;
+import com.example.backend.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Records outbound events alongside the domain change that triggers them. Must be called
+ * inside that change's transaction, so an event exists if and only if the change committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+    
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    public void enqueue(OutboxEvent.EventType eventType, Long aggregateId, Object payload) {
+        outboxEventRepository.save(toEvent(eventType, aggregateId, payload));
+    }
+    
+    public <T> void enqueueAll(OutboxEvent.EventType eventType, Collection<T> payloads,
+                               Function<T, Long> aggregateIdOf) {
+        outboxEventRepository.saveAll(payloads.stream()
+                .map(payload -> toEvent(eventType, aggregateIdOf.apply(payload), payload))
+                .toList());
+    }
+    
+    private OutboxEvent toEvent(OutboxEvent.EventType eventType, Long aggregateId, Object payload) {
+        return OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateId(aggregateId)
+                .payload(objectMapper.convertValue(payload, PAYLOAD_TYPE))
+                .build();
+    }
+}
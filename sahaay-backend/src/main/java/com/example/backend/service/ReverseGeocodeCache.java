@@ -0,0 +1,216 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of reverse-geocoded addresses keyed by coordinates rounded to a fixed
+ * number of decimal places (4 places is roughly an 11m cell).
+ * <p>
+ * Concurrent misses for the same cell share a single lookup, and the cache can be
+ * snapshotted to disk on shutdown so restarts begin warm.
+ */
+@Component
+@Slf4j
+public class ReverseGeocodeCache {
+    
+    private final int precision;
+    private final double scale;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final String snapshotFile;
+    
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter evictions;
+    
+    public ReverseGeocodeCache(MeterRegistry meterRegistry,
+                               @Value("${app.location.geocoding.cache.precision:4}") int precision,
+                               @Value("${app.location.geocoding.cache.max-entries:10000}") int maxEntries,
+                               @Value("${app.location.geocoding.cache.ttl:7d}") Duration ttl,
+                               @Value("${app.location.geocoding.cache.snapshot-file:}") String snapshotFile) {
+        this.precision = precision;
+        this.scale = Math.pow(10, precision);
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.snapshotFile = snapshotFile;
+        
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ReverseGeocodeCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        
+        this.hits = meterRegistry.counter("geocode.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("geocode.cache.requests", "result", "miss");
+        this.coalesced = meterRegistry.counter("geocode.cache.requests", "result", "coalesced");
+        this.evictions = meterRegistry.counter("geocode.cache.evictions");
+        meterRegistry.gauge("geocode.cache.size", this, ReverseGeocodeCache::size);
+    }
+    
+    /**
+     * Cached address for the cell containing the point, calling the loader on a miss.
+     * A null result from the loader is treated as a failed lookup and not cached.
+     */
+    public String getOrLoad(double latitude, double longitude, Supplier<String> loader) {
+        String key = key(latitude, longitude);
+        
+        String cached = getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            // Another request is already resolving this cell
+            coalesced.increment();
+            return existing.join();
+        }
+        
+        String address = null;
+        try {
+            // The previous loader may have finished between the first check and putIfAbsent
+            address = getIfPresent(key);
+            if (address != null) {
+                hits.increment();
+                return address;
+            }
+            misses.increment();
+            address = loader.get();
+            if (address != null) {
+                put(key, address, System.currentTimeMillis() + ttlMillis);
+            }
+        } finally {
+            inFlight.remove(key);
+            pending.complete(address);
+        }
+        return address;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    String key(double latitude, double longitude) {
+        return Math.round(latitude * scale) + ":" + Math.round(longitude * scale);
+    }
+    
+    private synchronized String getIfPresent(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.address;
+    }
+    
+    private synchronized void put(String key, String address, long expiresAt) {
+        entries.put(key, new Entry(address, expiresAt));
+    }
+    
+    @PostConstruct
+    public void loadSnapshot() {
+        if (snapshotFile == null || snapshotFile.isBlank()) {
+            return;
+        }
+        
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (!String.valueOf(precision).equals(header)) {
+                // Keys from a different precision would never match
+                log.warn("Ignoring geocode cache snapshot written with precision {}", header);
+                return;
+            }
+            
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length == 3 && Long.parseLong(parts[1]) > now) {
+                    put(parts[0], parts[2], Long.parseLong(parts[1]));
+                    loaded++;
+                }
+            }
+            log.info("Loaded {} reverse-geocode entries from {}", loaded, path);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load geocode cache snapshot {}: {}", path, e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void saveSnapshot() {
+        if (snapshotFile == null || snapshotFile.isBlank()) {
+            return;
+        }
+        
+        List<String> lines = new ArrayList<>();
+        synchronized (this) {
+            entries.forEach((key, entry) -> lines.add(
+                key + "\t" + entry.expiresAt + "\t" + entry.address.replaceAll("[\t\r\n]", " ")));
+        }
+        
+        Path path = Paths.get(snapshotFile);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "geocode-cache", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(String.valueOf(precision));
+                writer.newLine();
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved {} reverse-geocode entries to {}", lines.size(), path);
+        } catch (IOException e) {
+            log.error("Failed to save geocode cache snapshot {}: {}", path, e.getMessage());
+        }
+    }
+    
+    private record Entry(String address, long expiresAt) {
+    }
+}
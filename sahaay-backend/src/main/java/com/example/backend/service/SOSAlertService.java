@@ -2,14 +2,18 @@ package com.example.backend.service;
 
 import com.example.backend.dto.SOSAlertDTO;
 // Ensure that the SOSAlertDTO class exists at com.example.backend.dto.SOSAlertDTO
+import com.example.backend.entity.OutboxEvent;
 import com.example.backend.entity.SOSAlert;
 import com.example.backend.entity.User;
+import com.example.backend.exception.BadRequestException;
+import com.example.backend.exception.ClaimConflictException;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.repository.SOSAlertRepository;
 import com.example.backend.repository.UserRepository;
-import com.example.backend.websocket.SOSWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,7 +34,20 @@ public class SOSAlertService {
     private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final LocationService locationService;
-    private SOSWebSocketHandler webSocketHandler;
+    private final ActiveSOSAlertIndex activeAlertIndex;
+    private final SOSFanoutPipeline fanoutPipeline;
+    private final OutboxService outboxService;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadActiveAlertIndex() {
+        try {
+            activeAlertIndex.load(this::getActiveAlerts);
+        } catch (Exception e) {
+            // Nearby lookups fall back to the database until the index is loaded
+            log.error("Failed to load active SOS alert index: {}", e.getMessage());
+        }
+    }
     
     public SOSAlertDTO createSOSAlert(SOSAlertDTO alertDTO) {
         log.info("Creating SOS alert for user: {}", alertDTO.getUserId());
@@ -62,35 +79,48 @@ public class SOSAlertService {
         }
         
         SOSAlert savedAlert = sosAlertRepository.save(sosAlert);
+        SOSAlertDTO savedDTO = convertToDTO(savedAlert);
+        activeAlertIndex.add(savedDTO);
         
-        // Send notifications to nearby users and emergency contacts
-        notifyNearbyUsers(savedAlert);
-        notifyEmergencyContacts(savedAlert);
+        // Notify nearby users and emergency contacts in the background once the alert is committed
+        fanoutPipeline.submit(savedDTO);
         
-        // Broadcast via WebSocket for real-time updates
-        if (webSocketHandler != null) {
-            webSocketHandler.broadcastSOSAlert(convertToDTO(savedAlert));
-        }
+        // Broadcast via WebSocket for real-time updates, delivered by the outbox relay once this commits
+        outboxService.enqueue(OutboxEvent.EventType.SOS_ALERT, savedAlert.getId(), savedDTO);
         
         log.info("SOS alert created successfully with ID: {}", savedAlert.getId());
         
-        return convertToDTO(savedAlert);
+        return savedDTO;
     }
     
+    /**
+     * Claim an active alert for a responder. The claim is one conditional update, so when several
+     * people respond at once exactly one wins and the others get a {@link ClaimConflictException}
+     * naming the winner; a repeated claim by the winner just returns the alert.
+     */
     public SOSAlertDTO respondToAlert(Long alertId, Long responderId) {
         log.info("User {} responding to SOS alert {}", responderId, alertId);
         
-        SOSAlert alert = sosAlertRepository.findById(alertId)
-                .orElseThrow(() -> new ResourceNotFoundException("SOS Alert not found"));
-        
         User responder = userRepository.findById(responderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Responder not found"));
         
-        alert.setStatus(SOSAlert.Status.RESPONDED);
-        alert.setRespondedBy(responder);
-        alert.setResponseTime(LocalDateTime.now());
+        boolean claimed = sosAlertRepository.claim(alertId, responder, LocalDateTime.now()) == 1;
+        SOSAlert alert = sosAlertRepository.findById(alertId)
+                .orElseThrow(() -> new ResourceNotFoundException("SOS Alert not found"));
         
-        SOSAlert updatedAlert = sosAlertRepository.save(alert);
+        if (!claimed) {
+            User winner = alert.getRespondedBy();
+            if (winner == null) {
+                throw new BadRequestException("SOS alert is no longer active");
+            }
+            if (!winner.getId().equals(responderId)) {
+                throw new ClaimConflictException("SOS alert has already been responded to",
+                        winner.getId(), winner.getFullName(), alert.getResponseTime());
+            }
+            return convertToDTO(alert);
+        }
+        
+        activeAlertIndex.remove(alertId);
         
         // Notify the person who raised the alert
         notificationService.sendNotification(
@@ -101,7 +131,7 @@ public class SOSAlertService {
             alertId
         );
         
-        return convertToDTO(updatedAlert);
+        return convertToDTO(alert);
     }
     
     public SOSAlertDTO resolveAlert(Long alertId) {
@@ -114,6 +144,7 @@ public class SOSAlertService {
         alert.setResolvedAt(LocalDateTime.now());
         
         SOSAlert updatedAlert = sosAlertRepository.save(alert);
+        activeAlertIndex.remove(alertId);
         
         return convertToDTO(updatedAlert);
     }
@@ -128,7 +159,13 @@ public class SOSAlertService {
     
     @Transactional(readOnly = true)
     public List<SOSAlertDTO> getAlertsNearLocation(BigDecimal latitude, BigDecimal longitude, double radiusKm) {
-        List<SOSAlert> alerts = sosAlertRepository.findActiveAlertsWithinRadius(latitude, longitude, radiusKm);
+        if (activeAlertIndex.isWarm()) {
+            return activeAlertIndex.findWithinRadius(latitude, longitude, radiusKm);
+        }
+        
+        List<SOSAlert> alerts = locationService.filterWithinRadius(latitude, longitude, radiusKm,
+                sosAlertRepository.findActiveAlertCandidates(latitude, longitude, radiusKm),
+                SOSAlert::getLatitude, SOSAlert::getLongitude);
         return alerts.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -142,30 +179,6 @@ public class SOSAlertService {
                 .collect(Collectors.toList());
     }
     
-    private void notifyNearbyUsers(SOSAlert alert) {
-        // Find users within 5km radius
-        List<User> nearbyUsers = userRepository.findUsersWithinRadius(
-            alert.getLatitude(), alert.getLongitude(), 5.0);
-        
-        for (User user : nearbyUsers) {
-            if (!user.getId().equals(alert.getUser().getId())) {
-                notificationService.sendNotification(
-                    user.getId(),
-                    "Emergency SOS Alert Nearby",
-                    "An SOS alert has been raised near your location",
-                    "SOS_ALERT",
-                    alert.getId()
-                );
-            }
-        }
-    }
-    
-    private void notifyEmergencyContacts(SOSAlert alert) {
-        // This would integrate with EmergencyContactService
-        // Send SMS/Email to emergency contacts
-        log.info("Notifying emergency contacts for user: {}", alert.getUser().getId());
-    }
-    
     private Map<String, Object> analyzeAlert(String message) {
         Map<String, Object> analysis = new HashMap<>();
         // Placeholder for AI analysis
@@ -175,7 +188,7 @@ public class SOSAlertService {
         return analysis;
     }
     
-    private SOSAlertDTO convertToDTO(SOSAlert alert) {
+    SOSAlertDTO convertToDTO(SOSAlert alert) {
         return SOSAlertDTO.builder()
                 .id(alert.getId())
                 .userId(alert.getUser().getId())
@@ -0,0 +1,288 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SOSAlertDTO;
+import com.example.backend.entity.SOSAlert;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.util.TransactionUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Notifies people around a new SOS alert on a bounded pool of worker threads, so creating
+ * the alert only pays for its own insert.
+ * <p>
+ * Each priority level has its own queue and workers always drain the most urgent non-empty
+ * one first. A job that fails is retried with linear backoff, resuming at the stage that failed.
+ * When a queue is full the job runs on the submitting thread rather than being dropped, in a
+ * transaction of its own since the submitter's has already committed by then.
+ */
+@Component
+@Slf4j
+public class SOSFanoutPipeline {
+    
+    static final String STAGE_LOCATE = "locate";
+    static final String STAGE_NOTIFY = "notify";
+    static final String STAGE_CONTACTS = "contacts";
+    
+    private static final SOSAlert.PriorityLevel[] LANES_BY_URGENCY = {
+        SOSAlert.PriorityLevel.CRITICAL, SOSAlert.PriorityLevel.HIGH,
+        SOSAlert.PriorityLevel.MEDIUM, SOSAlert.PriorityLevel.LOW
+    };
+    
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate inlineTransaction;
+    
+    private final int workerCount;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final double notifyRadiusKm;
+    
+    private final Map<SOSAlert.PriorityLevel, BlockingQueue<FanoutJob>> lanes =
+            new EnumMap<>(SOSAlert.PriorityLevel.class);
+    private final Semaphore queuedJobs = new Semaphore(0);
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter ranInline;
+    
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+    
+    public SOSFanoutPipeline(UserRepository userRepository,
+                             NotificationService notificationService,
+                             MeterRegistry meterRegistry,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.sos.fanout.workers:4}") int workerCount,
+                             @Value("${app.sos.fanout.queue-capacity:1000}") int queueCapacity,
+                             @Value("${app.sos.fanout.max-attempts:3}") int maxAttempts,
+                             @Value("${app.sos.fanout.retry-backoff:2s}") Duration retryBackoff,
+                             @Value("${app.sos.fanout.notify-radius-km:5.0}") double notifyRadiusKm) {
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.meterRegistry = meterRegistry;
+        this.inlineTransaction = new TransactionTemplate(transactionManager);
+        this.inlineTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.workerCount = workerCount;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.notifyRadiusKm = notifyRadiusKm;
+        
+        for (SOSAlert.PriorityLevel level : LANES_BY_URGENCY) {
+            BlockingQueue<FanoutJob> lane = new ArrayBlockingQueue<>(queueCapacity);
+            lanes.put(level, lane);
+            meterRegistry.gauge("sos.fanout.queue.size", Tags.of("priority", level.name()), lane, BlockingQueue::size);
+        }
+        
+        this.completed = meterRegistry.counter("sos.fanout.jobs", "outcome", "completed");
+        this.retried = meterRegistry.counter("sos.fanout.jobs", "outcome", "retried");
+        this.failed = meterRegistry.counter("sos.fanout.jobs", "outcome", "failed");
+        this.ranInline = meterRegistry.counter("sos.fanout.jobs", "outcome", "inline");
+    }
+    
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "sos-fanout-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sos-fanout-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workLoop);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        int abandoned = lanes.values().stream().mapToInt(BlockingQueue::size).sum();
+        if (abandoned > 0) {
+            log.warn("SOS fan-out stopped with {} queued jobs", abandoned);
+        }
+    }
+    
+    /**
+     * Queue fan-out for a newly created alert once the surrounding transaction commits
+     */
+    public void submit(SOSAlertDTO alert) {
+        TransactionUtil.afterCommit(() -> enqueue(new FanoutJob(alert)));
+    }
+    
+    private void enqueue(FanoutJob job) {
+        job.enqueuedAt = System.nanoTime();
+        if (running && lanes.get(job.priority).offer(job)) {
+            queuedJobs.release();
+            return;
+        }
+        
+        // Saturated (or shutting down): slow the caller down rather than lose the alert
+        log.warn("SOS fan-out queue for {} is full, running alert {} inline", job.priority, job.alert.getId());
+        ranInline.increment();
+        runInline(job);
+    }
+    
+    private void runInline(FanoutJob job) {
+        // Called from afterCommit, where the submitter's transaction is still bound but can no
+        // longer write, so the notifications need a fresh one
+        try {
+            inlineTransaction.executeWithoutResult(status -> process(job));
+        } catch (UnexpectedRollbackException e) {
+            // process() has already logged the failure and scheduled the retry
+        }
+    }
+    
+    private void workLoop() {
+        while (running) {
+            try {
+                if (!queuedJobs.tryAcquire(1, TimeUnit.SECONDS)) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            
+            FanoutJob job = pollMostUrgent();
+            if (job != null) {
+                meterRegistry.timer("sos.fanout.queue.wait", "priority", job.priority.name())
+                        .record(System.nanoTime() - job.enqueuedAt, TimeUnit.NANOSECONDS);
+                process(job);
+            }
+        }
+    }
+    
+    private FanoutJob pollMostUrgent() {
+        for (SOSAlert.PriorityLevel level : LANES_BY_URGENCY) {
+            FanoutJob job = lanes.get(level).poll();
+            if (job != null) {
+                return job;
+            }
+        }
+        return null;
+    }
+    
+    private void process(FanoutJob job) {
+        try {
+            if (job.recipientIds == null) {
+                job.recipientIds = timed(STAGE_LOCATE, () -> locateRecipients(job.alert));
+            }
+            if (!job.notified) {
+                timed(STAGE_NOTIFY, () -> notifyRecipients(job));
+                job.notified = true;
+            }
+            timed(STAGE_CONTACTS, () -> notifyEmergencyContacts(job.alert));
+            completed.increment();
+        } catch (Exception e) {
+            if (job.attempt >= maxAttempts) {
+                failed.increment();
+                log.error("SOS fan-out for alert {} failed after {} attempts: {}",
+                        job.alert.getId(), job.attempt, e.getMessage());
+                return;
+            }
+            
+            retried.increment();
+            log.warn("SOS fan-out for alert {} failed on attempt {}, retrying: {}",
+                    job.alert.getId(), job.attempt, e.getMessage());
+            long delayMillis = retryBackoff.toMillis() * job.attempt;
+            job.attempt++;
+            if (running) {
+                retryScheduler.schedule(() -> enqueue(job), delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    private List<Long> locateRecipients(SOSAlertDTO alert) {
+        List<Long> recipientIds = userRepository.findUserIdsWithinRadius(
+            alert.getLatitude(), alert.getLongitude(), notifyRadiusKm);
+        
+        return recipientIds.stream()
+                .filter(userId -> !userId.equals(alert.getUserId()))
+                .toList();
+    }
+    
+    private void notifyRecipients(FanoutJob job) {
+        // A single transaction, so a retry never leaves half the neighbourhood notified twice
+        notificationService.sendBulkNotification(
+            job.recipientIds,
+            "Emergency SOS Alert Nearby",
+            "An SOS alert has been raised near your location",
+            "SOS_ALERT",
+            job.alert.getId()
+        );
+    }
+    
+    private void notifyEmergencyContacts(SOSAlertDTO alert) {
+        // This would integrate with EmergencyContactService
+        // Send SMS/Email to emergency contacts
+        log.info("Notifying emergency contacts for user: {}", alert.getUserId());
+    }
+    
+    private <T> T timed(String stage, Supplier<T> work) {
+        return stageTimer(stage).record(work);
+    }
+    
+    private void timed(String stage, Runnable work) {
+        stageTimer(stage).record(work);
+    }
+    
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, name -> meterRegistry.timer("sos.fanout.stage", "stage", name));
+    }
+    
+    private static final class FanoutJob {
+        private final SOSAlertDTO alert;
+        private final SOSAlert.PriorityLevel priority;
+        private int attempt = 1;
+        private long enqueuedAt;
+        private List<Long> recipientIds;
+        private boolean notified;
+        
+        private FanoutJob(SOSAlertDTO alert) {
+            this.alert = alert;
+            this.priority = alert.getPriorityLevel() != null
+                    ? SOSAlert.PriorityLevel.valueOf(alert.getPriorityLevel())
+                    : SOSAlert.PriorityLevel.MEDIUM;
+        }
+    }
+}
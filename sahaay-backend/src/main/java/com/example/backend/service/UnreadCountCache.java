@@ -0,0 +1,168 @@
+package com.example.backend.service;
+
+import com.example.backend.websocket.NotificationWebSocketHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user unread notification counts, kept in step with writes so badge counts never
+ * hit the notifications table.
+ * <p>
+ * A user's count is loaded with a COUNT query the first time it is asked for; after that
+ * every change is applied in memory once its transaction commits and pushed to the user on
+ * {@code /queue/notification-count}. Users whose count was never loaded are left alone until
+ * they ask, so a broadcast to thousands of idle users costs no queries.
+ * <p>
+ * A COUNT can already include a commit whose in-memory change has not been applied yet, or
+ * miss one applied while it ran. Each change therefore bumps a generation and is tracked as
+ * pending from the moment it is registered until its transaction completes; a loaded count is
+ * only cached if nothing was pending when the query started and the generation did not move.
+ * Generations are kept per stripe of users, so a busy stripe just answers from the database.
+ */
+@Component
+@Slf4j
+public class UnreadCountCache {
+    
+    private final NotificationReadTracker readTracker;
+    private final NotificationWebSocketHandler webSocketHandler;
+    private static final int STRIPES = 1024;
+    
+    private final ConcurrentMap<Long, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray pending = new AtomicLongArray(STRIPES);
+    private final Counter hits;
+    private final Counter misses;
+    
+    public UnreadCountCache(NotificationReadTracker readTracker,
+                            NotificationWebSocketHandler webSocketHandler,
+                            MeterRegistry meterRegistry) {
+        this.readTracker = readTracker;
+        this.webSocketHandler = webSocketHandler;
+        this.hits = meterRegistry.counter("notifications.unread.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("notifications.unread.cache.requests", "result", "miss");
+        meterRegistry.gaugeMapSize("notifications.unread.cache.size", Tags.empty(), counts);
+    }
+    
+    public int get(Long userId) {
+        AtomicInteger count = counts.get(userId);
+        if (count != null) {
+            hits.increment();
+            return count.get();
+        }
+        
+        misses.increment();
+        int stripe = stripe(userId);
+        // Generation first: a change registered after it is caught by the check below
+        long generation = generations.get(stripe);
+        boolean quiet = pending.get(stripe) == 0;
+        AtomicInteger loaded = new AtomicInteger(Math.toIntExact(readTracker.countUnread(userId)));
+        if (!quiet) {
+            return loaded.get();
+        }
+        
+        AtomicInteger existing = counts.putIfAbsent(userId, loaded);
+        if (existing != null) {
+            return existing.get();
+        }
+        if (generations.get(stripe) != generation) {
+            // A change landed while counting, so the count may or may not include it
+            counts.remove(userId, loaded);
+        }
+        return loaded.get();
+    }
+    
+    /**
+     * Apply a change to a user's count once the current transaction commits
+     */
+    public void adjust(Long userId, int delta) {
+        afterCommit(List.of(userId), () -> apply(userId, delta));
+    }
+    
+    public void increment(Collection<Long> userIds) {
+        afterCommit(userIds, () -> userIds.forEach(userId -> apply(userId, 1)));
+    }
+    
+    /**
+     * Set a user's count to zero once the current transaction commits
+     */
+    public void reset(Long userId) {
+        afterCommit(List.of(userId), () -> {
+            counts.put(userId, new AtomicInteger());
+            webSocketHandler.sendNotificationCount(userId, 0);
+        });
+    }
+    
+    /**
+     * Forget the users' counts once the current transaction commits; they are reloaded on next read
+     */
+    public void invalidate(Collection<Long> userIds) {
+        afterCommit(userIds, () -> userIds.forEach(counts::remove));
+    }
+    
+    /**
+     * Like {@link com.example.backend.util.TransactionUtil#afterCommit}, but keeps the users'
+     * stripes pending until the transaction completes so no count is cached in between
+     */
+    private void afterCommit(Collection<Long> userIds, Runnable action) {
+        int[] stripes = userIds.stream().mapToInt(UnreadCountCache::stripe).toArray();
+        for (int stripe : stripes) {
+            pending.incrementAndGet(stripe);
+            generations.incrementAndGet(stripe);
+        }
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                action.run();
+            } finally {
+                complete(stripes);
+            }
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                complete(stripes);
+            }
+        });
+    }
+    
+    private void complete(int[] stripes) {
+        for (int stripe : stripes) {
+            generations.incrementAndGet(stripe);
+            pending.decrementAndGet(stripe);
+        }
+    }
+    
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (STRIPES - 1);
+    }
+    
+    private void apply(Long userId, int delta) {
+        AtomicInteger count = counts.computeIfPresent(userId, (id, current) -> {
+            current.updateAndGet(value -> Math.max(0, value + delta));
+            return current;
+        });
+        
+        if (count != null) {
+            webSocketHandler.sendNotificationCount(userId, count.get());
+        }
+    }
+}
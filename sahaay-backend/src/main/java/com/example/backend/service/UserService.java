@@ -25,6 +25,9 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final VolunteerService volunteerService;
+    private final BloodDonationService bloodDonationService;
+    private final LocationService locationService;
     
     public UserDTO createUser(UserRegistrationDTO registrationDTO) {
         log.info("Creating new user with username: {}", registrationDTO.getUsername());
@@ -117,6 +120,15 @@ public class UserService {
         User updatedUser = userRepository.save(user);
         log.info("User updated successfully with ID: {}", updatedUser.getId());
         
+        // Location, name and gender feed volunteer matching
+        if (updatedUser.getUserType() == User.UserType.VOLUNTEER) {
+            volunteerService.reindexUser(updatedUser.getId());
+        }
+        // Pooled donors carry the name and location too
+        if (updateDTO.getFullName() != null || (updateDTO.getLatitude() != null && updateDTO.getLongitude() != null)) {
+            bloodDonationService.refreshDonor(updatedUser.getId());
+        }
+        
         return convertToDTO(updatedUser);
     }
     
@@ -157,7 +169,9 @@ public class UserService {
     
     @Transactional(readOnly = true)
     public List<UserDTO> getUsersNearLocation(BigDecimal latitude, BigDecimal longitude, double radiusKm) {
-        List<User> users = userRepository.findUsersWithinRadius(latitude, longitude, radiusKm);
+        List<User> users = locationService.filterWithinRadius(latitude, longitude, radiusKm,
+                userRepository.findUserCandidates(latitude, longitude, radiusKm),
+                User::getLatitude, User::getLongitude);
         return users.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -0,0 +1,65 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Volunteer;
+import com.example.backend.repository.VolunteerRepository;
+import com.example.backend.util.WeeklyAvailability;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compiles {@code availability_hours} into {@code availability_bitmap} for volunteers registered
+ * before the bitmap existed, whose null bitmap would otherwise read as "always available".
+ * <p>
+ * Runs once at startup, ahead of the volunteer index load so the index sees the compiled
+ * schedules, and finds nothing to do once every row has been compiled.
+ */
+@Component
+@Slf4j
+public class VolunteerAvailabilityBackfill {
+    
+    private final VolunteerRepository volunteerRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    public VolunteerAvailabilityBackfill(VolunteerRepository volunteerRepository,
+                                         PlatformTransactionManager transactionManager) {
+        this.volunteerRepository = volunteerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void run() {
+        try {
+            Integer compiled = transactionTemplate.execute(status -> backfill());
+            if (compiled != null && compiled > 0) {
+                log.info("Compiled availability hours for {} volunteers", compiled);
+            }
+        } catch (Exception e) {
+            // Matching keeps treating these volunteers as always available until the next start
+            log.error("Volunteer availability backfill failed: {}", e.getMessage());
+        }
+    }
+    
+    private int backfill() {
+        int compiled = 0;
+        for (Volunteer volunteer : volunteerRepository.findByAvailabilityHoursIsNotNullAndAvailabilityBitmapIsNull()) {
+            try {
+                byte[] bitmap = WeeklyAvailability.compile(volunteer.getAvailabilityHours());
+                if (bitmap != null) {
+                    volunteer.setAvailabilityBitmap(bitmap);
+                    compiled++;
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("Volunteer {} has unreadable availability hours, leaving them unrestricted: {}",
+                        volunteer.getId(), e.getMessage());
+            }
+        }
+        return compiled;
+    }
+}
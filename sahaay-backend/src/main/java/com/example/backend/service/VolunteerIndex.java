@@ -0,0 +1,171 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Skill;
+import com.example.backend.entity.Volunteer;
+import com.example.backend.util.GeoGrid;
+import com.example.backend.util.LocationUtil;
+import com.example.backend.util.SkillBits;
+import com.example.backend.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory snapshot of available, verified volunteers with their skills packed into bitsets,
+ * so matching a help request never queries the volunteer or skill tables.
+ * <p>
+ * Each located volunteer is also registered in every grid cell their service circle touches,
+ * so finding the volunteers whose radius covers a point reads one cell and checks the distance
+ * to a handful of candidates. Mutations are applied only after the surrounding transaction commits.
+ */
+@Component
+@Slf4j
+public class VolunteerIndex {
+    
+    private final Map<Long, IndexedVolunteer> volunteers = new ConcurrentHashMap<>();
+    private final GeoGrid coverage;
+    private volatile boolean warm;
+    
+    public VolunteerIndex(@Value("${app.volunteers.index.cell-size-degrees:0.1}") double cellSizeDegrees) {
+        this.coverage = new GeoGrid(cellSizeDegrees);
+    }
+    
+    /**
+     * Replace the index with a full snapshot of available, verified volunteers
+     */
+    public synchronized void load(List<IndexedVolunteer> snapshot) {
+        volunteers.clear();
+        coverage.clear();
+        for (IndexedVolunteer volunteer : snapshot) {
+            put(volunteer);
+        }
+        warm = true;
+        log.info("Loaded {} available volunteers into the volunteer index", volunteers.size());
+    }
+    
+    public boolean isWarm() {
+        return warm;
+    }
+    
+    /**
+     * Add, refresh or drop a volunteer after their profile, location, availability or verification changed
+     */
+    public void update(Volunteer volunteer, int activeTasks) {
+        boolean listed = Boolean.TRUE.equals(volunteer.getIsAvailable())
+                && volunteer.getVerificationStatus() == Volunteer.VerificationStatus.VERIFIED;
+        IndexedVolunteer indexed = listed ? IndexedVolunteer.of(volunteer, activeTasks) : null;
+        Long volunteerId = volunteer.getId();
+        TransactionUtil.afterCommit(() -> {
+            if (indexed != null) {
+                put(indexed);
+            } else {
+                remove(volunteerId);
+            }
+        });
+    }
+    
+    /**
+     * Change a volunteer's count of assigned, unfinished help requests
+     */
+    public void adjustWorkload(Long volunteerId, int delta) {
+        TransactionUtil.afterCommit(() -> volunteers.computeIfPresent(volunteerId,
+                (id, volunteer) -> volunteer.withActiveTasks(Math.max(0, volunteer.activeTasks() + delta))));
+    }
+    
+    public void forEach(Consumer<IndexedVolunteer> action) {
+        volunteers.values().forEach(action);
+    }
+    
+    /**
+     * Visit the located volunteers whose own service radius covers the point
+     */
+    public void forEachCovering(double latitude, double longitude, Consumer<IndexedVolunteer> action) {
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        coverage.forEachInCell(latitude, longitude, id -> {
+            IndexedVolunteer volunteer = volunteers.get(id);
+            if (volunteer != null && volunteer.located() && LocationUtil.calculateDistance(latitude, longitude,
+                    cosLatitude, volunteer.latitude(), volunteer.longitude(), volunteer.cosLatitude())
+                    <= volunteer.maxDistanceKm()) {
+                action.accept(volunteer);
+            }
+        });
+    }
+    
+    public List<Long> findCoveringIds(BigDecimal latitude, BigDecimal longitude) {
+        List<Long> ids = new ArrayList<>();
+        forEachCovering(latitude.doubleValue(), longitude.doubleValue(), volunteer -> ids.add(volunteer.volunteerId()));
+        return ids;
+    }
+    
+    public int size() {
+        return volunteers.size();
+    }
+    
+    private synchronized void put(IndexedVolunteer volunteer) {
+        IndexedVolunteer previous = volunteers.put(volunteer.volunteerId(), volunteer);
+        if (previous != null) {
+            updateCoverage(previous, false);
+        }
+        updateCoverage(volunteer, true);
+    }
+    
+    private synchronized void remove(Long volunteerId) {
+        IndexedVolunteer previous = volunteers.remove(volunteerId);
+        if (previous != null) {
+            updateCoverage(previous, false);
+        }
+    }
+    
+    private void updateCoverage(IndexedVolunteer volunteer, boolean add) {
+        if (!volunteer.located()) {
+            return;
+        }
+        double[] box = new double[4];
+        LocationUtil.getBoundingBox(volunteer.latitude(), volunteer.longitude(), volunteer.maxDistanceKm(), box);
+        if (add) {
+            coverage.addArea(volunteer.volunteerId(), box[LocationUtil.MIN_LAT], box[LocationUtil.MAX_LAT],
+                    box[LocationUtil.MIN_LON], box[LocationUtil.MAX_LON]);
+        } else {
+            coverage.removeArea(volunteer.volunteerId(), box[LocationUtil.MIN_LAT], box[LocationUtil.MAX_LAT],
+                    box[LocationUtil.MIN_LON], box[LocationUtil.MAX_LON]);
+        }
+    }
+    
+    /**
+     * Matching view of a volunteer; coordinates are unpacked once so ranking does no BigDecimal
+     * math. {@code located} is false when the volunteer's user has no coordinates, and
+     * {@code availability} is the compiled weekly schedule, {@code null} if none was given.
+     */
+    public record IndexedVolunteer(Long volunteerId, Long userId, String fullName, String gender,
+                                   long[] skills, byte[] availability, boolean located, double latitude,
+                                   double longitude, double cosLatitude, int maxDistanceKm,
+                                   double averageRating, int activeTasks) {
+        
+        public static IndexedVolunteer of(Volunteer volunteer, int activeTasks) {
+            long[] skills = volunteer.getSkills() != null
+                    ? SkillBits.of(volunteer.getSkills().stream().map(Skill::getId).toList())
+                    : SkillBits.EMPTY;
+            boolean located = volunteer.getUser().getLatitude() != null && volunteer.getUser().getLongitude() != null;
+            double latitude = located ? volunteer.getUser().getLatitude().doubleValue() : 0;
+            double longitude = located ? volunteer.getUser().getLongitude().doubleValue() : 0;
+            return new IndexedVolunteer(volunteer.getId(), volunteer.getUser().getId(),
+                    volunteer.getUser().getFullName(), volunteer.getUser().getGender(), skills,
+                    volunteer.getAvailabilityBitmap(), located, latitude, longitude, Math.cos(Math.toRadians(latitude)),
+                    volunteer.getMaxDistanceKm() != null ? volunteer.getMaxDistanceKm() : 0,
+                    volunteer.getAverageRating() != null ? volunteer.getAverageRating().doubleValue() : 0,
+                    activeTasks);
+        }
+        
+        public IndexedVolunteer withActiveTasks(int activeTasks) {
+            return new IndexedVolunteer(volunteerId, userId, fullName, gender, skills, availability, located,
+                    latitude, longitude, cosLatitude, maxDistanceKm, averageRating, activeTasks);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.RankedVolunteerDTO;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.service.VolunteerIndex.IndexedVolunteer;
+import com.example.backend.util.LocationUtil;
+import com.example.backend.util.SkillBits;
+import com.example.backend.util.TopK;
+import com.example.backend.util.WeeklyAvailability;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Scores volunteers for a help request and keeps the best k.
+ * <p>
+ * The score adds up coverage of the request's required skills, closeness to the request,
+ * the volunteer's average rating and how few unfinished assignments they already have.
+ * Volunteers outside their own service radius of a located request, who do not match the
+ * request's preferred volunteer gender, or who are off shift when a scheduled request is due,
+ * are skipped.
+ */
+@Component
+public class VolunteerMatcher {
+    
+    private static final double MAX_RATING = 5.0;
+    private static final Set<String> NO_GENDER_PREFERENCE = Set.of("ANY", "NO_PREFERENCE", "NONE");
+    
+    private final double distanceScaleKm;
+    private final double skillWeight;
+    private final double distanceWeight;
+    private final double ratingWeight;
+    private final double workloadWeight;
+    
+    public VolunteerMatcher(@Value("${app.volunteers.matching.distance-scale-km:5}") double distanceScaleKm,
+                            @Value("${app.volunteers.matching.weight.skills:0.5}") double skillWeight,
+                            @Value("${app.volunteers.matching.weight.distance:0.25}") double distanceWeight,
+                            @Value("${app.volunteers.matching.weight.rating:0.15}") double ratingWeight,
+                            @Value("${app.volunteers.matching.weight.workload:0.1}") double workloadWeight) {
+        this.distanceScaleKm = distanceScaleKm;
+        this.skillWeight = skillWeight;
+        this.distanceWeight = distanceWeight;
+        this.ratingWeight = ratingWeight;
+        this.workloadWeight = workloadWeight;
+    }
+    
+    public Matching start(HelpRequest request, int k) {
+        return new Matching(request, k);
+    }
+    
+    /**
+     * One request's matching in progress; offer each candidate once, then read the result
+     */
+    public final class Matching {
+        
+        private final long[] requiredSkills;
+        private final int requiredCount;
+        private final String preferredGender;
+        private final int scheduledSlot;
+        private final boolean requestLocated;
+        private final double requestLatitude;
+        private final double requestLongitude;
+        private final double cosRequestLatitude;
+        private final TopK<RankedVolunteerDTO> best;
+        
+        private Matching(HelpRequest request, int k) {
+            this.requiredSkills = request.getRequiredSkills() != null
+                    ? SkillBits.of(Arrays.asList(request.getRequiredSkills())) : SkillBits.EMPTY;
+            this.requiredCount = SkillBits.cardinality(requiredSkills);
+            String gender = request.getPreferredVolunteerGender();
+            this.preferredGender = gender == null || gender.isBlank()
+                    || NO_GENDER_PREFERENCE.contains(gender.toUpperCase()) ? null : gender;
+            this.scheduledSlot = request.getScheduledDate() != null && request.getScheduledTime() != null
+                    ? WeeklyAvailability.slot(request.getScheduledDate().getDayOfWeek(), request.getScheduledTime())
+                    : -1;
+            this.requestLocated = request.getLatitude() != null && request.getLongitude() != null;
+            this.requestLatitude = requestLocated ? request.getLatitude().doubleValue() : 0;
+            this.requestLongitude = requestLocated ? request.getLongitude().doubleValue() : 0;
+            this.cosRequestLatitude = Math.cos(Math.toRadians(requestLatitude));
+            this.best = new TopK<>(k);
+        }
+        
+        public void offer(IndexedVolunteer candidate) {
+            double score = score(candidate);
+            if (Double.isNaN(score) || !best.accepts(score)) {
+                return;
+            }
+            
+            best.offer(RankedVolunteerDTO.builder()
+                    .volunteerId(candidate.volunteerId())
+                    .userId(candidate.userId())
+                    .fullName(candidate.fullName())
+                    .distanceKm(requestLocated ? distanceTo(candidate) : null)
+                    .skillCoverage(coverage(candidate))
+                    .averageRating(candidate.averageRating())
+                    .activeTasks(candidate.activeTasks())
+                    .build(), score);
+        }
+        
+        /**
+         * Score of a candidate for this request, or {@code NaN} if they cannot take it. A request
+         * that lists skills only goes to volunteers with at least one of them
+         */
+        public double score(IndexedVolunteer candidate) {
+            if (requiredCount > 0 && SkillBits.intersectionCount(requiredSkills, candidate.skills()) == 0) {
+                return Double.NaN;
+            }
+            if (preferredGender != null && !preferredGender.equalsIgnoreCase(candidate.gender())) {
+                return Double.NaN;
+            }
+            if (scheduledSlot >= 0 && !WeeklyAvailability.isAvailable(candidate.availability(), scheduledSlot)) {
+                return Double.NaN;
+            }
+            
+            double closeness = 0;
+            if (requestLocated) {
+                if (!candidate.located()) {
+                    return Double.NaN;
+                }
+                double distanceKm = distanceTo(candidate);
+                if (distanceKm > candidate.maxDistanceKm()) {
+                    return Double.NaN;
+                }
+                closeness = 1.0 / (1.0 + distanceKm / distanceScaleKm);
+            }
+            
+            double rating = Math.min(1.0, candidate.averageRating() / MAX_RATING);
+            double availability = 1.0 / (1 + candidate.activeTasks());
+            return skillWeight * coverage(candidate) + distanceWeight * closeness
+                    + ratingWeight * rating + workloadWeight * availability;
+        }
+        
+        private double distanceTo(IndexedVolunteer candidate) {
+            return LocationUtil.calculateDistance(requestLatitude, requestLongitude, cosRequestLatitude,
+                    candidate.latitude(), candidate.longitude(), candidate.cosLatitude());
+        }
+        
+        private double coverage(IndexedVolunteer candidate) {
+            return requiredCount == 0
+                    ? 1.0 : (double) SkillBits.intersectionCount(requiredSkills, candidate.skills()) / requiredCount;
+        }
+        
+        /**
+         * The best volunteers offered so far, highest score first
+         */
+        public List<RankedVolunteerDTO> result() {
+            return best.toSortedList().stream()
+                    .map(scored -> {
+                        scored.item().setScore(scored.score());
+                        return scored.item();
+                    })
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -5,18 +5,27 @@ import com.example.backend.dto.VolunteerRegistrationDTO;
 import com.example.backend.entity.Skill;
 import com.example.backend.entity.User;
 import com.example.backend.entity.Volunteer;
+import com.example.backend.exception.BadRequestException;
 import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.repository.HelpRequestRepository;
 import com.example.backend.repository.SkillRepository;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.repository.VolunteerRepository;
+import com.example.backend.util.WeeklyAvailability;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +37,35 @@ public class VolunteerService {
     private final VolunteerRepository volunteerRepository;
     private final UserRepository userRepository;
     private final SkillRepository skillRepository;
+    private final HelpRequestRepository helpRequestRepository;
+    private final VolunteerIndex volunteerIndex;
+    
+    // Outside a transaction, so a failed load cannot mark a surrounding one rollback-only
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void loadVolunteerIndex() {
+        try {
+            volunteerIndex.load(findIndexedVolunteers());
+        } catch (Exception e) {
+            // Matching falls back to the database until the index is loaded
+            log.error("Failed to load volunteer index: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Matching snapshot of every available, verified volunteer with their current workload
+     */
+    @Transactional(readOnly = true)
+    public List<VolunteerIndex.IndexedVolunteer> findIndexedVolunteers() {
+        Map<Long, Integer> activeTasks = new HashMap<>();
+        for (Object[] row : helpRequestRepository.countActiveAssignmentsByVolunteer()) {
+            activeTasks.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        return volunteerRepository.findAvailableVolunteersWithSkills().stream()
+                .map(volunteer -> VolunteerIndex.IndexedVolunteer.of(
+                        volunteer, activeTasks.getOrDefault(volunteer.getId(), 0)))
+                .collect(Collectors.toList());
+    }
     
     public VolunteerDTO registerVolunteer(Long userId, VolunteerRegistrationDTO registrationDTO) {
         log.info("Registering user {} as volunteer", userId);
@@ -51,6 +89,7 @@ public class VolunteerService {
                 .backgroundCheckStatus("PENDING")
                 .maxDistanceKm(registrationDTO.getMaxDistanceKm())
                 .availabilityHours(registrationDTO.getAvailabilityHours())
+                .availabilityBitmap(compileAvailability(registrationDTO.getAvailabilityHours()))
                 .specializations(registrationDTO.getSpecializations())
                 .isAvailable(true)
                 .build();
@@ -87,6 +126,7 @@ public class VolunteerService {
         
         volunteer.setIsAvailable(isAvailable);
         Volunteer updatedVolunteer = volunteerRepository.save(volunteer);
+        reindex(updatedVolunteer);
         
         log.info("Volunteer {} availability updated to: {}", volunteerId, isAvailable);
         return convertToDTO(updatedVolunteer);
@@ -99,14 +139,20 @@ public class VolunteerService {
         volunteer.setVerificationStatus(Volunteer.VerificationStatus.VERIFIED);
         volunteer.setBackgroundCheckStatus("COMPLETED");
         Volunteer updatedVolunteer = volunteerRepository.save(volunteer);
+        reindex(updatedVolunteer);
         
         log.info("Volunteer {} verified successfully", volunteerId);
         return convertToDTO(updatedVolunteer);
     }
     
+    /**
+     * Available volunteers, limited to those on shift at {@code at} when it is given
+     */
     @Transactional(readOnly = true)
-    public List<VolunteerDTO> getAvailableVolunteers() {
-        List<Volunteer> volunteers = volunteerRepository.findAvailableVolunteers();
+    public List<VolunteerDTO> getAvailableVolunteers(LocalDateTime at) {
+        List<Volunteer> volunteers = at != null
+                ? volunteerRepository.findAvailableVolunteersAtSlot(WeeklyAvailability.slot(at))
+                : volunteerRepository.findAvailableVolunteers();
         return volunteers.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -122,7 +168,9 @@ public class VolunteerService {
     
     @Transactional(readOnly = true)
     public List<VolunteerDTO> getVolunteersNearLocation(BigDecimal latitude, BigDecimal longitude) {
-        List<Volunteer> volunteers = volunteerRepository.findVolunteersNearLocation(latitude, longitude);
+        List<Volunteer> volunteers = volunteerIndex.isWarm()
+                ? volunteerRepository.findByIdIn(volunteerIndex.findCoveringIds(latitude, longitude))
+                : volunteerRepository.findVolunteersNearLocation(latitude, longitude);
         return volunteers.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -155,11 +203,30 @@ public class VolunteerService {
             volunteer.setAverageRating(averageRating);
         }
         
-        volunteerRepository.save(volunteer);
+        reindex(volunteerRepository.save(volunteer));
         log.info("Updated rating for volunteer: {}", volunteerId);
     }
     
-    private VolunteerDTO convertToDTO(Volunteer volunteer) {
+    /**
+     * Refresh the volunteer index after the volunteer's user changed, e.g. moved home
+     */
+    public void reindexUser(Long userId) {
+        volunteerRepository.findByUserId(userId).ifPresent(this::reindex);
+    }
+    
+    private static byte[] compileAvailability(Map<String, List<String>> hours) {
+        try {
+            return WeeklyAvailability.compile(hours);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+    
+    private void reindex(Volunteer volunteer) {
+        volunteerIndex.update(volunteer, (int) helpRequestRepository.countActiveAssignments(volunteer.getId()));
+    }
+    
+    VolunteerDTO convertToDTO(Volunteer volunteer) {
         return VolunteerDTO.builder()
                 .id(volunteer.getId())
                 .userId(volunteer.getUser().getId())
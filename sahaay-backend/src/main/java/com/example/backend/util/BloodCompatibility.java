@@ -0,0 +1,67 @@
+package com.example.backend.util;
+
+import com.example.backend.entity.BloodDonor.BloodType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Red cell donor to recipient compatibility as an 8x8 bit matrix indexed by
+ * {@link BloodType#ordinal()}. A donor is compatible when it carries no A, B or RhD antigen
+ * the recipient lacks.
+ */
+public final class BloodCompatibility {
+    
+    private static final BloodType[] TYPES = BloodType.values();
+    
+    // Bit d of DONORS_FOR[r] is set when type d can donate to type r
+    private static final int[] DONORS_FOR = new int[TYPES.length];
+    
+    static {
+        for (BloodType recipient : TYPES) {
+            int recipientAntigens = antigens(recipient);
+            for (BloodType donor : TYPES) {
+                if ((antigens(donor) & ~recipientAntigens) == 0) {
+                    DONORS_FOR[recipient.ordinal()] |= 1 << donor.ordinal();
+                }
+            }
+        }
+    }
+    
+    private BloodCompatibility() {
+    }
+    
+    public static boolean canDonate(BloodType donor, BloodType recipient) {
+        return (DONORS_FOR[recipient.ordinal()] & (1 << donor.ordinal())) != 0;
+    }
+    
+    /**
+     * Bitmask of the donor types that can give to {@code recipient}, by ordinal
+     */
+    public static int donorMask(BloodType recipient) {
+        return DONORS_FOR[recipient.ordinal()];
+    }
+    
+    public static Set<BloodType> compatibleDonorTypes(BloodType recipient) {
+        EnumSet<BloodType> types = EnumSet.noneOf(BloodType.class);
+        int mask = DONORS_FOR[recipient.ordinal()];
+        while (mask != 0) {
+            types.add(TYPES[Integer.numberOfTrailingZeros(mask)]);
+            mask &= mask - 1;
+        }
+        return types;
+    }
+    
+    private static int antigens(BloodType type) {
+        return switch (type) {
+            case O_NEGATIVE -> 0;
+            case O_POSITIVE -> 0b100;
+            case A_NEGATIVE -> 0b001;
+            case A_POSITIVE -> 0b101;
+            case B_NEGATIVE -> 0b010;
+            case B_POSITIVE -> 0b110;
+            case AB_NEGATIVE -> 0b011;
+            case AB_POSITIVE -> 0b111;
+        };
+    }
+}
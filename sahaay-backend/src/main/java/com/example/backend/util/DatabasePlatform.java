@@ -0,0 +1,29 @@
+package com.example.backend.util;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Which database the application is running against, for the few queries that use
+ * PostgreSQL-only syntax and need a portable fallback on H2.
+ */
+@Component
+public class DatabasePlatform {
+    
+    private final boolean postgreSQL;
+    
+    public DatabasePlatform(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            this.postgreSQL = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to determine database platform", e);
+        }
+    }
+    
+    public boolean isPostgreSQL() {
+        return postgreSQL;
+    }
+}
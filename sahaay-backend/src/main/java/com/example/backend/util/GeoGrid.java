@@ -0,0 +1,130 @@
+package com.example.backend.util;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Fixed-degree spatial grid that maps each cell to the ids of the points inside it.
+ * Radius queries only visit the cells overlapping the query's bounding box.
+ * <p>
+ * Areas can be registered too, in every cell their bounding box overlaps; the reverse
+ * question of which areas cover a point is then a single cell read.
+ */
+public class GeoGrid {
+
+    private final double cellSizeDegrees;
+    private final int columns;
+    private final int rows;
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public GeoGrid(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 90 degrees");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.columns = (int) Math.ceil(360.0 / cellSizeDegrees);
+        this.rows = (int) Math.ceil(180.0 / cellSizeDegrees);
+    }
+
+    public void add(long id, double latitude, double longitude) {
+        cells.computeIfAbsent(cellKey(latitude, longitude), key -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    public void remove(long id, double latitude, double longitude) {
+        cells.computeIfPresent(cellKey(latitude, longitude), (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Register {@code id} in every cell overlapping the box
+     */
+    public void addArea(long id, double minLat, double maxLat, double minLon, double maxLon) {
+        forEachCellKey(minLat, maxLat, minLon, maxLon,
+                key -> cells.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id));
+    }
+
+    /**
+     * Undo {@link #addArea} for the same box
+     */
+    public void removeArea(long id, double minLat, double maxLat, double minLon, double maxLon) {
+        forEachCellKey(minLat, maxLat, minLon, maxLon, key -> cells.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        }));
+    }
+
+    /**
+     * Visit the ids registered in the cell containing the point: the points in that cell, or
+     * the areas that may cover it. Candidates still need an exact check by the caller.
+     */
+    public void forEachInCell(double latitude, double longitude, LongConsumer consumer) {
+        Set<Long> ids = cells.get(cellKey(latitude, longitude));
+        if (ids != null) {
+            ids.forEach(consumer::accept);
+        }
+    }
+
+    public void clear() {
+        cells.clear();
+    }
+
+    /**
+     * Visit the ids of every point in a cell overlapping the given box.
+     * Candidates still need an exact distance check by the caller.
+     */
+    public void forEachCandidate(double minLat, double maxLat, double minLon, double maxLon,
+                                 LongConsumer consumer) {
+        int minRow = row(minLat);
+        int maxRow = row(maxLat);
+        int minCol = (int) Math.floor((minLon + 180.0) / cellSizeDegrees);
+        int maxCol = (int) Math.floor((maxLon + 180.0) / cellSizeDegrees);
+
+        long boxCells = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (maxCol - minCol + 1 >= columns || boxCells >= cells.size()) {
+            // Very wide boxes: walking the occupied cells is cheaper than probing empty ones
+            cells.forEach((key, ids) -> {
+                int cellRow = (int) (key / columns);
+                if (cellRow >= minRow && cellRow <= maxRow) {
+                    ids.forEach(consumer::accept);
+                }
+            });
+            return;
+        }
+
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                // Wrap across the antimeridian
+                int wrapped = Math.floorMod(c, columns);
+                Set<Long> ids = cells.get((long) r * columns + wrapped);
+                if (ids != null) {
+                    ids.forEach(consumer::accept);
+                }
+            }
+        }
+    }
+
+    private void forEachCellKey(double minLat, double maxLat, double minLon, double maxLon,
+                                LongConsumer consumer) {
+        int minCol = (int) Math.floor((minLon + 180.0) / cellSizeDegrees);
+        int maxCol = Math.min(minCol + columns - 1, (int) Math.floor((maxLon + 180.0) / cellSizeDegrees));
+        for (int r = row(minLat); r <= row(maxLat); r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                consumer.accept((long) r * columns + Math.floorMod(c, columns));
+            }
+        }
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        int col = Math.floorMod((int) Math.floor((longitude + 180.0) / cellSizeDegrees), columns);
+        return (long) row(latitude) * columns + col;
+    }
+
+    private int row(double latitude) {
+        double clamped = Math.max(-90.0, Math.min(90.0, latitude));
+        return Math.min(rows - 1, (int) Math.floor((clamped + 90.0) / cellSizeDegrees));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost assignment of rows to columns with the Hungarian method (shortest augmenting
+ * paths with potentials), O(n^2 m) for n rows and m columns.
+ * <p>
+ * Every row of the smaller side is assigned. Pairs that must not be matched should cost
+ * {@link #FORBIDDEN}; a row that still lands on one has no feasible partner left, and callers
+ * should treat it as unassigned.
+ */
+public final class HungarianAssignment {
+    
+    public static final double FORBIDDEN = 1e9;
+    
+    private HungarianAssignment() {
+    }
+    
+    /**
+     * @return for each row, the column assigned to it, or -1 if there are fewer columns than rows
+     * and the row was left out
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int columns = cost[0].length;
+        if (rows <= columns) {
+            return solveWide(cost, rows, columns);
+        }
+        
+        // More rows than columns: assign every column instead, then invert
+        double[][] transposed = new double[columns][rows];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                transposed[j][i] = cost[i][j];
+            }
+        }
+        int[] columnToRow = solveWide(transposed, columns, rows);
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        for (int j = 0; j < columns; j++) {
+            assignment[columnToRow[j]] = j;
+        }
+        return assignment;
+    }
+    
+    private static int[] solveWide(double[][] cost, int n, int m) {
+        // 1-based, with column 0 as the virtual source of each augmenting path
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] rowOfColumn = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minSlack = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+        
+        for (int i = 1; i <= n; i++) {
+            rowOfColumn[0] = i;
+            int j0 = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = rowOfColumn[j0];
+                double[] costRow = cost[i0 - 1];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double slack = costRow[j - 1] - u[i0] - v[j];
+                        if (slack < minSlack[j]) {
+                            minSlack[j] = slack;
+                            way[j] = j0;
+                        }
+                        if (minSlack[j] < delta) {
+                            delta = minSlack[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[rowOfColumn[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (rowOfColumn[j0] != 0);
+            
+            do {
+                int j1 = way[j0];
+                rowOfColumn[j0] = rowOfColumn[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        
+        int[] assignment = new int[n];
+        for (int j = 1; j <= m; j++) {
+            if (rowOfColumn[j] != 0) {
+                assignment[rowOfColumn[j] - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+}
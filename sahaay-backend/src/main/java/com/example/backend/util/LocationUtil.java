@@ -5,21 +5,54 @@ import java.math.BigDecimal;
 public class LocationUtil {
     
     private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double BOUNDING_BOX_MARGIN_DEGREES = 1e-9;
+    
+    /** Radii up to this size may use the equirectangular approximation */
+    public static final double EQUIRECTANGULAR_MAX_RADIUS_KM = 250.0;
+    
+    /** Relative error band around the radius in which the approximation defers to haversine */
+    private static final double EQUIRECTANGULAR_TOLERANCE = 0.005;
+    
+    /** Above this latitude meridians converge too quickly for the approximation */
+    private static final double EQUIRECTANGULAR_MAX_LATITUDE = 70.0;
+    
+    /** Indexes of the {@code double[]} filled by {@link #getBoundingBox(double, double, double, double[])} */
+    public static final int MIN_LAT = 0;
+    public static final int MAX_LAT = 1;
+    public static final int MIN_LON = 2;
+    public static final int MAX_LON = 3;
     
     /**
      * Calculate distance between two points using Haversine formula
      * @return distance in kilometers
      */
-    public static double calculateDistance(BigDecimal lat1, BigDecimal lon1, 
+    public static double calculateDistance(BigDecimal lat1, BigDecimal lon1,
                                           BigDecimal lat2, BigDecimal lon2) {
-        double lat1Rad = Math.toRadians(lat1.doubleValue());
-        double lat2Rad = Math.toRadians(lat2.doubleValue());
-        double deltaLat = Math.toRadians(lat2.doubleValue() - lat1.doubleValue());
-        double deltaLon = Math.toRadians(lon2.doubleValue() - lon1.doubleValue());
+        return calculateDistance(lat1.doubleValue(), lon1.doubleValue(),
+                                 lat2.doubleValue(), lon2.doubleValue());
+    }
+    
+    /**
+     * Haversine distance between two points given in degrees
+     * @return distance in kilometers
+     */
+    public static double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        return calculateDistance(lat1, lon1, Math.cos(Math.toRadians(lat1)),
+                                 lat2, lon2, Math.cos(Math.toRadians(lat2)));
+    }
+    
+    /**
+     * Haversine distance with the cosine of each latitude supplied by the caller,
+     * for points whose cosine is precomputed once and reused
+     * @return distance in kilometers
+     */
+    public static double calculateDistance(double lat1, double lon1, double cosLat1,
+                                           double lat2, double lon2, double cosLat2) {
+        double sinHalfDeltaLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinHalfDeltaLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
         
-        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
-                  Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                  Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+        double a = sinHalfDeltaLat * sinHalfDeltaLat +
+                  cosLat1 * cosLat2 * sinHalfDeltaLon * sinHalfDeltaLon;
         
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
         
@@ -32,37 +65,148 @@ public class LocationUtil {
     public static boolean isWithinRadius(BigDecimal centerLat, BigDecimal centerLon,
                                         BigDecimal pointLat, BigDecimal pointLon,
                                         double radiusKm) {
-        double distance = calculateDistance(centerLat, centerLon, pointLat, pointLon);
-        return distance <= radiusKm;
+        return isWithinRadius(centerLat.doubleValue(), centerLon.doubleValue(),
+                              pointLat.doubleValue(), pointLon.doubleValue(), radiusKm);
+    }
+    
+    public static boolean isWithinRadius(double centerLat, double centerLon,
+                                         double pointLat, double pointLon,
+                                         double radiusKm) {
+        return calculateDistance(centerLat, centerLon, pointLat, pointLon) <= radiusKm;
     }
     
     /**
      * Calculate bounding box for a given center and radius
      */
-    public static BoundingBox getBoundingBox(BigDecimal centerLat, BigDecimal centerLon, 
+    public static BoundingBox getBoundingBox(BigDecimal centerLat, BigDecimal centerLon,
                                             double radiusKm) {
-        double lat = centerLat.doubleValue();
-        double lon = centerLon.doubleValue();
-        
-        // Convert radius to degrees
-        double latDelta = radiusKm / 111.32; // 1 degree latitude = ~111.32 km
-        double lonDelta = radiusKm / (111.32 * Math.cos(Math.toRadians(lat)));
+        double[] box = new double[4];
+        getBoundingBox(centerLat.doubleValue(), centerLon.doubleValue(), radiusKm, box);
         
         return new BoundingBox(
-            BigDecimal.valueOf(lat - latDelta),
-            BigDecimal.valueOf(lat + latDelta),
-            BigDecimal.valueOf(lon - lonDelta),
-            BigDecimal.valueOf(lon + lonDelta)
+            BigDecimal.valueOf(box[MIN_LAT]),
+            BigDecimal.valueOf(box[MAX_LAT]),
+            BigDecimal.valueOf(box[MIN_LON]),
+            BigDecimal.valueOf(box[MAX_LON])
         );
     }
     
+    /**
+     * Allocation-free bounding box: writes min/max latitude and longitude into {@code out}
+     * at {@link #MIN_LAT}, {@link #MAX_LAT}, {@link #MIN_LON} and {@link #MAX_LON}
+     */
+    public static void getBoundingBox(double lat, double lon, double radiusKm, double[] out) {
+        // Angular radius on the same sphere as the haversine check, so the box always contains
+        // the circle; the widest longitude is reached where a meridian is tangent to the circle.
+        // A sub-millimetre margin absorbs floating-point rounding at the edge
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius) + BOUNDING_BOX_MARGIN_DEGREES;
+        double sinRatio = Math.sin(angularRadius) / Math.cos(Math.toRadians(lat));
+        double lonDelta = sinRatio < 1.0 ? Math.toDegrees(Math.asin(sinRatio)) + BOUNDING_BOX_MARGIN_DEGREES : 180.0;
+        
+        double minLat = Math.max(-90.0, lat - latDelta);
+        double maxLat = Math.min(90.0, lat + latDelta);
+        double minLon = lon - lonDelta;
+        double maxLon = lon + lonDelta;
+        
+        // Boxes touching a pole or crossing the antimeridian cannot be expressed as a
+        // single longitude range, so widen them to the full range
+        if (minLat <= -90.0 || maxLat >= 90.0 || minLon < -180.0 || maxLon > 180.0) {
+            minLon = -180.0;
+            maxLon = 180.0;
+        }
+        
+        out[MIN_LAT] = minLat;
+        out[MAX_LAT] = maxLat;
+        out[MIN_LON] = minLon;
+        out[MAX_LON] = maxLon;
+    }
+    
+    /**
+     * Fill {@code out} with cos(latitude) for each of the first {@code count} latitudes,
+     * so batch kernels can reuse them across queries
+     */
+    public static void precomputeCosines(double[] lats, int count, double[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = Math.cos(Math.toRadians(lats[i]));
+        }
+    }
+    
+    /**
+     * Batch haversine: distance in kilometers from the origin to each of the first
+     * {@code count} points, written into {@code out}
+     */
+    public static void calculateDistances(double originLat, double originLon,
+                                          double[] lats, double[] lons, double[] cosLats,
+                                          int count, double[] out) {
+        double cosOrigin = Math.cos(Math.toRadians(originLat));
+        for (int i = 0; i < count; i++) {
+            out[i] = calculateDistance(originLat, originLon, cosOrigin, lats[i], lons[i], cosLats[i]);
+        }
+    }
+    
+    /**
+     * Batch radius filter: writes the indexes of points within the radius into
+     * {@code outIndexes} and returns how many were written.
+     * <p>
+     * Short radii away from the poles use an equirectangular projection and only fall
+     * back to haversine for points close to the boundary, so results are identical to
+     * {@link #isWithinRadius(double, double, double, double, double)}.
+     */
+    public static int filterWithinRadius(double originLat, double originLon, double radiusKm,
+                                         double[] lats, double[] lons, double[] cosLats,
+                                         int count, int[] outIndexes) {
+        double cosOrigin = Math.cos(Math.toRadians(originLat));
+        int matches = 0;
+        
+        if (radiusKm > EQUIRECTANGULAR_MAX_RADIUS_KM || Math.abs(originLat) > EQUIRECTANGULAR_MAX_LATITUDE) {
+            for (int i = 0; i < count; i++) {
+                if (calculateDistance(originLat, originLon, cosOrigin, lats[i], lons[i], cosLats[i]) <= radiusKm) {
+                    outIndexes[matches++] = i;
+                }
+            }
+            return matches;
+        }
+        
+        double sinOrigin = Math.sin(Math.toRadians(originLat));
+        double radiusRad = radiusKm / EARTH_RADIUS_KM;
+        double acceptBelow = square(radiusRad * (1 - EQUIRECTANGULAR_TOLERANCE));
+        double rejectAbove = square(radiusRad * (1 + EQUIRECTANGULAR_TOLERANCE));
+        
+        for (int i = 0; i < count; i++) {
+            double deltaLat = Math.toRadians(lats[i] - originLat);
+            double deltaLon = Math.toRadians(lons[i] - originLon);
+            if (deltaLon > Math.PI) {
+                deltaLon -= 2 * Math.PI;
+            } else if (deltaLon < -Math.PI) {
+                deltaLon += 2 * Math.PI;
+            }
+            
+            // cos of the mean latitude, to first order around the origin
+            double x = deltaLon * (cosOrigin - sinOrigin * deltaLat / 2);
+            double squared = x * x + deltaLat * deltaLat;
+            
+            if (squared <= acceptBelow) {
+                outIndexes[matches++] = i;
+            } else if (squared <= rejectAbove
+                    && calculateDistance(originLat, originLon, cosOrigin, lats[i], lons[i], cosLats[i]) <= radiusKm) {
+                outIndexes[matches++] = i;
+            }
+        }
+        return matches;
+    }
+    
+    private static double square(double value) {
+        return value * value;
+    }
+    
     public static class BoundingBox {
         public final BigDecimal minLat;
         public final BigDecimal maxLat;
         public final BigDecimal minLon;
         public final BigDecimal maxLon;
         
-        public BoundingBox(BigDecimal minLat, BigDecimal maxLat, 
+        public BoundingBox(BigDecimal minLat, BigDecimal maxLat,
                           BigDecimal minLon, BigDecimal maxLon) {
             this.minLat = minLat;
             this.maxLat = maxLat;
@@ -71,4 +215,3 @@ public class LocationUtil {
         }
     }
 }
-
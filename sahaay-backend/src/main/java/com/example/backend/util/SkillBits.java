@@ -0,0 +1,55 @@
+package com.example.backend.util;
+
+import java.util.Collection;
+
+/**
+ * Skill sets packed into {@code long[]} bitsets indexed by skill id, so comparing a volunteer's
+ * skills with a request's is a handful of AND and popcount operations instead of a set lookup
+ * per skill.
+ */
+public final class SkillBits {
+    
+    public static final long[] EMPTY = new long[0];
+    
+    private SkillBits() {
+    }
+    
+    public static long[] of(Collection<? extends Number> skillIds) {
+        if (skillIds == null || skillIds.isEmpty()) {
+            return EMPTY;
+        }
+        
+        int maxId = 0;
+        for (Number id : skillIds) {
+            if (id != null) {
+                maxId = Math.max(maxId, id.intValue());
+            }
+        }
+        long[] bits = new long[(maxId >> 6) + 1];
+        for (Number id : skillIds) {
+            if (id != null && id.intValue() >= 0) {
+                bits[id.intValue() >> 6] |= 1L << id.intValue();
+            }
+        }
+        return bits;
+    }
+    
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    
+    /**
+     * Number of skills present in both sets
+     */
+    public static int intersectionCount(long[] a, long[] b) {
+        int count = 0;
+        for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the {@code k} highest-scoring items offered to it in a bounded min-heap, so selecting
+ * the best k of n candidates costs O(n log k) and never holds more than k of them.
+ */
+public class TopK<T> {
+    
+    private final int k;
+    private final PriorityQueue<Scored<T>> heap;
+    
+    public TopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.heap = new PriorityQueue<>(k, (a, b) -> Double.compare(a.score(), b.score()));
+    }
+    
+    /**
+     * Whether an item with this score would be kept, so callers can skip building ones that would not
+     */
+    public boolean accepts(double score) {
+        return heap.size() < k || score > heap.peek().score();
+    }
+    
+    public void offer(T item, double score) {
+        if (heap.size() < k) {
+            heap.add(new Scored<>(item, score));
+        } else if (score > heap.peek().score()) {
+            heap.poll();
+            heap.add(new Scored<>(item, score));
+        }
+    }
+    
+    /**
+     * The retained items, best first
+     */
+    public List<Scored<T>> toSortedList() {
+        List<Scored<T>> result = new ArrayList<>(heap);
+        result.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return result;
+    }
+    
+    public record Scored<T>(T item, double score) {
+    }
+}
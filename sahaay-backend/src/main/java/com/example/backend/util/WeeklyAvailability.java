@@ -0,0 +1,98 @@
+package com.example.backend.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Weekly availability compiled into a bitmap of 7 x 96 fifteen-minute slots, Monday 00:00 first,
+ * so checking whether a volunteer is on shift at a given time is a single bit test.
+ * <p>
+ * Bits are numbered from the least significant bit of each byte, matching PostgreSQL's
+ * {@code get_bit(bytea, n)}, so queries can test the stored bitmap directly.
+ * A {@code null} bitmap means no schedule was given, which counts as always available.
+ */
+public final class WeeklyAvailability {
+    
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+    public static final int BYTES = SLOTS_PER_WEEK / 8;
+    
+    private WeeklyAvailability() {
+    }
+    
+    /**
+     * Compile {@code {"MONDAY": ["09:00-17:00"], ...}} into a bitmap. Days may be full names or
+     * three-letter abbreviations; a range ending at or before its start runs past midnight.
+     * @return the bitmap, or {@code null} if no hours were given
+     * @throws IllegalArgumentException if a day or range cannot be parsed
+     */
+    public static byte[] compile(Map<String, List<String>> hours) {
+        if (hours == null || hours.isEmpty()) {
+            return null;
+        }
+        
+        byte[] bitmap = new byte[BYTES];
+        for (Map.Entry<String, List<String>> entry : hours.entrySet()) {
+            int dayStart = (parseDay(entry.getKey()).getValue() - 1) * SLOTS_PER_DAY;
+            if (entry.getValue() == null) {
+                continue;
+            }
+            for (String range : entry.getValue()) {
+                String[] bounds = range.split("-");
+                if (bounds.length != 2) {
+                    throw new IllegalArgumentException("Invalid availability range: " + range);
+                }
+                int from = parseMinutes(bounds[0]) / SLOT_MINUTES;
+                int to = (parseMinutes(bounds[1]) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+                if (to <= from) {
+                    to += SLOTS_PER_DAY;
+                }
+                for (int slot = from; slot < to; slot++) {
+                    int bit = (dayStart + slot) % SLOTS_PER_WEEK;
+                    bitmap[bit >> 3] |= (byte) (1 << (bit & 7));
+                }
+            }
+        }
+        return bitmap;
+    }
+    
+    public static int slot(DayOfWeek day, LocalTime time) {
+        return (day.getValue() - 1) * SLOTS_PER_DAY + (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+    
+    public static int slot(LocalDateTime dateTime) {
+        return slot(dateTime.getDayOfWeek(), dateTime.toLocalTime());
+    }
+    
+    public static boolean isAvailable(byte[] bitmap, int slot) {
+        return bitmap == null || (bitmap[slot >> 3] & (1 << (slot & 7))) != 0;
+    }
+    
+    private static DayOfWeek parseDay(String day) {
+        String name = day.trim().toUpperCase(Locale.ROOT);
+        for (DayOfWeek value : DayOfWeek.values()) {
+            if (value.name().equals(name) || value.name().startsWith(name) && name.length() == 3) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid availability day: " + day);
+    }
+    
+    private static int parseMinutes(String time) {
+        String value = time.trim();
+        if ("24:00".equals(value)) {
+            return 24 * 60;
+        }
+        try {
+            LocalTime parsed = LocalTime.parse(value.length() == 4 ? "0" + value : value);
+            return parsed.getHour() * 60 + parsed.getMinute();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid availability time: " + time);
+        }
+    }
+}
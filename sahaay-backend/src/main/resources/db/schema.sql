@@ -31,6 +31,7 @@ CREATE TABLE volunteers (
     verification_status VARCHAR(20) DEFAULT 'PENDING' CHECK (verification_status IN ('PENDING', 'VERIFIED', 'REJECTED')),
     background_check_status VARCHAR(20) DEFAULT 'PENDING',
     availability_hours JSONB, -- Store availability as JSON: {"monday": ["09:00-17:00"], "tuesday": ["10:00-18:00"]}
+    availability_bitmap BYTEA, -- availability_hours compiled to 7x96 15-minute slots from Monday 00:00, tested with get_bit
     max_distance_km INTEGER DEFAULT 10,
     volunteer_since DATE DEFAULT CURRENT_DATE,
     total_completed_tasks INTEGER DEFAULT 0,
@@ -213,6 +214,7 @@ CREATE TABLE blood_donors (
     blood_type VARCHAR(5) NOT NULL CHECK (blood_type IN ('A+', 'A-', 'B+', 'B-', 'AB+', 'AB-', 'O+', 'O-')),
     is_available BOOLEAN DEFAULT TRUE,
     last_donation_date DATE,
+    eligible_from DATE NOT NULL DEFAULT CURRENT_DATE, -- last_donation_date + 56 days, maintained by the application
     medical_eligibility BOOLEAN DEFAULT TRUE,
     weight_kg INTEGER,
     health_conditions TEXT,
@@ -263,6 +265,46 @@ CREATE TABLE notifications (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- 15. Outbox Events table (side effects written with the change that caused them)
+CREATE SEQUENCE outbox_events_id_seq INCREMENT BY 50;
+CREATE TABLE outbox_events (
+    id BIGINT PRIMARY KEY DEFAULT nextval('outbox_events_id_seq'),
+    event_type VARCHAR(30) NOT NULL CHECK (event_type IN ('SOS_ALERT', 'NOTIFICATION', 'EMAIL', 'SMS')),
+    aggregate_id BIGINT,
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'DELIVERED', 'FAILED')),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- 16. Notifications Archive table (read notifications moved out by the retention job)
+CREATE TABLE notifications_archive (
+    id BIGINT PRIMARY KEY,
+    recipient_id BIGINT NOT NULL,
+    title VARCHAR(200) NOT NULL,
+    notification_type VARCHAR(30) NOT NULL,
+    related_id BIGINT,
+    created_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 17. Notification Read State tables (watermark inbox mode)
+CREATE TABLE notification_read_state (
+    user_id INTEGER PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    last_read_at TIMESTAMP NOT NULL,
+    last_read_id BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE notification_read_ids (
+    user_id INTEGER NOT NULL REFERENCES notification_read_state(user_id) ON DELETE CASCADE,
+    notification_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, notification_id)
+);
+
 -- Insert some basic skills
 INSERT INTO skills (skill_name, description, category) VALUES
 ('Medical Assistance', 'Basic medical help and first aid', 'medical'),
@@ -288,9 +330,30 @@ CREATE INDEX idx_help_requests_status ON help_requests (status);
 CREATE INDEX idx_help_requests_location ON help_requests (latitude, longitude);
 CREATE INDEX idx_help_requests_category ON help_requests (category);
 CREATE INDEX idx_missing_persons_status ON missing_persons (status);
+CREATE INDEX idx_missing_persons_location ON missing_persons (last_seen_latitude, last_seen_longitude);
+-- Per-row radius upper bounds used to size the bounding-box prefilter of radius queries
+CREATE INDEX idx_help_requests_status_distance ON help_requests (status, max_distance_km);
+CREATE INDEX idx_missing_persons_status_radius ON missing_persons (status, search_radius_km);
+CREATE INDEX idx_volunteers_available_distance ON volunteers (is_available, verification_status, max_distance_km);
+-- Donor matching filters on type and cooldown; cooling-down and unavailable donors are never scanned
+CREATE INDEX idx_blood_donors_eligible ON blood_donors (blood_type, eligible_from) INCLUDE (user_id)
+    WHERE is_available = TRUE AND medical_eligibility = TRUE;
 CREATE INDEX idx_blood_requests_blood_type ON blood_requests (blood_type);
 CREATE INDEX idx_blood_requests_status ON blood_requests (status);
 CREATE INDEX idx_notifications_recipient ON notifications (recipient_id, is_read);
+CREATE INDEX idx_notifications_recipient_created ON notifications (recipient_id, created_at DESC, id DESC);
+
+-- Notification ids are allocated in blocks of 50 by Hibernate's pooled optimizer;
+-- NotificationSequenceUpgrade applies the same change to existing databases at startup
+ALTER SEQUENCE notifications_id_seq INCREMENT BY 50;
+
+-- Retention only scans unread rows that can expire, and read rows by age
+CREATE INDEX idx_notifications_expiring ON notifications (expires_at) WHERE is_read = FALSE AND expires_at IS NOT NULL;
+CREATE INDEX idx_notifications_read_created ON notifications (created_at) WHERE is_read = TRUE;
+CREATE INDEX idx_notifications_archive_recipient ON notifications_archive (recipient_id, created_at);
+
+-- Relay polling only ever touches pending rows
+CREATE INDEX idx_outbox_events_pending ON outbox_events (available_at, id) WHERE status = 'PENDING';
 
 -- Create function to update updated_at timestamp
 CREATE OR REPLACE FUNCTION update_updated_at_column()
@@ -0,0 +1,45 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationSequenceUpgradeTest {
+    
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:sequence-upgrade;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    
+    private long increment() {
+        return jdbcTemplate.queryForObject("SELECT increment FROM information_schema.sequences " +
+                "WHERE sequence_name = 'notifications_id_seq'", Long.class);
+    }
+    
+    @Test
+    void upgradeMovesTheSequenceAWholeBlockPastTheIdsAlreadyHandedOut() {
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS notifications_id_seq");
+        jdbcTemplate.execute("CREATE SEQUENCE notifications_id_seq START WITH 1 INCREMENT BY 1");
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR notifications_id_seq", Long.class);
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR notifications_id_seq", Long.class);
+        
+        new NotificationSequenceUpgrade(dataSource).afterPropertiesSet();
+        new NotificationSequenceUpgrade(dataSource).afterPropertiesSet();
+        
+        assertThat(increment()).isEqualTo(NotificationSequenceUpgrade.INCREMENT);
+        // The upgrade burns id 3; the pooled optimizer reads 53 as the top of the block 4..53
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR notifications_id_seq", Long.class))
+                .isEqualTo(53L);
+    }
+    
+    @Test
+    void missingSequenceIsLeftForHibernateToCreate() {
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS notifications_id_seq");
+        
+        new NotificationSequenceUpgrade(dataSource).afterPropertiesSet();
+        
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.sequences " +
+                "WHERE sequence_name = 'notifications_id_seq'", Long.class)).isZero();
+    }
+}
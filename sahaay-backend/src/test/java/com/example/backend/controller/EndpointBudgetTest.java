@@ -0,0 +1,309 @@
+package com.example.backend.controller;
+
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.BloodRequest;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.entity.SOSAlert;
+import com.example.backend.entity.Skill;
+import com.example.backend.entity.User;
+import com.example.backend.entity.Volunteer;
+import com.example.backend.repository.BloodDonorRepository;
+import com.example.backend.repository.BloodRequestRepository;
+import com.example.backend.repository.HelpRequestRepository;
+import com.example.backend.repository.SOSAlertRepository;
+import com.example.backend.repository.SkillRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.repository.VolunteerRepository;
+import com.example.backend.service.BloodDonationService;
+import com.example.backend.service.SOSAlertService;
+import com.example.backend.service.VolunteerService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.assertj.core.api.SoftAssertions;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls read endpoints against a seeded dataset and fails when one costs more than its budget in
+ * {@value #BUDGETS}: statements prepared, entities loaded, collections fetched and bytes allocated
+ * on the request thread (median of several calls after warm-up).
+ * <p>
+ * Budgets are ceilings, so an endpoint getting cheaper never fails. Measured costs are written to
+ * {@value #ACTUALS} to copy from when a change legitimately raises one.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:endpoint-budgets;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // Keep background jobs from issuing queries while requests are measured
+    "app.outbox.relay.poll-interval=3600000",
+    "app.notifications.retention.initial-delay=3600000"
+})
+class EndpointBudgetTest {
+    
+    private static final String BUDGETS = "endpoint-budgets.properties";
+    private static final String ACTUALS = "target/endpoint-costs.properties";
+    private static final int WARMUP_CALLS = 5;
+    private static final int MEASURED_CALLS = 5;
+    
+    private static final double LATITUDE = 23.8103;
+    private static final double LONGITUDE = 90.4125;
+    private static final int REQUESTERS = 40;
+    private static final int VOLUNTEERS = 30;
+    private static final int DONORS = 30;
+    private static final int ALERTS = 40;
+    private static final int HELP_REQUESTS = 40;
+    private static final int BLOOD_REQUESTS = 20;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SkillRepository skillRepository;
+    
+    @Autowired
+    private VolunteerRepository volunteerRepository;
+    
+    @Autowired
+    private BloodDonorRepository bloodDonorRepository;
+    
+    @Autowired
+    private SOSAlertRepository sosAlertRepository;
+    
+    @Autowired
+    private HelpRequestRepository helpRequestRepository;
+    
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+    
+    @Autowired
+    private VolunteerService volunteerService;
+    
+    @Autowired
+    private SOSAlertService sosAlertService;
+    
+    @Autowired
+    private BloodDonationService bloodDonationService;
+    
+    private final Properties budgets = new Properties();
+    private final Map<String, Long> actuals = new TreeMap<>();
+    private final Random random = new Random(42);
+    private User admin;
+    
+    @BeforeAll
+    void seed() throws IOException {
+        try (InputStream in = new ClassPathResource(BUDGETS).getInputStream()) {
+            budgets.load(in);
+        }
+        
+        admin = userRepository.save(member("admin", User.UserType.ADMIN));
+        List<User> requesters = new ArrayList<>();
+        for (int i = 0; i < REQUESTERS; i++) {
+            requesters.add(member("requester" + i, User.UserType.GENERAL));
+        }
+        requesters = userRepository.saveAll(requesters);
+        
+        List<Skill> skills = new ArrayList<>();
+        for (String name : List.of("First Aid", "Driving", "Cooking", "Elder Care", "Translation")) {
+            skills.add(Skill.builder().skillName(name).category("General").build());
+        }
+        skills = skillRepository.saveAll(skills);
+        
+        List<Volunteer> volunteers = new ArrayList<>();
+        List<BloodDonor> donors = new ArrayList<>();
+        BloodDonor.BloodType[] bloodTypes = BloodDonor.BloodType.values();
+        for (int i = 0; i < Math.max(VOLUNTEERS, DONORS); i++) {
+            User member = userRepository.save(member("member" + i, User.UserType.VOLUNTEER));
+            if (i < VOLUNTEERS) {
+                volunteers.add(Volunteer.builder()
+                        .user(member)
+                        .verificationStatus(Volunteer.VerificationStatus.VERIFIED)
+                        .maxDistanceKm(15)
+                        .skills(new ArrayList<>(List.of(skills.get(i % skills.size()),
+                                skills.get((i + 1) % skills.size()))))
+                        .build());
+            }
+            if (i < DONORS) {
+                donors.add(BloodDonor.builder()
+                        .user(member)
+                        .bloodType(bloodTypes[i % bloodTypes.length])
+                        .build());
+            }
+        }
+        volunteerRepository.saveAll(volunteers);
+        bloodDonorRepository.saveAll(donors);
+        
+        List<SOSAlert> alerts = new ArrayList<>();
+        for (int i = 0; i < ALERTS; i++) {
+            alerts.add(SOSAlert.builder()
+                    .user(requesters.get(i % REQUESTERS))
+                    .latitude(near(LATITUDE))
+                    .longitude(near(LONGITUDE))
+                    .alertMessage("Need help")
+                    .build());
+        }
+        sosAlertRepository.saveAll(alerts);
+        
+        List<HelpRequest> helpRequests = new ArrayList<>();
+        for (int i = 0; i < HELP_REQUESTS; i++) {
+            helpRequests.add(HelpRequest.builder()
+                    .requester(requesters.get(i % REQUESTERS))
+                    .title("Help request " + i)
+                    .description("Groceries and a ride to the clinic")
+                    .category("General")
+                    .requiredSkills(new Integer[] {skills.get(i % skills.size()).getId().intValue()})
+                    .latitude(near(LATITUDE))
+                    .longitude(near(LONGITUDE))
+                    .build());
+        }
+        helpRequestRepository.saveAll(helpRequests);
+        
+        List<BloodRequest> bloodRequests = new ArrayList<>();
+        for (int i = 0; i < BLOOD_REQUESTS; i++) {
+            bloodRequests.add(BloodRequest.builder()
+                    .requester(requesters.get(i % REQUESTERS))
+                    .patientName("Patient " + i)
+                    .bloodType(bloodTypes[i % bloodTypes.length])
+                    .unitsNeeded(2)
+                    .urgency(i % 2 == 0 ? BloodRequest.Urgency.CRITICAL : BloodRequest.Urgency.HIGH)
+                    .hospitalLatitude(near(LATITUDE))
+                    .hospitalLongitude(near(LONGITUDE))
+                    .build());
+        }
+        bloodRequestRepository.saveAll(bloodRequests);
+        
+        // The in-memory indexes loaded at startup, before the seed data existed
+        volunteerService.loadVolunteerIndex();
+        sosAlertService.loadActiveAlertIndex();
+        bloodDonationService.loadDonorPool();
+    }
+    
+    @AfterAll
+    void writeActuals() throws IOException {
+        Path path = Path.of(ACTUALS);
+        Files.createDirectories(path.getParent());
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            for (Map.Entry<String, Long> actual : actuals.entrySet()) {
+                writer.write(actual.getKey() + "=" + actual.getValue() + System.lineSeparator());
+            }
+        }
+    }
+    
+    private User member(String username, User.UserType type) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash("hash")
+                .fullName("User " + username)
+                .userType(type)
+                .latitude(near(LATITUDE))
+                .longitude(near(LONGITUDE))
+                .build();
+    }
+    
+    /**
+     * A point within about 5 km of {@code center}
+     */
+    private BigDecimal near(double center) {
+        return BigDecimal.valueOf(center + (random.nextDouble() - 0.5) * 0.09);
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+        "sos-alerts-active       | /sos/alerts/active",
+        "sos-alerts-nearby       | /sos/alerts/nearby?latitude=23.8103&longitude=90.4125&radiusKm=10",
+        "help-requests-open      | /help-requests/open",
+        "help-requests-nearby    | /help-requests/nearby?latitude=23.8103&longitude=90.4125",
+        "volunteers-available    | /volunteers/available",
+        "volunteers-nearby       | /volunteers/nearby?latitude=23.8103&longitude=90.4125",
+        "blood-donors-available  | /blood/donors/available?bloodType=O%2B",
+        "blood-requests-active   | /blood/requests/active",
+        "blood-requests-urgent   | /blood/requests/urgent"
+    })
+    void staysWithinBudget(String endpoint, String uri) throws Exception {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call(uri);
+        }
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] allocated = new long[MEASURED_CALLS];
+        long queries = 0;
+        long entityLoads = 0;
+        long collectionFetches = 0;
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            statistics.clear();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            call(uri);
+            allocated[i] = threads.getThreadAllocatedBytes(threadId) - before;
+            queries = Math.max(queries, statistics.getPrepareStatementCount());
+            entityLoads = Math.max(entityLoads, statistics.getEntityLoadCount());
+            collectionFetches = Math.max(collectionFetches, statistics.getCollectionFetchCount());
+        }
+        Arrays.sort(allocated);
+        long allocatedKb = allocated[MEASURED_CALLS / 2] / 1024;
+        
+        SoftAssertions softly = new SoftAssertions();
+        assertWithinBudget(softly, endpoint, "queries", queries);
+        assertWithinBudget(softly, endpoint, "entity-loads", entityLoads);
+        assertWithinBudget(softly, endpoint, "collection-fetches", collectionFetches);
+        assertWithinBudget(softly, endpoint, "allocated-kb", allocatedKb);
+        softly.assertAll();
+    }
+    
+    private void call(String uri) throws Exception {
+        mockMvc.perform(get(URI.create(uri)).with(user(admin))).andExpect(status().isOk());
+    }
+    
+    private void assertWithinBudget(SoftAssertions softly, String endpoint, String metric, long actual) {
+        String key = endpoint + "." + metric;
+        actuals.put(key, actual);
+        String budget = budgets.getProperty(key);
+        if (budget == null) {
+            softly.fail("No budget for %s in %s (measured %d)", key, BUDGETS, actual);
+            return;
+        }
+        softly.assertThat(actual).as("%s over budget", key).isLessThanOrEqualTo(Long.parseLong(budget.trim()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SOSAlertDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveSOSAlertIndexTest {
+
+    private static SOSAlertDTO alert(long id, String lat, String lon, LocalDateTime createdAt) {
+        return SOSAlertDTO.builder()
+                .id(id)
+                .latitude(new BigDecimal(lat))
+                .longitude(new BigDecimal(lon))
+                .status("ACTIVE")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Test
+    void findsOnlyAlertsInsideRadiusNewestFirst() {
+        ActiveSOSAlertIndex index = new ActiveSOSAlertIndex(0.05);
+        LocalDateTime now = LocalDateTime.now();
+        index.load(() -> List.of(
+            alert(1, "23.8103", "90.4125", now.minusMinutes(5)),
+            alert(2, "23.8150", "90.4200", now),
+            alert(3, "22.3569", "91.7832", now)   // ~200km away
+        ));
+
+        List<SOSAlertDTO> nearby = index.findWithinRadius(new BigDecimal("23.8110"), new BigDecimal("90.4130"), 5);
+
+        assertThat(nearby).extracting(SOSAlertDTO::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void removedAlertsAreNoLongerReturned() {
+        ActiveSOSAlertIndex index = new ActiveSOSAlertIndex(0.05);
+        index.load(() -> List.of(alert(1, "23.8103", "90.4125", LocalDateTime.now())));
+
+        index.remove(1L);
+
+        assertThat(index.findWithinRadius(new BigDecimal("23.8103"), new BigDecimal("90.4125"), 5)).isEmpty();
+    }
+
+    @Test
+    void handlesQueriesAcrossTheAntimeridian() {
+        ActiveSOSAlertIndex index = new ActiveSOSAlertIndex(0.05);
+        index.load(() -> List.of(alert(1, "-17.0", "179.99", LocalDateTime.now())));
+
+        assertThat(index.findWithinRadius(new BigDecimal("-17.0"), new BigDecimal("-179.99"), 10))
+                .extracting(SOSAlertDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void mutationsCommittedDuringLoadAreAppliedOverTheSnapshot() {
+        ActiveSOSAlertIndex index = new ActiveSOSAlertIndex(0.05);
+        SOSAlertDTO resolved = alert(1, "23.8103", "90.4125", LocalDateTime.now());
+        SOSAlertDTO created = alert(2, "23.8110", "90.4130", LocalDateTime.now());
+
+        // The snapshot was read before alert 1 was resolved and before alert 2 was created
+        index.load(() -> {
+            List<SOSAlertDTO> snapshot = List.of(resolved);
+            index.remove(1L);
+            index.add(created);
+            return snapshot;
+        });
+
+        assertThat(index.findWithinRadius(new BigDecimal("23.8103"), new BigDecimal("90.4125"), 5))
+                .extracting(SOSAlertDTO::getId).containsExactly(2L);
+    }
+}
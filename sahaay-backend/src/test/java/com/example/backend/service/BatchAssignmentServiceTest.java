@@ -0,0 +1,149 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BatchAssignmentDTO;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.service.VolunteerIndex.IndexedVolunteer;
+import com.example.backend.util.SkillBits;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchAssignmentServiceTest {
+    
+    private static final double LATITUDE = 23.8103;
+    private static final double LONGITUDE = 90.4125;
+    
+    private final VolunteerMatcher matcher = new VolunteerMatcher(5, 0.5, 0.25, 0.15, 0.1);
+    
+    private BatchAssignmentService service(int partitionSize) {
+        return service(partitionSize, 20);
+    }
+    
+    private BatchAssignmentService service(int partitionSize, int maxCandidates) {
+        return new BatchAssignmentService(null, null, null, null, matcher, null, null,
+                5000, partitionSize, maxCandidates, 0.1, 0.5);
+    }
+    
+    private static VolunteerIndex index(List<IndexedVolunteer> volunteers) {
+        VolunteerIndex index = new VolunteerIndex(0.1);
+        index.load(volunteers);
+        return index;
+    }
+    
+    private static HelpRequest request(long id, HelpRequest.Urgency urgency, double latitude, Integer... skills) {
+        return HelpRequest.builder()
+                .id(id)
+                .urgency(urgency)
+                .requiredSkills(skills)
+                .latitude(BigDecimal.valueOf(latitude))
+                .longitude(BigDecimal.valueOf(LONGITUDE))
+                .build();
+    }
+    
+    private static IndexedVolunteer volunteer(long id, double latitude, Long... skills) {
+        return ratedVolunteer(id, latitude, 4.0, skills);
+    }
+    
+    private static IndexedVolunteer ratedVolunteer(long id, double latitude, double rating, Long... skills) {
+        return new IndexedVolunteer(id, 100 + id, "Volunteer " + id, "FEMALE", SkillBits.of(List.of(skills)),
+                null, true, latitude, LONGITUDE, Math.cos(Math.toRadians(latitude)), 10, rating, 0);
+    }
+    
+    private static Map<Long, Long> byRequest(BatchAssignmentService.Plan plan) {
+        return plan.assignments().stream().collect(Collectors.toMap(
+                BatchAssignmentDTO.Assignment::getRequestId, BatchAssignmentDTO.Assignment::getVolunteerId));
+    }
+    
+    @Test
+    void givesUpALocalBestMatchWhenThatServesMoreRequests() {
+        // Volunteer 1 fits both requests, volunteer 2 only the first; greedy would strand request 2
+        List<HelpRequest> requests = List.of(
+                request(1, HelpRequest.Urgency.MEDIUM, LATITUDE, 1),
+                request(2, HelpRequest.Urgency.MEDIUM, LATITUDE, 2));
+        List<IndexedVolunteer> volunteers = List.of(
+                volunteer(1, LATITUDE, 1L, 2L),
+                volunteer(2, LATITUDE, 1L));
+        
+        BatchAssignmentService.Plan plan = service(300).plan(requests, index(volunteers));
+        
+        assertThat(byRequest(plan)).containsEntry(1L, 2L).containsEntry(2L, 1L);
+        assertThat(plan.partitions()).isEqualTo(1);
+    }
+    
+    @Test
+    void servesUrgentRequestsFirstWhenVolunteersAreShort() {
+        List<HelpRequest> requests = List.of(
+                request(1, HelpRequest.Urgency.LOW, LATITUDE, 1),
+                request(2, HelpRequest.Urgency.URGENT, LATITUDE, 1));
+        
+        BatchAssignmentService.Plan plan = service(300).plan(requests, index(List.of(volunteer(1, LATITUDE, 1L))));
+        
+        assertThat(byRequest(plan)).containsOnlyKeys(2L);
+    }
+    
+    @Test
+    void neverAssignsVolunteersOutsideTheirRadius() {
+        List<HelpRequest> requests = List.of(request(1, HelpRequest.Urgency.HIGH, LATITUDE, 1));
+        
+        BatchAssignmentService.Plan plan = service(300).plan(requests, index(List.of(volunteer(1, LATITUDE + 1, 1L))));
+        
+        assertThat(plan.assignments()).isEmpty();
+    }
+    
+    @Test
+    void requestsSharingNoCandidatesAreSolvedSeparately() {
+        List<HelpRequest> requests = new ArrayList<>();
+        List<IndexedVolunteer> volunteers = new ArrayList<>();
+        for (int cell = 0; cell < 3; cell++) {
+            double latitude = LATITUDE + cell;
+            for (int i = 0; i < 4; i++) {
+                long id = cell * 10L + i;
+                requests.add(request(id, HelpRequest.Urgency.MEDIUM, latitude, 1));
+                volunteers.add(volunteer(id, latitude, 1L));
+            }
+        }
+        
+        BatchAssignmentService.Plan plan = service(5).plan(requests, index(volunteers));
+        
+        assertThat(plan.partitions()).isEqualTo(3);
+        assertThat(plan.assignments()).hasSize(12);
+        assertThat(plan.assignments()).allSatisfy(assignment ->
+                assertThat(assignment.getVolunteerId() / 10).isEqualTo(assignment.getRequestId() / 10));
+    }
+    
+    @Test
+    void groupsLargerThanThePartitionSizeAreSolvedInChunks() {
+        List<HelpRequest> requests = new ArrayList<>();
+        List<IndexedVolunteer> volunteers = new ArrayList<>();
+        for (long id = 1; id <= 6; id++) {
+            requests.add(request(id, HelpRequest.Urgency.MEDIUM, LATITUDE, 1));
+            volunteers.add(volunteer(id, LATITUDE, 1L));
+        }
+        
+        BatchAssignmentService.Plan plan = service(4).plan(requests, index(volunteers));
+        
+        assertThat(plan.partitions()).isEqualTo(2);
+        assertThat(byRequest(plan)).hasSize(6);
+        assertThat(byRequest(plan).values()).doesNotHaveDuplicates();
+    }
+    
+    @Test
+    void eachRequestOnlyWeighsItsBestCandidates() {
+        List<HelpRequest> requests = List.of(
+                request(1, HelpRequest.Urgency.URGENT, LATITUDE, 1),
+                request(2, HelpRequest.Urgency.LOW, LATITUDE, 1));
+        List<IndexedVolunteer> volunteers = List.of(
+                ratedVolunteer(1, LATITUDE, 5.0, 1L),
+                ratedVolunteer(2, LATITUDE, 1.0, 1L));
+        
+        BatchAssignmentService.Plan plan = service(300, 1).plan(requests, index(volunteers));
+        
+        assertThat(byRequest(plan)).containsExactly(Map.entry(1L, 1L));
+    }
+}
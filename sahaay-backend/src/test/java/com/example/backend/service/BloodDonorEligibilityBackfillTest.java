@@ -0,0 +1,69 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.User;
+import com.example.backend.repository.BloodDonorRepository;
+import com.example.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(BloodDonorEligibilityBackfill.class)
+@ActiveProfiles("test")
+class BloodDonorEligibilityBackfillTest {
+    
+    @Autowired
+    private BloodDonorEligibilityBackfill backfill;
+    
+    @Autowired
+    private BloodDonorRepository bloodDonorRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    private Long donor(String name, LocalDate lastDonationDate) {
+        User user = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .passwordHash("hash")
+                .fullName(name)
+                .build());
+        return bloodDonorRepository.save(BloodDonor.builder()
+                .user(user)
+                .bloodType(BloodDonor.BloodType.O_NEGATIVE)
+                .lastDonationDate(lastDonationDate)
+                .eligibleFrom(null)
+                .build()).getId();
+    }
+    
+    @Test
+    void fillsEligibilityOfDonorsRegisteredBeforeTheColumn() {
+        LocalDate today = LocalDate.now();
+        Long recent = donor("recent", today.minusDays(10));
+        Long neverDonated = donor("never", null);
+        entityManager.flush();
+        entityManager.clear();
+        
+        backfill.run();
+        entityManager.flush();
+        entityManager.clear();
+        
+        assertThat(bloodDonorRepository.findById(recent).orElseThrow().getEligibleFrom())
+                .isEqualTo(today.minusDays(10).plusDays(BloodDonor.DONATION_COOLDOWN_DAYS));
+        assertThat(bloodDonorRepository.findById(neverDonated).orElseThrow().getEligibleFrom()).isEqualTo(today);
+        assertThat(bloodDonorRepository.findAllAvailableDonors(today))
+                .extracting(BloodDonor::getId)
+                .containsExactly(neverDonated);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BloodDonorEligibilityJobTest {
+    
+    private static final LocalDate TODAY = LocalDate.now();
+    
+    private final BloodDonationService bloodDonationService = mock(BloodDonationService.class);
+    private final BloodDonorPool donorPool = mock(BloodDonorPool.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BloodDonorEligibilityJob job =
+            new BloodDonorEligibilityJob(bloodDonationService, donorPool, meterRegistry);
+    
+    @Test
+    void eachRunOnlyReadsDonorsWhoseCooldownEndedSinceTheLastRun() {
+        when(donorPool.isWarm()).thenReturn(true);
+        when(bloodDonationService.returnEligibleDonorsToPool(TODAY, TODAY.plusDays(1))).thenReturn(3);
+        when(bloodDonationService.returnEligibleDonorsToPool(TODAY.plusDays(1), TODAY.plusDays(3))).thenReturn(2);
+        
+        assertThat(job.run(TODAY)).isZero();
+        assertThat(job.run(TODAY.plusDays(1))).isEqualTo(3);
+        // A missed night is caught up in one step
+        assertThat(job.run(TODAY.plusDays(3))).isEqualTo(2);
+        
+        assertThat(meterRegistry.counter("blood.donors.eligibility.restored").count()).isEqualTo(5.0);
+    }
+    
+    @Test
+    void failedRunIsRetriedFromTheSameDay() {
+        when(donorPool.isWarm()).thenReturn(true);
+        when(bloodDonationService.returnEligibleDonorsToPool(TODAY, TODAY.plusDays(1)))
+                .thenThrow(new IllegalStateException("database unavailable"));
+        when(bloodDonationService.returnEligibleDonorsToPool(TODAY, TODAY.plusDays(2))).thenReturn(4);
+        
+        assertThat(job.run(TODAY.plusDays(1))).isZero();
+        assertThat(job.run(TODAY.plusDays(2))).isEqualTo(4);
+    }
+    
+    @Test
+    void coldPoolsAreNotTouched() {
+        when(donorPool.isWarm()).thenReturn(false);
+        
+        assertThat(job.run(TODAY.plusDays(1))).isZero();
+        verify(bloodDonationService, never()).returnEligibleDonorsToPool(any(), any());
+    }
+}
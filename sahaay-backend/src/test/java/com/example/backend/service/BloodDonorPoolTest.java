@@ -0,0 +1,66 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BloodDonorDTO;
+import com.example.backend.entity.BloodDonor.BloodType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloodDonorPoolTest {
+    
+    private final BloodDonorPool pool = new BloodDonorPool();
+    
+    private static BloodDonorPool.PooledDonor donor(long id, BloodType type, boolean available) {
+        return BloodDonorPool.PooledDonor.of(BloodDonorDTO.builder()
+                .id(id)
+                .userId(100 + id)
+                .bloodType(type.getValue())
+                .isAvailable(available)
+                .medicalEligibility(true)
+                .build(), null, null);
+    }
+    
+    @Test
+    void requestsDrawOnEveryCompatiblePoolExactMatchesFirst() {
+        pool.load(List.of(
+            donor(1, BloodType.O_NEGATIVE, true),
+            donor(2, BloodType.A_POSITIVE, true),
+            donor(3, BloodType.B_POSITIVE, true),
+            donor(4, BloodType.A_NEGATIVE, false)));
+        
+        assertThat(pool.findCompatible(BloodType.A_POSITIVE))
+                .extracting(BloodDonorDTO::getId)
+                .containsExactly(2L, 1L);
+        assertThat(pool.findCompatibleUserIds(BloodType.O_NEGATIVE)).containsExactly(101L);
+    }
+    
+    @Test
+    void updatesMoveDonorsInAndOutOfPools() {
+        pool.load(List.of(donor(1, BloodType.O_POSITIVE, true)));
+        
+        pool.update(donor(1, BloodType.O_POSITIVE, false));
+        pool.update(donor(2, BloodType.B_NEGATIVE, true));
+        
+        assertThat(pool.findCompatibleUserIds(BloodType.AB_POSITIVE)).containsExactly(102L);
+        assertThat(pool.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void donorsInCooldownStayOutOfThePools() {
+        BloodDonorPool.PooledDonor coolingDown = BloodDonorPool.PooledDonor.of(BloodDonorDTO.builder()
+                .id(5L)
+                .userId(105L)
+                .bloodType(BloodType.O_NEGATIVE.getValue())
+                .isAvailable(true)
+                .medicalEligibility(true)
+                .eligibleFrom(LocalDate.now().plusDays(10))
+                .build(), null, null);
+        
+        pool.load(List.of(coolingDown, donor(1, BloodType.O_NEGATIVE, true)));
+        
+        assertThat(pool.findCompatibleUserIds(BloodType.O_NEGATIVE)).containsExactly(101L);
+    }
+}
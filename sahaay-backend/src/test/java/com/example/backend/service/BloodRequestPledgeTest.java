@@ -0,0 +1,132 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.BloodRequest;
+import com.example.backend.entity.User;
+import com.example.backend.repository.BloodRequestRepository;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pledges run in their own committed transactions here, so concurrent callers really contend
+ * on the same row
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BloodRequestPledgeTest {
+    
+    private static final int THREADS = 8;
+    private static final int PLEDGES_PER_THREAD = 25;
+    
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    private User requester;
+    
+    @BeforeEach
+    void createRequester() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        requester = userRepository.save(User.builder()
+                .username("hospital")
+                .email("hospital@example.com")
+                .passwordHash("hash")
+                .fullName("City Hospital")
+                .build());
+    }
+    
+    @AfterEach
+    void cleanUp() {
+        bloodRequestRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+    
+    private BloodRequest request(int unitsNeeded) {
+        return bloodRequestRepository.save(BloodRequest.builder()
+                .requester(requester)
+                .patientName("Patient")
+                .bloodType(BloodDonor.BloodType.O_NEGATIVE)
+                .unitsNeeded(unitsNeeded)
+                .urgency(BloodRequest.Urgency.CRITICAL)
+                .build());
+    }
+    
+    private int pledge(Long requestId, int units) {
+        return transactionTemplate.execute(status ->
+                bloodRequestRepository.pledgeUnits(requestId, units, LocalDateTime.now()));
+    }
+    
+    @Test
+    void pledgesDeriveStatusAndStopOnceFulfilled() {
+        Long id = request(3).getId();
+        
+        assertThat(pledge(id, 1)).isEqualTo(1);
+        assertThat(bloodRequestRepository.findById(id).orElseThrow().getStatus())
+                .isEqualTo(BloodRequest.Status.PARTIALLY_FULFILLED);
+        
+        assertThat(pledge(id, 2)).isEqualTo(1);
+        assertThat(pledge(id, 1)).isZero();
+        
+        BloodRequest fulfilled = bloodRequestRepository.findById(id).orElseThrow();
+        assertThat(fulfilled.getStatus()).isEqualTo(BloodRequest.Status.FULFILLED);
+        assertThat(fulfilled.getFulfilledUnits()).isEqualTo(3);
+    }
+    
+    @Test
+    void concurrentPledgesAreNeverLost() throws Exception {
+        Long id = request(THREADS * PLEDGES_PER_THREAD).getId();
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < PLEDGES_PER_THREAD; i++) {
+                    accepted.addAndGet(pledge(id, 1));
+                }
+                return null;
+            }));
+        }
+        
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        BloodRequest request = bloodRequestRepository.findById(id).orElseThrow();
+        assertThat(accepted.get()).isEqualTo(THREADS * PLEDGES_PER_THREAD);
+        assertThat(request.getFulfilledUnits()).isEqualTo(THREADS * PLEDGES_PER_THREAD);
+        assertThat(request.getStatus()).isEqualTo(BloodRequest.Status.FULFILLED);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BloodRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BloodRequestWaveSchedulerTest {
+    
+    private final BloodDonationService bloodDonationService = mock(BloodDonationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BloodRequestWaveScheduler scheduler;
+    
+    BloodRequestWaveSchedulerTest() {
+        ObjectProvider<BloodDonationService> provider = mock();
+        when(provider.getObject()).thenReturn(bloodDonationService);
+        scheduler = new BloodRequestWaveScheduler(provider, meterRegistry, 2, 4, Duration.ofMillis(50),
+                5, 2.0, 20, 1, Duration.ofMillis(5), 64);
+        scheduler.start();
+    }
+    
+    @AfterEach
+    void stopScheduler() {
+        scheduler.stop();
+    }
+    
+    private static BloodRequest request(long id) {
+        return BloodRequest.builder().id(id).urgency(BloodRequest.Urgency.HIGH).build();
+    }
+    
+    @Test
+    void wavesWidenTheRadiusAndTakeMoreDonorsEachTime() {
+        when(bloodDonationService.notifyDonorWave(eq(1L), anyInt(), anyDouble(), anySet()))
+                .thenReturn(Optional.of(List.of(10L, 11L)))
+                .thenReturn(Optional.of(List.of(12L)))
+                .thenReturn(Optional.of(List.of(13L)))
+                .thenReturn(Optional.of(List.of()));
+        
+        scheduler.start(request(1L));
+        
+        verify(bloodDonationService, timeout(2000)).notifyDonorWave(eq(1L), eq(2), eq(5.0), anySet());
+        verify(bloodDonationService, timeout(2000)).notifyDonorWave(eq(1L), eq(4), eq(10.0), anySet());
+        verify(bloodDonationService, timeout(2000)).notifyDonorWave(eq(1L), eq(6), eq(20.0), anySet());
+        verify(bloodDonationService, timeout(2000)).notifyDonorWave(eq(1L), eq(8), eq(20.0), anySet());
+        verify(bloodDonationService, after(200).times(4)).notifyDonorWave(eq(1L), anyInt(), anyDouble(), anySet());
+        assertThat(meterRegistry.counter("blood.request.waves.stopped", "reason", "max_waves").count())
+                .isEqualTo(1.0);
+    }
+    
+    @Test
+    void closingTheRequestCancelsLaterWaves() {
+        when(bloodDonationService.notifyDonorWave(eq(2L), anyInt(), anyDouble(), anySet()))
+                .thenReturn(Optional.of(List.of(10L)));
+        
+        scheduler.start(request(2L));
+        verify(bloodDonationService, timeout(2000)).notifyDonorWave(eq(2L), anyInt(), anyDouble(), anySet());
+        scheduler.stop(2L);
+        
+        verify(bloodDonationService, after(200).times(1)).notifyDonorWave(eq(2L), anyInt(), anyDouble(), anySet());
+        assertThat(scheduler.isActive(2L)).isFalse();
+    }
+    
+    @Test
+    void fulfilledRequestEndsTheWaves() {
+        when(bloodDonationService.notifyDonorWave(eq(3L), anyInt(), anyDouble(), anySet()))
+                .thenReturn(Optional.of(List.of(10L)))
+                .thenReturn(Optional.empty());
+        
+        scheduler.start(request(3L));
+        
+        verify(bloodDonationService, timeout(2000).times(2)).notifyDonorWave(eq(3L), anyInt(), anyDouble(), anySet());
+        verify(bloodDonationService, after(200).times(2)).notifyDonorWave(eq(3L), anyInt(), anyDouble(), anySet());
+        assertThat(scheduler.isActive(3L)).isFalse();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.entity.SOSAlert;
+import com.example.backend.entity.User;
+import com.example.backend.entity.Volunteer;
+import com.example.backend.exception.ClaimConflictException;
+import com.example.backend.repository.HelpRequestRepository;
+import com.example.backend.repository.SOSAlertRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.repository.VolunteerRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races claimants against the real conditional updates, each claim in its own transaction, so
+ * exactly-one-winner is checked against the database rather than a stand-in. Throughput of the
+ * contended claims is written to {@value #THROUGHPUT}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:claim-contention;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "app.outbox.relay.poll-interval=3600000",
+    "app.notifications.retention.initial-delay=3600000",
+    // The test profile logs at TRACE, which would dominate the measured throughput
+    "logging.level.root=WARN"
+})
+class ClaimContentionTest {
+    
+    private static final String THROUGHPUT = "target/claim-throughput.properties";
+    private static final int CLAIMANTS = 8;
+    private static final int ITEMS = 40;
+    private static final BigDecimal LATITUDE = new BigDecimal("23.8103");
+    private static final BigDecimal LONGITUDE = new BigDecimal("90.4125");
+    
+    @Autowired
+    private SOSAlertService sosAlertService;
+    
+    @Autowired
+    private HelpRequestService helpRequestService;
+    
+    @Autowired
+    private SOSAlertRepository sosAlertRepository;
+    
+    @Autowired
+    private HelpRequestRepository helpRequestRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private VolunteerRepository volunteerRepository;
+    
+    private final Map<String, Long> throughput = new TreeMap<>();
+    private User requester;
+    private final List<Long> responderIds = new ArrayList<>();
+    private final List<Long> volunteerIds = new ArrayList<>();
+    
+    @BeforeAll
+    void seed() {
+        requester = userRepository.save(member("requester"));
+        for (int i = 0; i < CLAIMANTS; i++) {
+            User claimant = userRepository.save(member("claimant" + i));
+            responderIds.add(claimant.getId());
+            volunteerIds.add(volunteerRepository.save(Volunteer.builder()
+                    .user(claimant)
+                    .verificationStatus(Volunteer.VerificationStatus.VERIFIED)
+                    .build()).getId());
+        }
+    }
+    
+    @AfterAll
+    void writeThroughput() throws IOException {
+        Path path = Path.of(THROUGHPUT);
+        Files.createDirectories(path.getParent());
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            for (Map.Entry<String, Long> entry : throughput.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + System.lineSeparator());
+            }
+        }
+    }
+    
+    private static User member(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash("hash")
+                .fullName(username)
+                .build();
+    }
+    
+    /**
+     * Every claimant claims every item, in the same order, all starting together
+     * @return the winner each item's claimants were told about, failing if they disagree
+     */
+    private Map<Long, Long> race(String name, List<Long> itemIds, List<Long> claimantIds,
+                                 BiFunction<Long, Long, Long> claim) throws Exception {
+        ConcurrentMap<Long, Long> winners = new ConcurrentHashMap<>();
+        ConcurrentMap<Long, Integer> wins = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(claimantIds.size());
+        try {
+            List<Future<?>> claimants = new ArrayList<>();
+            for (Long claimantId : claimantIds) {
+                claimants.add(executor.submit(() -> {
+                    start.await();
+                    for (Long itemId : itemIds) {
+                        Long winner;
+                        try {
+                            winner = claim.apply(itemId, claimantId);
+                            wins.merge(itemId, 1, Integer::sum);
+                        } catch (ClaimConflictException conflict) {
+                            winner = conflict.getClaimedById();
+                        }
+                        Long agreed = winners.putIfAbsent(itemId, winner);
+                        assertThat(agreed == null ? winner : agreed).isEqualTo(winner);
+                    }
+                    return null;
+                }));
+            }
+            
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> claimant : claimants) {
+                claimant.get(60, TimeUnit.SECONDS);
+            }
+            long elapsedNanos = System.nanoTime() - started;
+            throughput.put(name + ".claims-per-second",
+                    (long) itemIds.size() * claimantIds.size() * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(wins).hasSize(itemIds.size()).allSatisfy((itemId, count) -> assertThat(count).isEqualTo(1));
+        return winners;
+    }
+    
+    @Test
+    void eachSosAlertIsWonByExactlyOneResponder() throws Exception {
+        List<Long> alertIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            alertIds.add(sosAlertRepository.save(SOSAlert.builder()
+                    .user(requester)
+                    .latitude(LATITUDE)
+                    .longitude(LONGITUDE)
+                    .alertMessage("Need help")
+                    .build()).getId());
+        }
+        
+        Map<Long, Long> winners = race("sos-alert", alertIds, responderIds,
+                (alertId, responderId) -> sosAlertService.respondToAlert(alertId, responderId).getRespondedById());
+        
+        for (SOSAlert alert : sosAlertRepository.findAllById(alertIds)) {
+            assertThat(alert.getStatus()).isEqualTo(SOSAlert.Status.RESPONDED);
+            assertThat(alert.getRespondedBy().getId()).isEqualTo(winners.get(alert.getId()));
+        }
+    }
+    
+    @Test
+    void eachHelpRequestIsWonByExactlyOneVolunteer() throws Exception {
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            requestIds.add(helpRequestRepository.save(HelpRequest.builder()
+                    .requester(requester)
+                    .title("Help request " + i)
+                    .description("Groceries and a ride to the clinic")
+                    .category("General")
+                    .latitude(LATITUDE)
+                    .longitude(LONGITUDE)
+                    .build()).getId());
+        }
+        
+        Map<Long, Long> winners = race("help-request", requestIds, volunteerIds,
+                (requestId, volunteerId) -> helpRequestService.assignVolunteer(requestId, volunteerId)
+                        .getAssignedVolunteerId());
+        
+        for (HelpRequest request : helpRequestRepository.findAllById(requestIds)) {
+            assertThat(request.getStatus()).isEqualTo(HelpRequest.Status.ASSIGNED);
+            assertThat(request.getAssignedVolunteer().getId()).isEqualTo(winners.get(request.getId()));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BloodDonorDTO;
+import com.example.backend.dto.RankedDonorDTO;
+import com.example.backend.entity.BloodDonor.BloodType;
+import com.example.backend.entity.BloodRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class DonorRankerTest {
+    
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+    
+    private final DonorRanker ranker = new DonorRanker(50, 10, 0.5, 0.2, 0.3);
+    
+    private static BloodRequest request(BloodRequest.Urgency urgency) {
+        return BloodRequest.builder()
+                .bloodType(BloodType.A_POSITIVE)
+                .urgency(urgency)
+                .hospitalLatitude(new BigDecimal("23.8103"))
+                .hospitalLongitude(new BigDecimal("90.4125"))
+                .build();
+    }
+    
+    private static BloodDonorPool.PooledDonor donor(long id, BloodType type, String latitude,
+                                                    LocalDate lastDonation, boolean emergency) {
+        return BloodDonorPool.PooledDonor.of(BloodDonorDTO.builder()
+                .id(id)
+                .userId(100 + id)
+                .bloodType(type.getValue())
+                .lastDonationDate(lastDonation)
+                .emergencyDonor(emergency)
+                .build(), latitude != null ? new BigDecimal(latitude) : null, new BigDecimal("90.4125"));
+    }
+    
+    @Test
+    void keepsTheBestKByDistanceAndEmergencyFlag() {
+        DonorRanker.Ranking ranking = ranker.start(request(BloodRequest.Urgency.CRITICAL), 2, TODAY);
+        ranking.offer(donor(1, BloodType.A_POSITIVE, "23.9000", null, false));   // ~10km
+        ranking.offer(donor(2, BloodType.O_NEGATIVE, "23.8150", null, true));    // ~0.5km, emergency
+        ranking.offer(donor(3, BloodType.A_POSITIVE, "23.8200", null, false));   // ~1km
+        ranking.offer(donor(4, BloodType.A_NEGATIVE, "24.0000", null, false));   // ~21km
+        
+        List<RankedDonorDTO> best = ranking.result();
+        
+        assertThat(best).extracting(ranked -> ranked.getDonor().getId()).containsExactly(2L, 3L);
+        assertThat(best.get(0).getScore()).isGreaterThan(best.get(1).getScore());
+        assertThat(best.get(1).getDistanceKm()).isBetween(0.5, 1.5);
+    }
+    
+    @Test
+    void skipsRecentDonorsDistantDonorsAndDonorsWithoutLocation() {
+        DonorRanker.Ranking ranking = ranker.start(request(BloodRequest.Urgency.LOW), 10, TODAY);
+        ranking.offer(donor(1, BloodType.A_POSITIVE, "23.8200", TODAY.minusDays(30), false));
+        ranking.offer(donor(2, BloodType.A_POSITIVE, "24.1000", null, false));  // ~32km, outside 25km
+        ranking.offer(donor(3, BloodType.A_POSITIVE, null, null, false));
+        ranking.offer(donor(4, BloodType.A_POSITIVE, "23.8200", TODAY.minusDays(90), false));
+        
+        assertThat(ranking.result())
+                .extracting(ranked -> ranked.getDonor().getId(), RankedDonorDTO::getDaysSinceLastDonation)
+                .containsExactly(tuple(4L, 90));
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.BloodDonor;
+import com.example.backend.entity.BloodRequest;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.entity.SOSAlert;
+import com.example.backend.entity.Skill;
+import com.example.backend.entity.User;
+import com.example.backend.entity.Volunteer;
+import com.example.backend.repository.BloodRequestRepository;
+import com.example.backend.repository.HelpRequestRepository;
+import com.example.backend.repository.SOSAlertRepository;
+import com.example.backend.repository.SkillRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.repository.VolunteerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * List reads must cost a fixed number of statements however many rows they return, including the
+ * associations their DTOs read
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ListQueryCountTest {
+    
+    private static final int REQUESTERS = 10;
+    private static final int REQUESTS_PER_REQUESTER = 5;
+    private static final BigDecimal LATITUDE = new BigDecimal("23.8103");
+    private static final BigDecimal LONGITUDE = new BigDecimal("90.4125");
+    
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+    
+    @Autowired
+    private HelpRequestRepository helpRequestRepository;
+    
+    @Autowired
+    private SOSAlertRepository sosAlertRepository;
+    
+    @Autowired
+    private VolunteerRepository volunteerRepository;
+    
+    @Autowired
+    private SkillRepository skillRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private final List<Long> requesterIds = new ArrayList<>();
+    private Long firstAidId;
+    
+    @BeforeEach
+    void createRequests() {
+        Skill firstAid = skillRepository.save(Skill.builder().skillName("First aid").build());
+        Skill driving = skillRepository.save(Skill.builder().skillName("Driving").build());
+        firstAidId = firstAid.getId();
+        
+        List<BloodRequest> requests = new ArrayList<>();
+        List<HelpRequest> helpRequests = new ArrayList<>();
+        List<SOSAlert> alerts = new ArrayList<>();
+        List<Volunteer> volunteers = new ArrayList<>();
+        for (int i = 0; i < REQUESTERS; i++) {
+            User requester = userRepository.save(User.builder()
+                    .username("hospital" + i)
+                    .email("hospital" + i + "@example.com")
+                    .passwordHash("hash")
+                    .fullName("Hospital " + i)
+                    .build());
+            requesterIds.add(requester.getId());
+            for (int j = 0; j < REQUESTS_PER_REQUESTER; j++) {
+                requests.add(BloodRequest.builder()
+                        .requester(requester)
+                        .patientName("Patient " + j)
+                        .bloodType(BloodDonor.BloodType.O_NEGATIVE)
+                        .unitsNeeded(2)
+                        .urgency(BloodRequest.Urgency.CRITICAL)
+                        .build());
+                helpRequests.add(HelpRequest.builder()
+                        .requester(requester)
+                        .title("Help request " + j)
+                        .description("Groceries and a ride to the clinic")
+                        .category("General")
+                        .latitude(LATITUDE)
+                        .longitude(LONGITUDE)
+                        .build());
+                alerts.add(SOSAlert.builder()
+                        .user(requester)
+                        .latitude(LATITUDE)
+                        .longitude(LONGITUDE)
+                        .alertMessage("Need help")
+                        .build());
+            }
+            volunteers.add(Volunteer.builder()
+                    .user(requester)
+                    .verificationStatus(Volunteer.VerificationStatus.VERIFIED)
+                    .skills(new ArrayList<>(List.of(firstAid, driving)))
+                    .build());
+        }
+        bloodRequestRepository.saveAll(requests);
+        helpRequestRepository.saveAll(helpRequests);
+        sosAlertRepository.saveAll(alerts);
+        volunteerRepository.saveAllAndFlush(volunteers);
+        entityManager.clear();
+    }
+    
+    /**
+     * Statements needed to run {@code read} and show each row's user's name, as the DTOs do
+     */
+    private <T> long statementsFor(Supplier<List<T>> read, Function<T, User> user, int expectedRows) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        List<T> rows = read.get();
+        rows.forEach(row -> assertThat(user.apply(row).getFullName()).startsWith("Hospital"));
+        
+        assertThat(rows).hasSize(expectedRows);
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private long statementsFor(Supplier<List<BloodRequest>> read, int expectedRows) {
+        return statementsFor(read, BloodRequest::getRequester, expectedRows);
+    }
+    
+    /**
+     * As {@link #statementsFor(Supplier, Function, int)}, also reading each volunteer's skills
+     */
+    private long volunteerStatementsFor(Supplier<List<Volunteer>> read) {
+        return statementsFor(read, volunteer -> {
+            assertThat(volunteer.getSkills()).hasSize(2);
+            return volunteer.getUser();
+        }, REQUESTERS);
+    }
+    
+    @Test
+    void activeBloodRequestsLoadWithTheirRequestersInOneStatement() {
+        assertThat(statementsFor(() -> bloodRequestRepository.findByStatus(BloodRequest.Status.ACTIVE),
+                REQUESTERS * REQUESTS_PER_REQUESTER)).isEqualTo(1);
+    }
+    
+    @Test
+    void criticalBloodRequestsLoadWithTheirRequestersInOneStatement() {
+        assertThat(statementsFor(bloodRequestRepository::findCriticalRequests,
+                REQUESTERS * REQUESTS_PER_REQUESTER)).isEqualTo(1);
+    }
+    
+    @Test
+    void requesterHistoryLoadsInOneStatement() {
+        assertThat(statementsFor(() -> bloodRequestRepository.findByRequesterId(requesterIds.get(0)),
+                REQUESTS_PER_REQUESTER)).isEqualTo(1);
+    }
+    
+    @Test
+    void openHelpRequestsLoadWithTheirRequestersInOneStatement() {
+        assertThat(statementsFor(helpRequestRepository::findOpenRequests, HelpRequest::getRequester,
+                REQUESTERS * REQUESTS_PER_REQUESTER)).isEqualTo(1);
+    }
+    
+    @Test
+    void helpRequestsByStatusLoadWithTheirRequestersInOneStatement() {
+        assertThat(statementsFor(() -> helpRequestRepository.findByStatus(HelpRequest.Status.OPEN),
+                HelpRequest::getRequester, REQUESTERS * REQUESTS_PER_REQUESTER)).isEqualTo(1);
+    }
+    
+    @Test
+    void requesterHelpHistoryLoadsInOneStatement() {
+        assertThat(statementsFor(() -> helpRequestRepository.findByRequesterId(requesterIds.get(0)),
+                HelpRequest::getRequester, REQUESTS_PER_REQUESTER)).isEqualTo(1);
+    }
+    
+    @Test
+    void activeSosAlertsLoadWithTheirUsersInOneStatement() {
+        assertThat(statementsFor(sosAlertRepository::findActiveAlerts, SOSAlert::getUser,
+                REQUESTERS * REQUESTS_PER_REQUESTER)).isEqualTo(1);
+    }
+    
+    @Test
+    void userSosHistoryLoadsInOneStatement() {
+        assertThat(statementsFor(() -> sosAlertRepository.findByUserId(requesterIds.get(0)),
+                SOSAlert::getUser, REQUESTS_PER_REQUESTER)).isEqualTo(1);
+    }
+    
+    @Test
+    void availableVolunteersLoadWithUsersAndSkillsInOneStatement() {
+        assertThat(volunteerStatementsFor(volunteerRepository::findAvailableVolunteers)).isEqualTo(1);
+    }
+    
+    @Test
+    void volunteerIndexSnapshotLoadsInOneStatement() {
+        assertThat(volunteerStatementsFor(volunteerRepository::findAvailableVolunteersWithSkills)).isEqualTo(1);
+    }
+    
+    @Test
+    void volunteersBySkillLoadWithUsersAndSkillsInOneStatement() {
+        assertThat(volunteerStatementsFor(() -> volunteerRepository.findVolunteersBySkills(List.of(firstAidId))))
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void loadingAUserDoesNotQueryVolunteerOrDonorProfiles() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        assertThat(userRepository.findById(requesterIds.get(0))).isPresent();
+        
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
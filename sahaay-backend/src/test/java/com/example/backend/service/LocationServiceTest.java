@@ -0,0 +1,157 @@
+package com.example.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationServiceTest {
+    
+    private static final String ADDRESS = "Gulshan Avenue, Dhaka 1212, Bangladesh";
+    
+    private HttpServer server;
+    private final AtomicInteger geocodeCalls = new AtomicInteger();
+    private volatile int responseStatus = 200;
+    private volatile long responseDelayMillis = 0;
+    
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/geocode/json", exchange -> {
+            geocodeCalls.incrementAndGet();
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"status\":\"OK\",\"results\":[{\"formatted_address\":\"" + ADDRESS + "\"}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+    
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+    
+    private ReverseGeocodeCache cache(String snapshotFile) {
+        return new ReverseGeocodeCache(new SimpleMeterRegistry(), 4, 100, Duration.ofHours(1), snapshotFile);
+    }
+    
+    private LocationService locationService(ReverseGeocodeCache cache) {
+        LocationService service = new LocationService(cache, Duration.ofSeconds(1), Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(service, "googleMapsApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "mapsBaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        return service;
+    }
+    
+    @Test
+    void nearbyCoordinatesShareOneLookup() {
+        LocationService service = locationService(cache(""));
+        
+        String first = service.getAddressFromCoordinates(new BigDecimal("23.78091"), new BigDecimal("90.41562"));
+        String second = service.getAddressFromCoordinates(new BigDecimal("23.78089"), new BigDecimal("90.41558"));
+        
+        assertThat(first).isEqualTo(ADDRESS);
+        assertThat(second).isEqualTo(ADDRESS);
+        assertThat(geocodeCalls).hasValue(1);
+    }
+    
+    @Test
+    void concurrentMissesForOneCellMakeOneCall() throws Exception {
+        responseDelayMillis = 200;
+        LocationService service = locationService(cache(""));
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        
+        try {
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.getAddressFromCoordinates(new BigDecimal("23.7809"), new BigDecimal("90.4156"));
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo(ADDRESS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(geocodeCalls).hasValue(1);
+    }
+    
+    @Test
+    void failedLookupsFallBackToCoordinatesAndAreNotCached() {
+        responseStatus = 500;
+        ReverseGeocodeCache cache = cache("");
+        LocationService service = locationService(cache);
+        
+        String address = service.getAddressFromCoordinates(new BigDecimal("23.7809"), new BigDecimal("90.4156"));
+        
+        assertThat(address).isEqualTo("23.780900, 90.415600");
+        assertThat(cache.size()).isZero();
+    }
+    
+    @Test
+    void snapshotRestoresEntriesAcrossRestarts(@TempDir Path dir) {
+        String snapshot = dir.resolve("geocode-cache.tsv").toString();
+        ReverseGeocodeCache before = cache(snapshot);
+        locationService(before).getAddressFromCoordinates(new BigDecimal("23.7809"), new BigDecimal("90.4156"));
+        before.saveSnapshot();
+        
+        ReverseGeocodeCache after = cache(snapshot);
+        after.loadSnapshot();
+        String address = locationService(after)
+                .getAddressFromCoordinates(new BigDecimal("23.7809"), new BigDecimal("90.4156"));
+        
+        assertThat(address).isEqualTo(ADDRESS);
+        assertThat(geocodeCalls).hasValue(1);
+    }
+    
+    @Test
+    void radiusFilterKeepsCandidateOrderAndDropsTheBoxCorners() {
+        LocationService service = locationService(cache(""));
+        // Inside the 5 km radius, outside it but inside the bounding box, and inside again
+        List<Map.Entry<BigDecimal, BigDecimal>> candidates = List.of(
+                Map.entry(new BigDecimal("23.8300"), new BigDecimal("90.4300")),
+                Map.entry(new BigDecimal("23.8500"), new BigDecimal("90.4500")),
+                Map.entry(new BigDecimal("23.8103"), new BigDecimal("90.4125")));
+        
+        List<Map.Entry<BigDecimal, BigDecimal>> within = service.filterWithinRadius(
+                new BigDecimal("23.8103"), new BigDecimal("90.4125"), 5.0,
+                candidates, Map.Entry::getKey, Map.Entry::getValue);
+        
+        assertThat(within).containsExactly(candidates.get(0), candidates.get(2));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.NotificationDTO;
+import com.example.backend.entity.Notification;
+import com.example.backend.entity.NotificationReadState;
+import com.example.backend.entity.User;
+import com.example.backend.repository.NotificationReadStateRepository;
+import com.example.backend.repository.NotificationRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.websocket.NotificationWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({NotificationService.class, OutboxService.class, UnreadCountCache.class,
+    NotificationReadTracker.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "app.notifications.inbox-mode=watermark",
+    "app.notifications.watermark.max-read-ids=3"
+})
+class NotificationReadTrackerTest {
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private NotificationReadTracker readTracker;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private NotificationReadStateRepository readStateRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @MockBean
+    private NotificationWebSocketHandler webSocketHandler;
+    
+    private Long userId;
+    
+    @BeforeEach
+    void createRecipient() {
+        userId = userRepository.save(User.builder()
+                .username("reader")
+                .email("reader@example.com")
+                .passwordHash("hash")
+                .fullName("Reader")
+                .build()).getId();
+    }
+    
+    private List<Long> send(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(notificationService.sendNotification(userId, "Update " + i, "Body", "SYSTEM", null).getId());
+        }
+        return ids;
+    }
+    
+    // Old enough for the watermark to move over them, oldest first
+    private List<Long> sendSettled(int count) {
+        List<Long> ids = send(count);
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(10);
+        for (Long id : ids) {
+            Notification notification = notificationRepository.findById(id).orElseThrow();
+            notification.setCreatedAt(createdAt);
+            createdAt = createdAt.plusSeconds(1);
+        }
+        entityManager.flush();
+        return ids;
+    }
+    
+    private NotificationReadState state() {
+        entityManager.flush();
+        entityManager.clear();
+        return readStateRepository.findById(userId).orElseThrow();
+    }
+    
+    @Test
+    void markingOneReadLeavesTheNotificationRowUntouched() {
+        List<Long> ids = send(3);
+        
+        notificationService.markAsRead(ids.get(1));
+        entityManager.flush();
+        entityManager.clear();
+        
+        assertThat(readTracker.countUnread(userId)).isEqualTo(2);
+        assertThat(notificationService.getUnreadNotifications(userId, null, null).getItems())
+                .extracting(NotificationDTO::getId)
+                .containsExactly(ids.get(2), ids.get(0));
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(userId)).isEqualTo(3);
+    }
+    
+    @Test
+    void markAllMovesTheWatermarkAndLaterNotificationsAreUnread() {
+        send(4);
+        notificationService.markAsRead(notificationRepository.findByRecipientId(userId).get(0).getId());
+        
+        notificationService.markAllAsRead(userId, null);
+        entityManager.flush();
+        assertThat(readTracker.countUnread(userId)).isZero();
+        
+        Long later = send(1).get(0);
+        entityManager.flush();
+        
+        assertThat(readTracker.countUnread(userId)).isEqualTo(1);
+        assertThat(notificationService.getUserNotifications(userId, null, null).getItems())
+                .filteredOn(notification -> !notification.getIsRead())
+                .extracting(NotificationDTO::getId)
+                .containsExactly(later);
+    }
+    
+    @Test
+    void markAllStopsAtTheNewestNotificationTheClientSaw() {
+        List<Long> shown = send(2);
+        List<Long> arrivedLater = send(2);
+        notificationService.markAsRead(arrivedLater.get(1));
+        
+        notificationService.markAllAsRead(userId, shown.get(1));
+        entityManager.flush();
+        entityManager.clear();
+        
+        assertThat(readTracker.countUnread(userId)).isEqualTo(1);
+        assertThat(notificationService.getUnreadNotifications(userId, null, null).getItems())
+                .extracting(NotificationDTO::getId)
+                .containsExactly(arrivedLater.get(0));
+    }
+    
+    @Test
+    void readsDirectlyAfterTheWatermarkMoveItInsteadOfGrowingTheSet() {
+        List<Long> ids = sendSettled(4);
+        notificationService.markAsRead(ids.get(2));
+        notificationService.markAsRead(ids.get(0));
+        assertThat(state().getReadIds()).containsExactly(ids.get(2));
+        
+        notificationService.markAsRead(ids.get(1));
+        
+        NotificationReadState state = state();
+        assertThat(state.getReadIds()).isEmpty();
+        assertThat(state.getLastReadId()).isEqualTo(ids.get(2));
+        assertThat(readTracker.countUnread(userId)).isEqualTo(1);
+    }
+    
+    @Test
+    void individualReadsPastTheLimitMoveToTheReadFlag() {
+        List<Long> ids = send(5);
+        for (Long id : ids.subList(1, 5)) {
+            notificationService.markAsRead(id);
+        }
+        
+        assertThat(state().getReadIds()).isEmpty();
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(userId)).isEqualTo(1);
+        assertThat(readTracker.countUnread(userId)).isEqualTo(1);
+    }
+    
+    @Test
+    void deletingANotificationDropsItsReadId() {
+        List<Long> ids = send(2);
+        notificationService.markAsRead(ids.get(1));
+        
+        notificationService.deleteNotification(ids.get(1));
+        
+        assertThat(state().getReadIds()).isEmpty();
+    }
+}
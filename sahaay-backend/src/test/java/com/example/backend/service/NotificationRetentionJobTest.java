@@ -0,0 +1,138 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Notification;
+import com.example.backend.entity.NotificationReadState;
+import com.example.backend.entity.User;
+import com.example.backend.repository.NotificationArchiveRepository;
+import com.example.backend.repository.NotificationReadStateRepository;
+import com.example.backend.repository.NotificationRepository;
+import com.example.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Import({NotificationRetentionJob.class, SimpleMeterRegistry.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "app.notifications.retention.chunk-size=3",
+    "app.notifications.retention.chunk-pause=0ms",
+    "app.notifications.retention.archive=true"
+})
+class NotificationRetentionJobTest {
+    
+    @Autowired
+    private NotificationRetentionJob retentionJob;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private NotificationArchiveRepository archiveRepository;
+    
+    @Autowired
+    private NotificationReadStateRepository readStateRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @MockBean
+    private UnreadCountCache unreadCountCache;
+    
+    private User recipient;
+    
+    @BeforeEach
+    void createRecipient() {
+        recipient = userRepository.save(User.builder()
+                .username("recipient")
+                .email("recipient@example.com")
+                .passwordHash("hash")
+                .fullName("Recipient")
+                .build());
+    }
+    
+    private List<Notification> createNotifications(int count, boolean read, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            notifications.add(Notification.builder()
+                    .recipient(recipient)
+                    .title("Notice " + i)
+                    .message("Body")
+                    .notificationType(Notification.NotificationType.SYSTEM)
+                    .isRead(read)
+                    .createdAt(createdAt)
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        return notificationRepository.saveAllAndFlush(notifications);
+    }
+    
+    @Test
+    void expiredUnreadNotificationsAreMarkedReadAcrossChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        createNotifications(7, false, now, now.minusMinutes(1));
+        createNotifications(2, false, now, now.plusDays(1));
+        
+        int expired = retentionJob.expireNotifications(now);
+        entityManager.clear();
+        
+        assertThat(expired).isEqualTo(7);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(recipient.getId())).isEqualTo(2);
+        verify(unreadCountCache, times(3)).invalidate(List.of(recipient.getId()));
+    }
+    
+    @Test
+    void oldReadNotificationsAreArchivedThenDeleted() {
+        LocalDateTime now = LocalDateTime.now();
+        createNotifications(5, true, now.minusDays(100), null);
+        createNotifications(2, true, now.minusDays(1), null);
+        createNotifications(1, false, now.minusDays(100), null);
+        
+        int deleted = retentionJob.purgeReadNotifications(now.minusDays(90));
+        entityManager.clear();
+        
+        assertThat(deleted).isEqualTo(5);
+        assertThat(archiveRepository.count()).isEqualTo(5);
+        assertThat(notificationRepository.findByRecipientId(recipient.getId())).hasSize(3);
+    }
+    
+    @Test
+    void notificationsReadIndividuallyAreDeletedWithTheirReadIds() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> old = createNotifications(2, false, now.minusDays(100), null);
+        readStateRepository.saveAndFlush(NotificationReadState.builder()
+                .userId(recipient.getId())
+                .lastReadAt(now.minusDays(365))
+                .lastReadId(0L)
+                .readIds(new HashSet<>(List.of(old.get(1).getId())))
+                .build());
+        
+        int deleted = retentionJob.purgeReadNotifications(now.minusDays(90));
+        entityManager.clear();
+        
+        assertThat(deleted).isEqualTo(1);
+        assertThat(notificationRepository.findByRecipientId(recipient.getId()))
+                .extracting(Notification::getId)
+                .containsExactly(old.get(0).getId());
+        assertThat(readStateRepository.findById(recipient.getId()).orElseThrow().getReadIds()).isEmpty();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CursorPage;
+import com.example.backend.dto.NotificationDTO;
+import com.example.backend.entity.User;
+import com.example.backend.exception.BadRequestException;
+import com.example.backend.repository.NotificationRepository;
+import com.example.backend.repository.OutboxEventRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.websocket.NotificationWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({NotificationService.class, OutboxService.class, UnreadCountCache.class,
+    NotificationReadTracker.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class NotificationServiceTest {
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @MockBean
+    private NotificationWebSocketHandler webSocketHandler;
+    
+    private List<Long> createUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .username("donor" + i)
+                    .email("donor" + i + "@example.com")
+                    .passwordHash("hash")
+                    .fullName("Donor " + i)
+                    .build());
+        }
+        return userRepository.saveAllAndFlush(users).stream().map(User::getId).toList();
+    }
+    
+    @Test
+    void bulkNotificationWritesRowsInJdbcBatches() {
+        List<Long> userIds = createUsers(60);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        int sent = notificationService.sendBulkNotification(
+            userIds, "Blood Donation Request", "O+ needed", "BLOOD_REQUEST", 7L);
+        notificationRepository.flush();
+        
+        assertThat(sent).isEqualTo(60);
+        assertThat(notificationRepository.count()).isEqualTo(60);
+        // No user reloads; notifications and their outbox events each go out as 3 batches of
+        // up to 25 rows, plus at most two pooled sequence calls per table
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+        assertThat(outboxEventRepository.count()).isEqualTo(60);
+    }
+    
+    @Test
+    void duplicateRecipientsAreNotifiedOnce() {
+        List<Long> userIds = createUsers(2);
+        
+        int sent = notificationService.sendBulkNotification(
+            List.of(userIds.get(0), userIds.get(1), userIds.get(0)), "New Help Request", "Help nearby",
+            "HELP_REQUEST", 3L);
+        
+        assertThat(sent).isEqualTo(2);
+        assertThat(notificationRepository.findByRecipientId(userIds.get(0))).hasSize(1);
+    }
+    
+    @Test
+    void inboxPagesFollowTheCursorWithoutGapsOrRepeats() {
+        Long userId = createUsers(1).get(0);
+        List<Long> sentIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sentIds.add(notificationService.sendNotification(userId, "Update " + i, "Body", "SYSTEM", null).getId());
+        }
+        
+        List<Long> seenIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<NotificationDTO> page = notificationService.getUserNotifications(userId, cursor, 2);
+            page.getItems().forEach(notification -> seenIds.add(notification.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        
+        assertThat(pages).isEqualTo(3);
+        assertThat(seenIds).containsExactlyInAnyOrderElementsOf(sentIds).doesNotHaveDuplicates();
+        assertThat(notificationService.getUnreadCount(userId)).isEqualTo(5);
+    }
+    
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> notificationService.getUserNotifications(1L, "not-a-cursor", 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
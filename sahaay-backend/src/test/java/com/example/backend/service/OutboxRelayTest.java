@@ -0,0 +1,100 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.NotificationDTO;
+import com.example.backend.entity.OutboxEvent;
+import com.example.backend.repository.OutboxEventRepository;
+import com.example.backend.util.DatabasePlatform;
+import com.example.backend.websocket.NotificationWebSocketHandler;
+import com.example.backend.websocket.SOSWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@DataJpaTest
+@Import({OutboxService.class, OutboxRelay.class, DatabasePlatform.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@ActiveProfiles("test")
+class OutboxRelayTest {
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private OutboxRelay outboxRelay;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @MockBean
+    private NotificationWebSocketHandler notificationWebSocketHandler;
+    
+    @MockBean
+    private SOSWebSocketHandler sosWebSocketHandler;
+    
+    private static NotificationDTO notification(long id, long recipientId) {
+        return NotificationDTO.builder()
+                .id(id)
+                .recipientId(recipientId)
+                .title("Emergency SOS Alert Nearby")
+                .notificationType("SOS_ALERT")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+    
+    @Test
+    void deliversPendingEventsAndMarksThemDelivered() {
+        outboxService.enqueue(OutboxEvent.EventType.NOTIFICATION, 1L, notification(1L, 42L));
+        
+        assertThat(outboxRelay.relayBatch()).isEqualTo(1);
+        
+        verify(notificationWebSocketHandler).sendNotificationToUser(eq(42L), any(NotificationDTO.class));
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getStatus)
+                .containsExactly(OutboxEvent.Status.DELIVERED);
+        assertThat(outboxRelay.relayBatch()).isZero();
+    }
+    
+    @Test
+    void failedDeliveryIsRescheduledWithBackoff() {
+        doThrow(new IllegalStateException("broker unavailable"))
+                .when(notificationWebSocketHandler).sendNotificationToUser(eq(42L), any(NotificationDTO.class));
+        outboxService.enqueue(OutboxEvent.EventType.NOTIFICATION, 1L, notification(1L, 42L));
+        
+        outboxRelay.relayBatch();
+        
+        OutboxEvent event = outboxEventRepository.findAll().get(0);
+        assertThat(event.getStatus()).isEqualTo(OutboxEvent.Status.PENDING);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).isEqualTo("broker unavailable");
+        assertThat(event.getAvailableAt()).isAfter(LocalDateTime.now());
+        // Not due yet, so the next poll leaves it alone
+        assertThat(outboxRelay.relayBatch()).isZero();
+    }
+    
+    @Test
+    void disabledEmailIsDroppedWithoutError() {
+        outboxService.enqueue(OutboxEvent.EventType.EMAIL, null,
+                Map.of("to", "donor@example.com", "subject", "Blood needed", "body", "O+"));
+        
+        outboxRelay.relayBatch();
+        
+        assertThat(outboxEventRepository.findAll().get(0).getStatus()).isEqualTo(OutboxEvent.Status.DELIVERED);
+        verifyNoInteractions(sosWebSocketHandler);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SOSAlertDTO;
+import com.example.backend.entity.SOSAlert;
+import com.example.backend.entity.User;
+import com.example.backend.exception.BadRequestException;
+import com.example.backend.exception.ClaimConflictException;
+import com.example.backend.repository.SOSAlertRepository;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The repository stands in for the conditional update with a compare-and-set on one alert, so
+ * these tests cover how the service reports winners and losers; {@link ClaimContentionTest} races
+ * the SQL itself
+ */
+class SOSAlertServiceTest {
+    
+    private static final Long ALERT_ID = 7L;
+    private static final int RESPONDERS = 8;
+    
+    private final SOSAlertRepository sosAlertRepository = mock(SOSAlertRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final ActiveSOSAlertIndex activeAlertIndex = mock(ActiveSOSAlertIndex.class);
+    
+    private final SOSAlertService service = new SOSAlertService(sosAlertRepository, userRepository,
+            notificationService, null, activeAlertIndex, null, null);
+    
+    private SOSAlert alert;
+    
+    @BeforeEach
+    void createAlert() {
+        alert = SOSAlert.builder()
+                .id(ALERT_ID)
+                .user(User.builder().id(1L).fullName("Victim").build())
+                .latitude(BigDecimal.valueOf(23.8103))
+                .longitude(BigDecimal.valueOf(90.4125))
+                .build();
+        for (long id = 100; id < 100 + RESPONDERS; id++) {
+            User responder = User.builder().id(id).fullName("Responder " + id).build();
+            when(userRepository.findById(id)).thenReturn(Optional.of(responder));
+        }
+        when(sosAlertRepository.findById(ALERT_ID)).thenReturn(Optional.of(alert));
+        when(sosAlertRepository.claim(eq(ALERT_ID), any(User.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    synchronized (alert) {
+                        if (alert.getStatus() != SOSAlert.Status.ACTIVE) {
+                            return 0;
+                        }
+                        alert.setStatus(SOSAlert.Status.RESPONDED);
+                        alert.setRespondedBy(invocation.getArgument(1));
+                        alert.setResponseTime(invocation.getArgument(2));
+                        return 1;
+                    }
+                });
+    }
+    
+    @Test
+    void laterRespondersAreToldWhoWon() {
+        SOSAlertDTO won = service.respondToAlert(ALERT_ID, 100L);
+        
+        assertThat(won.getRespondedById()).isEqualTo(100L);
+        assertThatThrownBy(() -> service.respondToAlert(ALERT_ID, 101L))
+                .isInstanceOfSatisfying(ClaimConflictException.class, conflict -> {
+                    assertThat(conflict.getClaimedById()).isEqualTo(100L);
+                    assertThat(conflict.getClaimedByName()).isEqualTo("Responder 100");
+                    assertThat(conflict.getClaimedAt()).isEqualTo(won.getResponseTime());
+                });
+    }
+    
+    @Test
+    void repeatedClaimByTheWinnerSucceedsWithoutNotifyingAgain() {
+        service.respondToAlert(ALERT_ID, 100L);
+        
+        assertThat(service.respondToAlert(ALERT_ID, 100L).getRespondedById()).isEqualTo(100L);
+        verify(notificationService, times(1))
+                .sendNotification(anyLong(), anyString(), anyString(), anyString(), anyLong());
+    }
+    
+    @Test
+    void resolvedAlertsCannotBeClaimed() {
+        alert.setStatus(SOSAlert.Status.RESOLVED);
+        
+        assertThatThrownBy(() -> service.respondToAlert(ALERT_ID, 100L))
+                .isInstanceOf(BadRequestException.class);
+    }
+    
+    @Test
+    void exactlyOneOfSimultaneousRespondersWins() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(RESPONDERS);
+        List<Future<Long>> outcomes = new ArrayList<>();
+        for (long id = 100; id < 100 + RESPONDERS; id++) {
+            long responderId = id;
+            outcomes.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return service.respondToAlert(ALERT_ID, responderId).getRespondedById();
+                } catch (ClaimConflictException conflict) {
+                    return -conflict.getClaimedById();
+                }
+            }));
+        }
+        
+        start.countDown();
+        List<Long> winners = new ArrayList<>();
+        List<Long> reportedWinners = new ArrayList<>();
+        for (Future<Long> outcome : outcomes) {
+            long result = outcome.get(10, TimeUnit.SECONDS);
+            (result > 0 ? winners : reportedWinners).add(Math.abs(result));
+        }
+        executor.shutdown();
+        
+        assertThat(winners).hasSize(1);
+        assertThat(reportedWinners).hasSize(RESPONDERS - 1).containsOnly(winners.get(0));
+        verify(activeAlertIndex, times(1)).remove(ALERT_ID);
+    }
+}
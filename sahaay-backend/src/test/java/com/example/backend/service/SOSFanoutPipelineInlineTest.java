@@ -0,0 +1,135 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SOSAlertDTO;
+import com.example.backend.entity.Notification;
+import com.example.backend.entity.User;
+import com.example.backend.repository.NotificationRepository;
+import com.example.backend.repository.OutboxEventRepository;
+import com.example.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs a saturated pipeline against the real notification service, so the inline fallback is
+ * checked for actually persisting what it sends
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:sos-fanout-inline;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "app.outbox.relay.poll-interval=3600000",
+    "app.notifications.retention.initial-delay=3600000"
+})
+class SOSFanoutPipelineInlineTest {
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final UserRepository locator = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch workerBusy = new CountDownLatch(1);
+    private final CountDownLatch releaseWorker = new CountDownLatch(1);
+    private SOSFanoutPipeline pipeline;
+    private List<Long> neighbourIds;
+    
+    @BeforeEach
+    void startSaturatedPipeline() {
+        neighbourIds = List.of(user("first"), user("second"));
+        
+        // The first alert parks the only worker in its locate stage
+        when(locator.findUserIdsWithinRadius(any(), any(), anyDouble())).thenAnswer(invocation -> {
+            if (workerBusy.getCount() > 0) {
+                workerBusy.countDown();
+                releaseWorker.await(5, TimeUnit.SECONDS);
+            }
+            return neighbourIds;
+        });
+        
+        pipeline = new SOSFanoutPipeline(locator, notificationService, meterRegistry,
+                transactionManager, 1, 1, 1, Duration.ofMillis(10), 5.0);
+        pipeline.start();
+    }
+    
+    @AfterEach
+    void cleanUp() throws InterruptedException {
+        releaseWorker.countDown();
+        pipeline.stop();
+        notificationRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+    
+    private Long user(String name) {
+        return userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .passwordHash("hash")
+                .fullName(name)
+                .build()).getId();
+    }
+    
+    private static SOSAlertDTO alert(long id) {
+        return SOSAlertDTO.builder()
+                .id(id)
+                .userId(-1L)
+                .latitude(new BigDecimal("23.8103"))
+                .longitude(new BigDecimal("90.4125"))
+                .priorityLevel("LOW")
+                .build();
+    }
+    
+    private List<Long> notifiedFor(long alertId) {
+        return notificationRepository.findAll().stream()
+                .filter(notification -> Long.valueOf(alertId).equals(notification.getRelatedId()))
+                .map(notification -> notification.getRecipient().getId())
+                .toList();
+    }
+    
+    @Test
+    void alertRunInlineAfterCommitStillSavesItsNotifications() throws InterruptedException {
+        pipeline.submit(alert(1L));
+        assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+        pipeline.submit(alert(2L));
+        
+        // Submitted the way SOSAlertService does, so it runs from the creating transaction's afterCommit
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> pipeline.submit(alert(3L)));
+        
+        assertThat(meterRegistry.counter("sos.fanout.jobs", "outcome", "inline").count()).isEqualTo(1.0);
+        assertThat(notifiedFor(3L)).containsExactlyInAnyOrderElementsOf(neighbourIds);
+        assertThat(notificationRepository.findAll())
+                .extracting(Notification::getRelatedId)
+                .doesNotContain(1L, 2L);
+    }
+}
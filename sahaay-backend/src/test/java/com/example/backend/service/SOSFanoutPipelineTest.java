@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.SOSAlertDTO;
+import com.example.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SOSFanoutPipelineTest {
+    
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SOSFanoutPipeline pipeline;
+    
+    private SOSFanoutPipeline pipeline(int workers) {
+        pipeline = new SOSFanoutPipeline(userRepository, notificationService,
+                meterRegistry, mock(PlatformTransactionManager.class), workers, 10, 3, Duration.ofMillis(10), 5.0);
+        pipeline.start();
+        return pipeline;
+    }
+    
+    @AfterEach
+    void stopPipeline() throws InterruptedException {
+        pipeline.stop();
+    }
+    
+    private static SOSAlertDTO alert(long id, String priority) {
+        return SOSAlertDTO.builder()
+                .id(id)
+                .userId(1L)
+                .latitude(new BigDecimal("23.8103"))
+                .longitude(new BigDecimal("90.4125"))
+                .priorityLevel(priority)
+                .build();
+    }
+    
+    @Test
+    void notifiesNearbyUsersExceptTheRequester() {
+        when(userRepository.findUserIdsWithinRadius(any(), any(), anyDouble()))
+                .thenReturn(List.of(1L, 2L, 3L));
+        
+        pipeline(2).submit(alert(10L, "HIGH"));
+        
+        verify(notificationService, timeout(2000))
+                .sendBulkNotification(eq(List.of(2L, 3L)), anyString(), anyString(), eq("SOS_ALERT"), eq(10L));
+    }
+    
+    @Test
+    void failedStageIsRetried() {
+        when(userRepository.findUserIdsWithinRadius(any(), any(), anyDouble()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(List.of(2L));
+        
+        pipeline(1).submit(alert(10L, "MEDIUM"));
+        
+        verify(notificationService, timeout(2000))
+                .sendBulkNotification(eq(List.of(2L)), anyString(), anyString(), eq("SOS_ALERT"), eq(10L));
+        assertThat(meterRegistry.counter("sos.fanout.jobs", "outcome", "retried").count()).isEqualTo(1.0);
+    }
+    
+    @Test
+    void criticalAlertsJumpAheadOfQueuedLowPriorityAlerts() throws InterruptedException {
+        CountDownLatch firstJobStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstJob = new CountDownLatch(1);
+        List<Long> notifiedAlerts = new CopyOnWriteArrayList<>();
+        when(userRepository.findUserIdsWithinRadius(any(), any(), anyDouble())).thenReturn(List.of(2L));
+        when(notificationService.sendBulkNotification(anyCollection(), anyString(), anyString(), anyString(), anyLong()))
+                .thenAnswer(invocation -> {
+                    Long alertId = invocation.getArgument(4);
+                    if (alertId == 1L) {
+                        firstJobStarted.countDown();
+                        releaseFirstJob.await(2, TimeUnit.SECONDS);
+                    }
+                    notifiedAlerts.add(alertId);
+                    return 1;
+                });
+        
+        SOSFanoutPipeline pipeline = pipeline(1);
+        pipeline.submit(alert(1L, "LOW"));
+        assertThat(firstJobStarted.await(2, TimeUnit.SECONDS)).isTrue();
+        pipeline.submit(alert(2L, "LOW"));
+        pipeline.submit(alert(3L, "CRITICAL"));
+        releaseFirstJob.countDown();
+        
+        verify(notificationService, timeout(2000).times(3))
+                .sendBulkNotification(anyCollection(), anyString(), anyString(), anyString(), anyLong());
+        assertThat(notifiedAlerts).containsExactly(1L, 3L, 2L);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.backend.service;
+
+import com.example.backend.websocket.NotificationWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadCountCacheTest {
+    
+    private final NotificationReadTracker readTracker = mock(NotificationReadTracker.class);
+    private final NotificationWebSocketHandler webSocketHandler = mock(NotificationWebSocketHandler.class);
+    private final UnreadCountCache cache =
+            new UnreadCountCache(readTracker, webSocketHandler, new SimpleMeterRegistry());
+    
+    @Test
+    void countIsLoadedOnceAndThenKeptInStep() {
+        when(readTracker.countUnread(1L)).thenReturn(3L);
+        
+        assertThat(cache.get(1L)).isEqualTo(3);
+        cache.adjust(1L, 1);
+        cache.increment(List.of(1L));
+        cache.adjust(1L, -1);
+        
+        assertThat(cache.get(1L)).isEqualTo(4);
+        verify(readTracker, times(1)).countUnread(1L);
+        verify(webSocketHandler).sendNotificationCount(1L, 5);
+        verify(webSocketHandler, times(2)).sendNotificationCount(1L, 4);
+    }
+    
+    @Test
+    void usersWithoutALoadedCountAreNotTracked() {
+        cache.increment(List.of(2L, 3L));
+        
+        verify(readTracker, never()).countUnread(anyLong());
+        verify(webSocketHandler, never()).sendNotificationCount(anyLong(), anyInt());
+    }
+    
+    @Test
+    void resetAndInvalidate() {
+        when(readTracker.countUnread(1L)).thenReturn(7L, 2L);
+        cache.get(1L);
+        
+        cache.reset(1L);
+        assertThat(cache.get(1L)).isZero();
+        verify(webSocketHandler).sendNotificationCount(eq(1L), eq(0));
+        
+        cache.adjust(1L, -1);
+        assertThat(cache.get(1L)).isZero();
+        
+        cache.invalidate(List.of(1L));
+        assertThat(cache.get(1L)).isEqualTo(2);
+    }
+    
+    @Test
+    void countThatRacedAChangeIsNotCached() {
+        // The change commits and is applied while the COUNT that already includes it runs
+        when(readTracker.countUnread(1L)).thenAnswer(invocation -> {
+            cache.adjust(1L, 1);
+            return 4L;
+        }).thenReturn(4L);
+        
+        assertThat(cache.get(1L)).isEqualTo(4);
+        assertThat(cache.get(1L)).isEqualTo(4);
+        assertThat(cache.get(1L)).isEqualTo(4);
+        verify(readTracker, times(2)).countUnread(1L);
+    }
+    
+    @Test
+    void countIsNotCachedWhileAChangeAwaitsItsCommit() {
+        when(readTracker.countUnread(1L)).thenReturn(4L);
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.adjust(1L, 1);
+            // The row is committed and counted, but afterCommit has not run yet
+            assertThat(cache.get(1L)).isEqualTo(4);
+            
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        assertThat(cache.get(1L)).isEqualTo(4);
+        assertThat(cache.get(1L)).isEqualTo(4);
+        verify(readTracker, times(2)).countUnread(1L);
+    }
+}
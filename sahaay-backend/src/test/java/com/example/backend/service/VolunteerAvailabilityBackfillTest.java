@@ -0,0 +1,72 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.entity.Volunteer;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.repository.VolunteerRepository;
+import com.example.backend.util.WeeklyAvailability;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(VolunteerAvailabilityBackfill.class)
+@ActiveProfiles("test")
+class VolunteerAvailabilityBackfillTest {
+    
+    @Autowired
+    private VolunteerAvailabilityBackfill backfill;
+    
+    @Autowired
+    private VolunteerRepository volunteerRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    private Long volunteer(String name, Map<String, List<String>> hours) {
+        User user = userRepository.save(User.builder()
+                .username(name)
+                .email(name + "@example.com")
+                .passwordHash("hash")
+                .fullName(name)
+                .build());
+        return volunteerRepository.save(Volunteer.builder()
+                .user(user)
+                .availabilityHours(hours)
+                .build()).getId();
+    }
+    
+    @Test
+    void compilesHoursOfVolunteersRegisteredBeforeTheBitmap() {
+        Long weekdays = volunteer("weekdays", Map.of("MONDAY", List.of("09:00-17:00")));
+        Long unreadable = volunteer("unreadable", Map.of("SOMEDAY", List.of("09:00-17:00")));
+        Long noSchedule = volunteer("anytime", null);
+        entityManager.flush();
+        entityManager.clear();
+        
+        backfill.run();
+        entityManager.flush();
+        entityManager.clear();
+        
+        byte[] bitmap = volunteerRepository.findById(weekdays).orElseThrow().getAvailabilityBitmap();
+        assertThat(WeeklyAvailability.isAvailable(bitmap, WeeklyAvailability.slot(DayOfWeek.MONDAY, LocalTime.of(10, 0))))
+                .isTrue();
+        assertThat(WeeklyAvailability.isAvailable(bitmap, WeeklyAvailability.slot(DayOfWeek.TUESDAY, LocalTime.of(10, 0))))
+                .isFalse();
+        assertThat(volunteerRepository.findById(unreadable).orElseThrow().getAvailabilityBitmap()).isNull();
+        assertThat(volunteerRepository.findById(noSchedule).orElseThrow().getAvailabilityBitmap()).isNull();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.User;
+import com.example.backend.entity.Volunteer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VolunteerIndexTest {
+    
+    private final VolunteerIndex index = new VolunteerIndex(0.1);
+    
+    private static Volunteer volunteer(long id, String latitude, String longitude, int maxDistanceKm) {
+        User user = User.builder()
+                .id(100 + id)
+                .fullName("Volunteer " + id)
+                .latitude(latitude != null ? new BigDecimal(latitude) : null)
+                .longitude(longitude != null ? new BigDecimal(longitude) : null)
+                .build();
+        return Volunteer.builder()
+                .id(id)
+                .user(user)
+                .verificationStatus(Volunteer.VerificationStatus.VERIFIED)
+                .isAvailable(true)
+                .maxDistanceKm(maxDistanceKm)
+                .build();
+    }
+    
+    private List<Long> covering(double latitude, double longitude) {
+        List<Long> ids = new ArrayList<>();
+        index.forEachCovering(latitude, longitude, volunteer -> ids.add(volunteer.volunteerId()));
+        return ids;
+    }
+    
+    @Test
+    void findsVolunteersWhoseOwnRadiusCoversThePoint() {
+        index.load(List.of(
+            VolunteerIndex.IndexedVolunteer.of(volunteer(1, "23.8103", "90.4125", 5), 0),
+            VolunteerIndex.IndexedVolunteer.of(volunteer(2, "23.9000", "90.4125", 25), 0),   // ~10km north
+            VolunteerIndex.IndexedVolunteer.of(volunteer(3, "23.9000", "90.4125", 5), 0),
+            VolunteerIndex.IndexedVolunteer.of(volunteer(4, null, null, 50), 0)));
+        
+        assertThat(covering(23.8150, 90.4125)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(covering(24.0500, 90.4125)).containsExactly(2L);
+        assertThat(covering(25.0000, 90.4125)).isEmpty();
+    }
+    
+    @Test
+    void updatesMoveAndDropCoverage() {
+        index.load(List.of(VolunteerIndex.IndexedVolunteer.of(volunteer(1, "23.8103", "90.4125", 5), 0)));
+        
+        index.update(volunteer(1, "22.3569", "91.7832", 5), 0);
+        assertThat(covering(23.8103, 90.4125)).isEmpty();
+        assertThat(covering(22.3600, 91.7800)).containsExactly(1L);
+        
+        Volunteer unavailable = volunteer(1, "22.3569", "91.7832", 5);
+        unavailable.setIsAvailable(false);
+        index.update(unavailable, 0);
+        assertThat(covering(22.3600, 91.7800)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.RankedVolunteerDTO;
+import com.example.backend.entity.HelpRequest;
+import com.example.backend.service.VolunteerIndex.IndexedVolunteer;
+import com.example.backend.util.SkillBits;
+import com.example.backend.util.WeeklyAvailability;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VolunteerMatcherTest {
+    
+    private static final double LATITUDE = 23.8103;
+    private static final double LONGITUDE = 90.4125;
+    
+    private final VolunteerMatcher matcher = new VolunteerMatcher(5, 0.5, 0.25, 0.15, 0.1);
+    
+    private static HelpRequest request(String preferredGender, Integer... requiredSkills) {
+        return HelpRequest.builder()
+                .requiredSkills(requiredSkills)
+                .preferredVolunteerGender(preferredGender)
+                .latitude(BigDecimal.valueOf(LATITUDE))
+                .longitude(BigDecimal.valueOf(LONGITUDE))
+                .build();
+    }
+    
+    private static IndexedVolunteer volunteer(long id, String gender, double latitude, double rating,
+                                              int activeTasks, Long... skills) {
+        return volunteer(id, gender, null, latitude, rating, activeTasks, skills);
+    }
+    
+    private static IndexedVolunteer volunteer(long id, String gender, byte[] availability, double latitude,
+                                              double rating, int activeTasks, Long... skills) {
+        return new IndexedVolunteer(id, 100 + id, "Volunteer " + id, gender, SkillBits.of(List.of(skills)),
+                availability, true, latitude, LONGITUDE, Math.cos(Math.toRadians(latitude)), 10, rating,
+                activeTasks);
+    }
+    
+    @Test
+    void prefersSkillCoverageThenDistanceRatingAndWorkload() {
+        VolunteerMatcher.Matching matching = matcher.start(request(null, 1, 2), 3);
+        matching.offer(volunteer(1, "MALE", 23.8150, 4.0, 0, 1L));          // half the skills, close
+        matching.offer(volunteer(2, "FEMALE", 23.8400, 3.0, 0, 1L, 2L));    // all skills, ~3km
+        matching.offer(volunteer(3, "MALE", 23.8150, 4.0, 3, 1L));          // as 1, but busy
+        matching.offer(volunteer(4, "FEMALE", 23.8150, 5.0, 0));            // no skills
+        
+        List<RankedVolunteerDTO> best = matching.result();
+        
+        assertThat(best).extracting(RankedVolunteerDTO::getVolunteerId).containsExactly(2L, 1L, 3L);
+        assertThat(best.get(0).getSkillCoverage()).isEqualTo(1.0);
+        assertThat(best.get(1).getSkillCoverage()).isEqualTo(0.5);
+        assertThat(best.get(0).getUserId()).isEqualTo(102L);
+    }
+    
+    @Test
+    void requestsWithSkillsNeverReachVolunteersWithNoneOfThem() {
+        VolunteerMatcher.Matching matching = matcher.start(request(null, 1, 2), 10);
+        IndexedVolunteer unskilled = volunteer(1, "FEMALE", 23.8104, 5.0, 0);   // closest, best rated
+        IndexedVolunteer otherSkill = volunteer(2, "MALE", 23.8104, 5.0, 0, 3L);
+        matching.offer(unskilled);
+        matching.offer(otherSkill);
+        matching.offer(volunteer(3, "MALE", 23.8400, 2.0, 4, 2L));
+        
+        assertThat(matching.score(unskilled)).isNaN();
+        assertThat(matching.score(otherSkill)).isNaN();
+        assertThat(matching.result()).extracting(RankedVolunteerDTO::getVolunteerId).containsExactly(3L);
+    }
+    
+    @Test
+    void skipsVolunteersOutsideTheirRadiusOrOfAnotherGender() {
+        VolunteerMatcher.Matching matching = matcher.start(request("female"), 10);
+        matching.offer(volunteer(1, "FEMALE", 23.8150, 4.0, 0));
+        matching.offer(volunteer(2, "MALE", 23.8150, 4.0, 0));
+        matching.offer(volunteer(3, "FEMALE", 24.0000, 4.0, 0));            // ~21km, radius 10km
+        
+        assertThat(matching.result()).extracting(RankedVolunteerDTO::getVolunteerId).containsExactly(1L);
+    }
+    
+    @Test
+    void anyGenderPreferenceMatchesEveryone() {
+        VolunteerMatcher.Matching matching = matcher.start(request("ANY"), 10);
+        matching.offer(volunteer(1, "FEMALE", 23.8150, 4.0, 0));
+        matching.offer(volunteer(2, null, 23.8150, 4.0, 0));
+        
+        assertThat(matching.result()).hasSize(2);
+    }
+    
+    @Test
+    void scheduledRequestsOnlyReachVolunteersOnShift() {
+        HelpRequest request = request(null);
+        request.setScheduledDate(LocalDate.of(2025, 6, 2));   // a Monday
+        request.setScheduledTime(LocalTime.of(18, 30));
+        
+        VolunteerMatcher.Matching matching = matcher.start(request, 10);
+        matching.offer(volunteer(1, null, WeeklyAvailability.compile(Map.of("MONDAY", List.of("09:00-17:00"))),
+                23.8150, 4.0, 0));
+        matching.offer(volunteer(2, null, WeeklyAvailability.compile(Map.of("mon", List.of("17:00-22:00"))),
+                23.8150, 4.0, 0));
+        matching.offer(volunteer(3, null, null, 23.8150, 4.0, 0));
+        
+        assertThat(matching.result()).extracting(RankedVolunteerDTO::getVolunteerId).containsExactlyInAnyOrder(2L, 3L);
+    }
+}
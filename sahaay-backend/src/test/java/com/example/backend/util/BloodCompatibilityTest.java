@@ -0,0 +1,33 @@
+package com.example.backend.util;
+
+import com.example.backend.entity.BloodDonor.BloodType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloodCompatibilityTest {
+    
+    @Test
+    void universalDonorAndRecipient() {
+        for (BloodType type : BloodType.values()) {
+            assertThat(BloodCompatibility.canDonate(BloodType.O_NEGATIVE, type)).isTrue();
+            assertThat(BloodCompatibility.canDonate(type, BloodType.AB_POSITIVE)).isTrue();
+        }
+        assertThat(BloodCompatibility.compatibleDonorTypes(BloodType.O_NEGATIVE))
+                .containsExactly(BloodType.O_NEGATIVE);
+    }
+    
+    @Test
+    void matrixFollowsAboAndRhRules() {
+        assertThat(BloodCompatibility.compatibleDonorTypes(BloodType.A_POSITIVE)).containsExactlyInAnyOrder(
+            BloodType.A_POSITIVE, BloodType.A_NEGATIVE, BloodType.O_POSITIVE, BloodType.O_NEGATIVE);
+        assertThat(BloodCompatibility.canDonate(BloodType.A_POSITIVE, BloodType.B_POSITIVE)).isFalse();
+        assertThat(BloodCompatibility.canDonate(BloodType.O_POSITIVE, BloodType.AB_NEGATIVE)).isFalse();
+        
+        int compatiblePairs = 0;
+        for (BloodType recipient : BloodType.values()) {
+            compatiblePairs += Integer.bitCount(BloodCompatibility.donorMask(recipient));
+        }
+        assertThat(compatiblePairs).isEqualTo(27);
+    }
+}
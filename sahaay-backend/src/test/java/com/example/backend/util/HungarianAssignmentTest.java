@@ -0,0 +1,91 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HungarianAssignmentTest {
+    
+    private static final double F = HungarianAssignment.FORBIDDEN;
+    
+    @Test
+    void findsMinimumCostAssignment() {
+        double[][] cost = {
+                {4, 1, 3},
+                {2, 0, 5},
+                {3, 2, 2}
+        };
+        
+        assertThat(HungarianAssignment.solve(cost)).containsExactly(1, 0, 2);
+    }
+    
+    @Test
+    void leavesExtraColumnsUnused() {
+        double[][] cost = {
+                {9, 1, 9, 9},
+                {9, 9, 9, 2}
+        };
+        
+        assertThat(HungarianAssignment.solve(cost)).containsExactly(1, 3);
+    }
+    
+    @Test
+    void leavesExtraRowsUnassigned() {
+        double[][] cost = {
+                {5},
+                {1},
+                {3}
+        };
+        
+        assertThat(HungarianAssignment.solve(cost)).containsExactly(-1, 0, -1);
+    }
+    
+    @Test
+    void avoidsForbiddenPairsWhenPossible() {
+        double[][] cost = {
+                {0, F},
+                {0, 10}
+        };
+        
+        assertThat(HungarianAssignment.solve(cost)).containsExactly(0, 1);
+    }
+    
+    @Test
+    void matchesBruteForceOnRandomMatrices() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(6);
+            double[][] cost = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    cost[i][j] = random.nextInt(100) - 50;
+                }
+            }
+            
+            int[] assignment = HungarianAssignment.solve(cost);
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += cost[i][assignment[i]];
+            }
+            assertThat(assignment).doesNotHaveDuplicates();
+            assertThat(total).isEqualTo(bestByPermutation(cost, 0, new boolean[n]));
+        }
+    }
+    
+    private static double bestByPermutation(double[][] cost, int row, boolean[] used) {
+        if (row == cost.length) {
+            return 0;
+        }
+        double best = Double.MAX_VALUE;
+        for (int j = 0; j < cost.length; j++) {
+            if (!used[j]) {
+                used[j] = true;
+                best = Math.min(best, cost[row][j] + bestByPermutation(cost, row + 1, used));
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+}
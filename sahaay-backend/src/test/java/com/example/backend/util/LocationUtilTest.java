@@ -0,0 +1,114 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LocationUtilTest {
+    
+    @Test
+    void primitiveDistanceMatchesBigDecimalDistance() {
+        double expected = LocationUtil.calculateDistance(
+            new BigDecimal("23.8103"), new BigDecimal("90.4125"),
+            new BigDecimal("22.3569"), new BigDecimal("91.7832"));
+        
+        assertThat(LocationUtil.calculateDistance(23.8103, 90.4125, 22.3569, 91.7832))
+                .isEqualTo(expected);
+        assertThat(expected).isCloseTo(213.0, within(5.0));
+    }
+    
+    @Test
+    void batchDistancesMatchSinglePointDistances() {
+        double[] lats = {23.81, 23.70, -33.86, 51.50};
+        double[] lons = {90.41, 90.37, 151.20, -0.12};
+        double[] cosLats = new double[lats.length];
+        double[] distances = new double[lats.length];
+        
+        LocationUtil.precomputeCosines(lats, lats.length, cosLats);
+        LocationUtil.calculateDistances(23.80, 90.40, lats, lons, cosLats, lats.length, distances);
+        
+        for (int i = 0; i < lats.length; i++) {
+            assertThat(distances[i]).isCloseTo(
+                LocationUtil.calculateDistance(23.80, 90.40, lats[i], lons[i]), within(1e-9));
+        }
+    }
+    
+    @Test
+    void radiusFilterAgreesWithHaversineAcrossLatitudesAndRadii() {
+        Random random = new Random(42);
+        int count = 20_000;
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        double[] cosLats = new double[count];
+        int[] matches = new int[count];
+        
+        for (double originLat : new double[] {0.0, 23.8, -45.0, 60.0, 69.9, 85.0}) {
+            for (double radiusKm : new double[] {0.5, 5.0, 50.0, 250.0, 1000.0}) {
+                double originLon = 179.5;
+                double spreadDeg = radiusKm * 2 / 111.32;
+                for (int i = 0; i < count; i++) {
+                    lats[i] = Math.max(-90, Math.min(90, originLat + (random.nextDouble() * 2 - 1) * spreadDeg));
+                    lons[i] = originLon + (random.nextDouble() * 2 - 1) * spreadDeg * 3;
+                    if (lons[i] > 180) {
+                        lons[i] -= 360;
+                    }
+                }
+                LocationUtil.precomputeCosines(lats, count, cosLats);
+                
+                int found = LocationUtil.filterWithinRadius(originLat, originLon, radiusKm,
+                        lats, lons, cosLats, count, matches);
+                
+                int expected = 0;
+                for (int i = 0; i < count; i++) {
+                    if (LocationUtil.isWithinRadius(originLat, originLon, lats[i], lons[i], radiusKm)) {
+                        assertThat(matches[expected]).isEqualTo(i);
+                        expected++;
+                    }
+                }
+                assertThat(found).as("lat %s radius %s", originLat, radiusKm).isEqualTo(expected);
+            }
+        }
+    }
+    
+    @Test
+    void boundingBoxWidensAcrossTheAntimeridian() {
+        double[] box = new double[4];
+        LocationUtil.getBoundingBox(-17.0, 179.99, 10, box);
+        
+        assertThat(box[LocationUtil.MIN_LON]).isEqualTo(-180.0);
+        assertThat(box[LocationUtil.MAX_LON]).isEqualTo(180.0);
+        assertThat(box[LocationUtil.MIN_LAT]).isLessThan(-17.0);
+        assertThat(box[LocationUtil.MAX_LAT]).isGreaterThan(-17.0);
+    }
+    
+    @Test
+    void boundingBoxContainsPointsExactlyOnTheRadius() {
+        double lat = 23.8103;
+        double lon = 90.4125;
+        double radiusKm = 5.0;
+        double[] box = new double[4];
+        LocationUtil.getBoundingBox(lat, lon, radiusKm, box);
+        
+        // Due north on the radius
+        double northLat = lat + Math.toDegrees(radiusKm / 6371.0);
+        assertThat(LocationUtil.isWithinRadius(lat, lon, northLat, lon, radiusKm + 1e-9)).isTrue();
+        assertThat(northLat).isLessThanOrEqualTo(box[LocationUtil.MAX_LAT]);
+        
+        // Every bearing on the circle, walked out with the great-circle destination formula
+        double angular = radiusKm / 6371.0;
+        double latRad = Math.toRadians(lat);
+        for (int degrees = 0; degrees < 360; degrees++) {
+            double bearing = Math.toRadians(degrees);
+            double pointLat = Math.asin(Math.sin(latRad) * Math.cos(angular)
+                    + Math.cos(latRad) * Math.sin(angular) * Math.cos(bearing));
+            double pointLon = Math.toRadians(lon) + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(latRad),
+                    Math.cos(angular) - Math.sin(latRad) * Math.sin(pointLat));
+            assertThat(Math.toDegrees(pointLat)).isBetween(box[LocationUtil.MIN_LAT], box[LocationUtil.MAX_LAT]);
+            assertThat(Math.toDegrees(pointLon)).isBetween(box[LocationUtil.MIN_LON], box[LocationUtil.MAX_LON]);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkillBitsTest {
+    
+    @Test
+    void countsSharedSkillsAcrossWords() {
+        long[] required = SkillBits.of(List.of(1, 5, 64, 130));
+        long[] volunteer = SkillBits.of(List.of(1L, 64L, 65L));
+        
+        assertThat(required).hasSize(3);
+        assertThat(SkillBits.cardinality(required)).isEqualTo(4);
+        assertThat(SkillBits.intersectionCount(required, volunteer)).isEqualTo(2);
+        assertThat(SkillBits.intersectionCount(volunteer, required)).isEqualTo(2);
+    }
+    
+    @Test
+    void emptyAndMissingSkillSets() {
+        assertThat(SkillBits.of(null)).isEmpty();
+        assertThat(SkillBits.of(List.of())).isEmpty();
+        assertThat(SkillBits.intersectionCount(SkillBits.EMPTY, SkillBits.of(List.of(3)))).isZero();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+    
+    // Small wheel, so the longer delays below need more than one turn
+    private final TimingWheel wheel = new TimingWheel("test-wheel", Duration.ofMillis(5), 8, Runnable::run);
+    
+    @AfterEach
+    void closeWheel() {
+        wheel.close();
+    }
+    
+    @Test
+    void tasksFireInDeadlineOrderAcrossTurns() throws InterruptedException {
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        
+        wheel.schedule(() -> { fired.add(3); done.countDown(); }, Duration.ofMillis(150));
+        wheel.schedule(() -> { fired.add(1); done.countDown(); }, Duration.ofMillis(10));
+        wheel.schedule(() -> { fired.add(2); done.countDown(); }, Duration.ofMillis(60));
+        
+        assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(fired).containsExactly(1, 2, 3);
+    }
+    
+    @Test
+    void cancelledTasksNeverRun() throws InterruptedException {
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        CountDownLatch laterRan = new CountDownLatch(1);
+        
+        TimingWheel.Timeout timeout = wheel.schedule(cancelledRan::countDown, Duration.ofMillis(30));
+        wheel.schedule(laterRan::countDown, Duration.ofMillis(60));
+        timeout.cancel();
+        
+        assertThat(laterRan.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(cancelledRan.getCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeeklyAvailabilityTest {
+    
+    @Test
+    void compilesRangesIntoFifteenMinuteSlots() {
+        byte[] bitmap = WeeklyAvailability.compile(Map.of(
+            "monday", List.of("09:00-12:00", "14:00-17:30"),
+            "SAT", List.of("10:00-24:00")));
+        
+        assertThat(bitmap).hasSize(WeeklyAvailability.BYTES);
+        assertThat(available(bitmap, DayOfWeek.MONDAY, "08:59")).isFalse();
+        assertThat(available(bitmap, DayOfWeek.MONDAY, "09:00")).isTrue();
+        assertThat(available(bitmap, DayOfWeek.MONDAY, "11:59")).isTrue();
+        assertThat(available(bitmap, DayOfWeek.MONDAY, "12:00")).isFalse();
+        assertThat(available(bitmap, DayOfWeek.MONDAY, "17:15")).isTrue();
+        assertThat(available(bitmap, DayOfWeek.TUESDAY, "10:00")).isFalse();
+        assertThat(available(bitmap, DayOfWeek.SATURDAY, "23:59")).isTrue();
+        assertThat(available(bitmap, DayOfWeek.SUNDAY, "00:00")).isFalse();
+    }
+    
+    @Test
+    void overnightRangesWrapIntoTheNextDayAndWeek() {
+        byte[] bitmap = WeeklyAvailability.compile(Map.of("SUNDAY", List.of("22:00-02:00")));
+        
+        assertThat(available(bitmap, DayOfWeek.SUNDAY, "23:00")).isTrue();
+        assertThat(available(bitmap, DayOfWeek.MONDAY, "01:45")).isTrue();
+        assertThat(available(bitmap, DayOfWeek.MONDAY, "02:00")).isFalse();
+    }
+    
+    @Test
+    void bitsFollowPostgresGetBitNumbering() {
+        byte[] bitmap = WeeklyAvailability.compile(Map.of("MONDAY", List.of("00:15-00:30")));
+        
+        assertThat(WeeklyAvailability.slot(LocalDateTime.of(2025, 6, 2, 0, 20))).isEqualTo(1);
+        assertThat(bitmap[0]).isEqualTo((byte) 0b10);
+    }
+    
+    @Test
+    void missingScheduleIsAlwaysAvailableAndBadInputIsRejected() {
+        assertThat(WeeklyAvailability.compile(null)).isNull();
+        assertThat(WeeklyAvailability.isAvailable(null, 500)).isTrue();
+        
+        assertThatThrownBy(() -> WeeklyAvailability.compile(Map.of("FUNDAY", List.of("09:00-10:00"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WeeklyAvailability.compile(Map.of("MONDAY", List.of("nine to five"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static boolean available(byte[] bitmap, DayOfWeek day, String time) {
+        return WeeklyAvailability.isAvailable(bitmap, WeeklyAvailability.slot(day, LocalTime.parse(time)));
+    }
+}